@@ -1,16 +1,54 @@
 package com.takeam.userservice.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AppConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            @Value("${http.client.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${http.client.read-timeout-ms:5000}") int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        return new RestTemplate(requestFactory);
+    }
+
+    // Not a default candidate, so the auto-configured application task executor still applies
+    @Bean(destroyMethod = "shutdown", defaultCandidate = false)
+    public ExecutorService smsHttpExecutor(@Value("${sms.http.max-threads:4}") int maxThreads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(maxThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sms-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public HttpClient smsHttpClient(
+            @Value("${sms.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Qualifier("smsHttpExecutor") ExecutorService smsHttpExecutor) {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(smsHttpExecutor)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,51 @@
 package com.takeam.userservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.takeam.userservice.dto.request.AdminSeedDto;
 import com.takeam.userservice.dto.request.ApprovalActionDto;
+import com.takeam.userservice.dto.request.BulkModerationRequestDto;
 import com.takeam.userservice.dto.request.CreateAdminDto;
+import com.takeam.userservice.dto.request.PickupIncrementBatchDto;
 import com.takeam.userservice.dto.request.UserActionDto;
 import com.takeam.userservice.dto.response.*;
 import com.takeam.userservice.model.AdminAuditLog;
+import com.takeam.userservice.model.LeaderboardMetric;
+import com.takeam.userservice.model.LeaderboardWindow;
 import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.RollupPeriod;
 import com.takeam.userservice.model.User;
 import com.takeam.userservice.model.UserStatus;
+import com.takeam.userservice.service.AdminAuditService;
 import com.takeam.userservice.service.AdminService;
+import com.takeam.userservice.service.AgentAttendanceService;
+import com.takeam.userservice.service.AgentLeaderboardService;
+import com.takeam.userservice.service.AttendanceRollupService;
+import com.takeam.userservice.service.AutoClockOutService;
+import com.takeam.userservice.service.BulkModerationService;
+import com.takeam.userservice.service.DataExportService;
+import com.takeam.userservice.service.LocationPingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/admin")
@@ -31,6 +54,14 @@ import java.util.UUID;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AgentAttendanceService attendanceService;
+    private final BulkModerationService bulkModerationService;
+    private final DataExportService dataExportService;
+    private final LocationPingService locationPingService;
+    private final AttendanceRollupService rollupService;
+    private final AutoClockOutService autoClockOutService;
+    private final AgentLeaderboardService leaderboardService;
+    private final ObjectMapper objectMapper;
 
 
     @PostMapping("/seed")
@@ -67,6 +98,192 @@ public class AdminController {
     }
 
 
+    @GetMapping("/agents/on-duty")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<OnDutyAgentsDto> getOnDutyAgents(@RequestParam String marketId) {
+        List<UUID> agentIds = List.copyOf(attendanceService.getOnDutyAgents(marketId));
+        OnDutyAgentsDto response = OnDutyAgentsDto.builder()
+                .marketId(marketId)
+                .count(agentIds.size())
+                .agentIds(agentIds)
+                .build();
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/agents/nearest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<NearbyAgentDto>> getNearestAgents(
+            @RequestParam double latitude,
+            @RequestParam double longitude,
+            @RequestParam(defaultValue = "5") int k,
+            @RequestParam(required = false) String marketId) {
+
+        List<NearbyAgentDto> response = attendanceService.getNearestAgents(latitude, longitude, k, marketId);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping(value = "/agents/{userId}/track", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> getAgentTrack(
+            @PathVariable UUID userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        StreamingResponseBody body = out -> locationPingService.replayTrack(userId, date, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+
+    @GetMapping("/agents/{userId}/attendance/report")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<AttendanceReportDto> getAgentAttendanceReport(
+            @PathVariable UUID userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        AttendanceReportDto response = attendanceService.getAttendanceReport(userId, from, to);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/attendance/report")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<AttendanceReportDto>> getMarketAttendanceReport(
+            @RequestParam String marketId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        List<AttendanceReportDto> response = attendanceService.getMarketAttendanceReport(marketId, from, to);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/agents/{userId}/attendance/rollups")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<AttendanceRollupDto>> getAgentAttendanceRollups(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "WEEK") RollupPeriod period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        List<AttendanceRollupDto> response = rollupService.getAgentRollups(userId, period, from, to);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/attendance/rollups")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<MarketAttendanceRollupDto>> getMarketAttendanceRollups(
+            @RequestParam String marketId,
+            @RequestParam(defaultValue = "WEEK") RollupPeriod period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        List<MarketAttendanceRollupDto> response = rollupService.getMarketRollups(marketId, period, from, to);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/attendance/rollups/agents")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<AttendanceRollupDto>> getMarketAgentRollups(
+            @RequestParam String marketId,
+            @RequestParam(defaultValue = "WEEK") RollupPeriod period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        List<AttendanceRollupDto> response = rollupService.getMarketAgentRollups(marketId, period, date);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @PostMapping("/attendance/pickups")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<PickupIncrementResultDto> addCompletedPickups(
+            @Valid @RequestBody PickupIncrementBatchDto request) {
+
+        PickupIncrementResultDto response = attendanceService.incrementCompletedPickups(request.getIncrements());
+        // Some increments are still in flight: accepted, not yet confirmed
+        if (!response.getPending().isEmpty()) {
+            return ResponseEntity.accepted().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/attendance/auto-clock-outs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<AutoClockOutReportDto> getAutoClockOutReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        AutoClockOutReportDto response = autoClockOutService.getReport(from, to);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @PostMapping("/attendance/auto-clock-outs/run")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<AutoClockOutReportDto> runAutoClockOut() {
+        AutoClockOutReportDto response = autoClockOutService.runIfLeader();
+        if (response == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/leaderboards")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<LeaderboardPageDto> getLeaderboard(
+            @RequestParam String marketId,
+            @RequestParam(defaultValue = "PICKUPS") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "TODAY") LeaderboardWindow window,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        LeaderboardPageDto response = leaderboardService.getTop(marketId, metric, window, offset, limit);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/leaderboards/agents/{userId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<LeaderboardRankDto> getAgentLeaderboardRank(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "PICKUPS") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "TODAY") LeaderboardWindow window) {
+
+        LeaderboardRankDto response = leaderboardService.getRank(userId, metric, window);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @PostMapping("/leaderboards/reconcile")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<MessageResponseDto> reconcileLeaderboards() {
+        int boards = leaderboardService.reconcileIfLeader();
+        if (boards < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(new MessageResponseDto("Rebuilt " + boards + " leaderboards", true));
+    }
+
+
+    @PostMapping("/attendance/rollups/backfill")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<RollupBackfillResultDto> backfillAttendanceRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        log.info("Backfilling attendance rollups from {} to {}", from, to);
+        RollupBackfillResultDto response = rollupService.backfill(from, to);
+        return ResponseEntity.ok(response);
+    }
+
+
     @GetMapping("/agents/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     public ResponseEntity<AgentDetailDto> getAgentDetails(@PathVariable UUID id) {
@@ -98,19 +315,40 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+
+    @PostMapping(value = "/agents/bulk/approve", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> approveAgentsBulk(
+            @AuthenticationPrincipal User admin,
+            @Valid @RequestBody BulkModerationRequestDto request) {
+
+        return streamBulkModeration(admin.getId(), BulkModerationService.Action.APPROVE, request);
+    }
+
+
+    @PostMapping(value = "/agents/bulk/reject", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> rejectAgentsBulk(
+            @AuthenticationPrincipal User admin,
+            @Valid @RequestBody BulkModerationRequestDto request) {
+
+        return streamBulkModeration(admin.getId(), BulkModerationService.Action.REJECT, request);
+    }
+
     // user management
 
 
     @GetMapping("/users")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
-    public ResponseEntity<Page<UserResponseDto>> getAllUsers(
+    public ResponseEntity<CursorPageDto<UserResponseDto>> getAllUsers(
             @RequestParam(required = false) Role role,
             @RequestParam(required = false) UserStatus status,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<UserResponseDto> response = adminService.getAllUsers(role, status, pageable);
+        CursorPageDto<UserResponseDto> response =
+                adminService.getAllUsers(role, status, cursor, size, includeTotal);
         return ResponseEntity.ok(response);
     }
 
@@ -158,6 +396,36 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+
+    @PostMapping(value = "/users/bulk/suspend", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> suspendUsersBulk(
+            @AuthenticationPrincipal User admin,
+            @Valid @RequestBody BulkModerationRequestDto request) {
+
+        return streamBulkModeration(admin.getId(), BulkModerationService.Action.SUSPEND, request);
+    }
+
+
+    @PostMapping(value = "/users/bulk/ban", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> banUsersBulk(
+            @AuthenticationPrincipal User admin,
+            @Valid @RequestBody BulkModerationRequestDto request) {
+
+        return streamBulkModeration(admin.getId(), BulkModerationService.Action.BAN, request);
+    }
+
+
+    @PostMapping(value = "/users/bulk/reactivate", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> reactivateUsersBulk(
+            @AuthenticationPrincipal User admin,
+            @Valid @RequestBody BulkModerationRequestDto request) {
+
+        return streamBulkModeration(admin.getId(), BulkModerationService.Action.REACTIVATE, request);
+    }
+
     // dashboards and stats
 
 
@@ -169,14 +437,150 @@ public class AdminController {
     }
 
 
+    @GetMapping("/dashboard/registrations")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<DailyCountDto>> getDailyRegistrations(
+            @RequestParam(defaultValue = "30") int days) {
+        List<DailyCountDto> response = adminService.getDailyRegistrations(days);
+        return ResponseEntity.ok(response);
+    }
+
+
     @GetMapping("/audit-logs")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
     public ResponseEntity<Page<AdminAuditLog>> getAuditLogs(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size) {
 
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = PageRequest.of(Math.max(page, 0),
+                Math.min(Math.max(size, 1), AdminAuditService.MAX_PAGE_SIZE));
         Page<AdminAuditLog> response = adminService.getAuditLogs(pageable);
         return ResponseEntity.ok(response);
     }
+
+
+    @GetMapping("/audit-logs/admin/{adminId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<CursorPageDto<AdminAuditLog>> getAuditLogsByAdmin(
+            @PathVariable UUID adminId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        CursorPageDto<AdminAuditLog> response = adminService.getAuditLogsByAdmin(adminId, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @GetMapping("/audit-logs/target/{userId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<CursorPageDto<AdminAuditLog>> getAuditLogsByTargetUser(
+            @PathVariable UUID userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+
+        CursorPageDto<AdminAuditLog> response = adminService.getAuditLogsByTargetUser(userId, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+
+    // exports
+
+
+    @GetMapping("/export/users")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return streamExport(DataExportService.Dataset.USERS, format, gzip,
+                new DataExportService.Filter(role, status, from, to));
+    }
+
+
+    @GetMapping("/export/traders")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTraders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) UserStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return streamExport(DataExportService.Dataset.TRADERS, format, gzip,
+                new DataExportService.Filter(null, status, from, to));
+    }
+
+
+    @GetMapping("/export/audit-logs")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return streamExport(DataExportService.Dataset.AUDIT_LOGS, format, gzip,
+                new DataExportService.Filter(null, null, from, to));
+    }
+
+    /**
+     * Resolve the targets first so bad requests still get a 4xx, then write one
+     * NDJSON progress line per committed chunk.
+     */
+    private ResponseEntity<StreamingResponseBody> streamBulkModeration(
+            UUID adminId, BulkModerationService.Action action, BulkModerationRequestDto request) {
+
+        BulkModerationService.Plan plan = bulkModerationService.prepare(adminId, action, request);
+
+        StreamingResponseBody body = out -> bulkModerationService.execute(plan, progress -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(progress));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+
+    /**
+     * Stream an export as an attachment, compressing on the fly when asked.
+     */
+    private ResponseEntity<StreamingResponseBody> streamExport(
+            DataExportService.Dataset dataset, String format, boolean gzip, DataExportService.Filter filter) {
+
+        DataExportService.Format exportFormat = DataExportService.Format.fromParam(format);
+        dataExportService.validate(dataset, filter);
+        DataExportService.Slot slot = dataExportService.reserveSlot();
+
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                if (gzip) {
+                    try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                        dataExportService.export(dataset, filter, exportFormat, compressed);
+                    }
+                } else {
+                    dataExportService.export(dataset, filter, exportFormat, out);
+                }
+            }
+        };
+
+        String fileName = dataset.getFileName() + "-" + LocalDate.now() + "." + exportFormat.getExtension();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 }
\ No newline at end of file
@@ -1,18 +1,33 @@
 package com.takeam.userservice.controller;
 
+import com.takeam.userservice.dto.request.AttendanceSyncBatchDto;
 import com.takeam.userservice.dto.request.ClockInRequest;
 import com.takeam.userservice.dto.request.ClockOutRequest;
+import com.takeam.userservice.dto.response.AttendanceReportDto;
 import com.takeam.userservice.dto.response.AttendanceResponse;
+import com.takeam.userservice.dto.response.AttendanceRollupDto;
+import com.takeam.userservice.dto.response.AttendanceSyncResultDto;
+import com.takeam.userservice.dto.response.CursorPageDto;
+import com.takeam.userservice.dto.response.LeaderboardPageDto;
+import com.takeam.userservice.dto.response.LeaderboardRankDto;
+import com.takeam.userservice.model.LeaderboardMetric;
+import com.takeam.userservice.model.LeaderboardWindow;
+import com.takeam.userservice.model.RollupPeriod;
 import com.takeam.userservice.model.User;
 import com.takeam.userservice.service.AgentAttendanceService;
+import com.takeam.userservice.service.AgentLeaderboardService;
+import com.takeam.userservice.service.AttendanceRollupService;
+import com.takeam.userservice.service.AttendanceSyncService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +40,9 @@ import java.util.UUID;
 public class AgentAttendanceController {
 
     private final AgentAttendanceService attendanceService;
+    private final AttendanceRollupService rollupService;
+    private final AttendanceSyncService syncService;
+    private final AgentLeaderboardService leaderboardService;
 
     @PostMapping("/clock-in")
     public ResponseEntity<AttendanceResponse> clockIn(
@@ -50,6 +68,22 @@ public class AgentAttendanceController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Uploads clock-ins and clock-outs queued while offline and returns the
+     * reconciled attendance. Safe to resend after a dropped response.
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<AttendanceSyncResultDto> sync(
+            @Valid @RequestBody AttendanceSyncBatchDto request,
+            @AuthenticationPrincipal User user
+    ) {
+        UUID agentId = user.getId();
+        log.info("Attendance sync from agent: {}, events: {}", agentId, request.getEvents().size());
+
+        AttendanceSyncResultDto result = syncService.sync(agentId, request.getEvents());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/status")
     public ResponseEntity<AttendanceResponse> getStatus(@AuthenticationPrincipal User user) {
         UUID agentId = user.getId();
@@ -71,6 +105,59 @@ public class AgentAttendanceController {
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/history/page")
+    public ResponseEntity<CursorPageDto<AttendanceResponse>> getHistoryPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "30") int size,
+            @AuthenticationPrincipal User user
+    ) {
+        CursorPageDto<AttendanceResponse> page =
+                attendanceService.getAttendanceHistoryPage(user.getId(), cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/report")
+    public ResponseEntity<AttendanceReportDto> getReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal User user
+    ) {
+        AttendanceReportDto report = attendanceService.getAttendanceReport(user.getId(), from, to);
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/rollups")
+    public ResponseEntity<List<AttendanceRollupDto>> getRollups(
+            @RequestParam(defaultValue = "WEEK") RollupPeriod period,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal User user
+    ) {
+        List<AttendanceRollupDto> rollups = rollupService.getAgentRollups(user.getId(), period, from, to);
+        return ResponseEntity.ok(rollups);
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardPageDto> getLeaderboard(
+            @RequestParam(defaultValue = "PICKUPS") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "TODAY") LeaderboardWindow window,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal User user
+    ) {
+        LeaderboardPageDto leaderboard = leaderboardService.getTopForAgentMarket(user.getId(), metric, window, limit);
+        return ResponseEntity.ok(leaderboard);
+    }
+
+    @GetMapping("/leaderboard/me")
+    public ResponseEntity<LeaderboardRankDto> getLeaderboardRank(
+            @RequestParam(defaultValue = "PICKUPS") LeaderboardMetric metric,
+            @RequestParam(defaultValue = "TODAY") LeaderboardWindow window,
+            @AuthenticationPrincipal User user
+    ) {
+        LeaderboardRankDto rank = leaderboardService.getRank(user.getId(), metric, window);
+        return ResponseEntity.ok(rank);
+    }
+
     @GetMapping("/is-clocked-in")
     public ResponseEntity<Map<String, Boolean>> isClockedIn(@AuthenticationPrincipal User user) {
         UUID agentId = user.getId();
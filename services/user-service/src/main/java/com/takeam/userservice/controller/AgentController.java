@@ -1,23 +1,33 @@
 package com.takeam.userservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.takeam.userservice.dto.request.AgentRegistrationRequestDto;
 import com.takeam.userservice.dto.request.AgentVerifyOTPDto;
 import com.takeam.userservice.dto.request.TraderRegistrationRequestDto;
 import com.takeam.userservice.dto.response.AgentDetailDto;
 import com.takeam.userservice.dto.response.AuthResponseDto;
+import com.takeam.userservice.dto.response.BulkTraderRowResultDto;
+import com.takeam.userservice.dto.response.TraderDetailResponseDto;
 import com.takeam.userservice.dto.response.UserResponseDto;
-import com.takeam.userservice.model.Trader;
 import com.takeam.userservice.model.User;
 import com.takeam.userservice.service.AgentService;
+import com.takeam.userservice.service.BulkTraderOnboardingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +38,8 @@ import java.util.UUID;
 public class AgentController {
 
     private final AgentService agentService;
+    private final BulkTraderOnboardingService bulkTraderOnboardingService;
+    private final ObjectMapper objectMapper;
 
     //public
 
@@ -79,11 +91,68 @@ public class AgentController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+
+    @PostMapping(
+            value = "/register-traders/bulk",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> registerTradersBulk(
+            @AuthenticationPrincipal User user,
+            @RequestBody List<TraderRegistrationRequestDto> request) {
+
+        log.info("Agent {} bulk registering {} traders (JSON)", user.getId(), request.size());
+        return streamBulkResults(user.getId(), request);
+    }
+
+
+    @PostMapping(
+            value = "/register-traders/bulk",
+            consumes = "text/csv",
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> registerTradersBulkCsv(
+            @AuthenticationPrincipal User user,
+            InputStream csv) throws IOException {
+
+        List<TraderRegistrationRequestDto> request =
+                bulkTraderOnboardingService.parseCsv(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        log.info("Agent {} bulk registering {} traders (CSV)", user.getId(), request.size());
+        return streamBulkResults(user.getId(), request);
+    }
+
     @GetMapping("/my-traders")
-    public ResponseEntity<List<Trader>> getTradersRegisteredByMe(
+    public ResponseEntity<List<TraderDetailResponseDto>> getTradersRegisteredByMe(
             @AuthenticationPrincipal User user) {
 
-        List<Trader> traders = agentService.getTradersRegisteredByAgent(user.getId());
+        List<TraderDetailResponseDto> traders = agentService.getTradersRegisteredByAgent(user.getId());
         return ResponseEntity.ok(traders);
     }
+
+
+    /**
+     * Write one NDJSON line per row, flushing after each chunk so the agent
+     * sees progress on large uploads.
+     */
+    private ResponseEntity<StreamingResponseBody> streamBulkResults(
+            UUID agentId, List<TraderRegistrationRequestDto> rows) {
+
+        bulkTraderOnboardingService.validateRequest(agentId, rows);
+
+        StreamingResponseBody body = out -> bulkTraderOnboardingService.registerAll(agentId, rows, results -> {
+            try {
+                for (BulkTraderRowResultDto result : results) {
+                    out.write(objectMapper.writeValueAsBytes(result));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.takeam.userservice.controller;
+
+import com.takeam.userservice.dto.request.LocationPingBatchDto;
+import com.takeam.userservice.dto.response.LocationPingResultDto;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.service.LocationPingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/agents/location")
+@RequiredArgsConstructor
+@Slf4j
+public class AgentLocationController {
+
+    private final LocationPingService locationPingService;
+
+    @PostMapping("/pings")
+    public ResponseEntity<LocationPingResultDto> uploadPings(
+            @Valid @RequestBody LocationPingBatchDto request,
+            @AuthenticationPrincipal User user
+    ) {
+        LocationPingResultDto response = locationPingService.ingest(user.getId(), request.getPings());
+        log.debug("Agent {} uploaded {} pings, {} accepted",
+                user.getId(), response.getReceived(), response.getAccepted());
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+}
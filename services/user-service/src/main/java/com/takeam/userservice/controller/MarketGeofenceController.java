@@ -0,0 +1,50 @@
+package com.takeam.userservice.controller;
+
+import com.takeam.userservice.dto.request.MarketGeofenceRequestDto;
+import com.takeam.userservice.dto.response.MarketGeofenceDto;
+import com.takeam.userservice.dto.response.MessageResponseDto;
+import com.takeam.userservice.service.GeofenceService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/markets")
+@RequiredArgsConstructor
+@Slf4j
+public class MarketGeofenceController {
+
+    private final GeofenceService geofenceService;
+
+
+    @GetMapping("/geofences")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<List<MarketGeofenceDto>> getGeofences() {
+        return ResponseEntity.ok(geofenceService.getGeofences());
+    }
+
+
+    @PutMapping("/{marketId}/geofence")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<MarketGeofenceDto> saveGeofence(
+            @PathVariable String marketId,
+            @Valid @RequestBody MarketGeofenceRequestDto request) {
+
+        log.info("Saving geofence for market {}", marketId);
+        MarketGeofenceDto response = geofenceService.saveGeofence(marketId, request);
+        return ResponseEntity.ok(response);
+    }
+
+
+    @PostMapping("/geofences/reload")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+    public ResponseEntity<MessageResponseDto> reloadGeofences() {
+        geofenceService.reload();
+        return ResponseEntity.ok(new MessageResponseDto("Geofences reloaded", true));
+    }
+}
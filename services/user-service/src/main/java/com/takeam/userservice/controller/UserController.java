@@ -28,7 +28,7 @@ public class UserController {
     public ResponseEntity<Map<String, Object>> getUserByPhoneNumber(
             @PathVariable String phoneNumber
     ) {
-        log.info("Received request to lookup user by phone: {}", phoneNumber);
+        log.debug("Received request to lookup user by phone: {}", phoneNumber);
 
         UserLookupResponseDto userLookup = authService.getUserByPhoneNumber(phoneNumber);
 
@@ -37,7 +37,7 @@ public class UserController {
         response.put("message", "User found successfully");
         response.put("data", userLookup);
 
-        log.info("Successfully retrieved user: {}", userLookup.getFullName());
+        log.debug("Successfully retrieved user: {}", userLookup.getFullName());
 
         return ResponseEntity.ok(response);
     }
@@ -0,0 +1,19 @@
+package com.takeam.userservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Attendance events queued on the device while it was offline, in any order.
+ */
+@Data
+public class AttendanceSyncBatchDto {
+
+    @NotEmpty(message = "At least one event is required")
+    @Size(max = 50, message = "At most 50 events per batch")
+    private List<@Valid AttendanceSyncEventDto> events;
+}
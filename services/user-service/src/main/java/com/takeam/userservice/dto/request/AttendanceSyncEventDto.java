@@ -0,0 +1,39 @@
+package com.takeam.userservice.dto.request;
+
+import com.takeam.userservice.event.AttendanceEvent;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A clock-in or clock-out captured on the device, stamped with the device
+ * time and a key the device reuses whenever it resends the event.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSyncEventDto {
+
+    @NotBlank(message = "Idempotency key is required")
+    @Size(max = 64, message = "Idempotency key must be at most 64 characters")
+    private String idempotencyKey;
+
+    @NotNull(message = "Event type is required")
+    private AttendanceEvent.Type type;
+
+    @NotNull(message = "Recorded time is required")
+    private Instant recordedAt;
+
+    @NotNull(message = "Latitude is required")
+    private Double latitude;
+
+    @NotNull(message = "Longitude is required")
+    private Double longitude;
+
+    private String address;
+}
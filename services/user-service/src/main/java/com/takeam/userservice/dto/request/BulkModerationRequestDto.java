@@ -0,0 +1,39 @@
+package com.takeam.userservice.dto.request;
+
+import com.takeam.userservice.model.ApprovalStatus;
+import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.UserStatus;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Targets either an explicit list of ids (user ids for user actions, agent ids
+ * for agent actions) or every row matching the filter fields.
+ */
+@Data
+public class BulkModerationRequestDto {
+
+    private List<UUID> ids;
+
+    // Filter, used when no ids are given
+    private Role role;
+    private UserStatus status;
+    private String marketId;
+    private ApprovalStatus approvalStatus;
+
+    @NotBlank(message = "Reason is required")
+    private String reason;
+
+    private String notes;
+
+    public boolean hasIds() {
+        return ids != null && !ids.isEmpty();
+    }
+
+    public boolean hasFilter() {
+        return role != null || status != null || marketId != null || approvalStatus != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.takeam.userservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Pings collected on the device since its last upload, in any order.
+ */
+@Data
+public class LocationPingBatchDto {
+
+    @NotEmpty(message = "At least one ping is required")
+    @Size(max = 500, message = "At most 500 pings per batch")
+    private List<@Valid LocationPingDto> pings;
+}
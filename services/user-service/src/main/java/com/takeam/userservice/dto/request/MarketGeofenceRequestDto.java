@@ -0,0 +1,36 @@
+package com.takeam.userservice.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.takeam.userservice.model.MarketGeofence;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * A circle needs the center and radius; a polygon needs at least three
+ * {@code [latitude, longitude]} vertices.
+ */
+@Data
+public class MarketGeofenceRequestDto {
+
+    private String name;
+
+    @NotNull(message = "Shape is required")
+    private MarketGeofence.Shape shape;
+
+    private Double centerLatitude;
+    private Double centerLongitude;
+    private Double radiusMeters;
+
+    private List<List<Double>> vertices;
+
+    // e.g. "Africa/Lagos"; both fall back to the configured defaults when omitted
+    private String timeZone;
+
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime closesAt;
+
+    private boolean active = true;
+}
@@ -0,0 +1,19 @@
+package com.takeam.userservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Completed pickups reported by intake; the same agent may appear more than once.
+ */
+@Data
+public class PickupIncrementBatchDto {
+
+    @NotEmpty(message = "At least one increment is required")
+    @Size(max = 1000, message = "At most 1000 increments per batch")
+    private List<@Valid PickupIncrementDto> increments;
+}
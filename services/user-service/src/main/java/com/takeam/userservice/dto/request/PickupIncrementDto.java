@@ -0,0 +1,23 @@
+package com.takeam.userservice.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PickupIncrementDto {
+
+    @NotNull(message = "Agent ID is required")
+    private UUID agentId;
+
+    @Min(value = 1, message = "Count must be at least 1")
+    @Max(value = 1000, message = "Count must be at most 1000")
+    private int count = 1;
+}
@@ -0,0 +1,30 @@
+package com.takeam.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceReportDto {
+
+    private UUID agentId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+
+    private long daysPresent;
+    private double totalHoursWorked;
+    private long totalPickups;
+    private double averageHoursPerDay;
+}
@@ -37,6 +37,7 @@ public class AttendanceResponse {
     private Double totalHoursWorked;
     private String status;
     private Integer completedPickups;
+    private Boolean autoClockedOut;
 
     private String message;
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.takeam.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.takeam.userservice.model.RollupPeriod;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceRollupDto {
+
+    private UUID agentId;
+    private String marketId;
+    private RollupPeriod period;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate periodStart;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate periodEnd;
+
+    private int daysPresent;
+    private double totalHoursWorked;
+    private long totalPickups;
+    private double averageHoursPerDay;
+}
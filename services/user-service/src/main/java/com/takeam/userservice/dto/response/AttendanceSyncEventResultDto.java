@@ -0,0 +1,25 @@
+package com.takeam.userservice.dto.response;
+
+import com.takeam.userservice.event.AttendanceEvent;
+import com.takeam.userservice.model.AttendanceSyncReceipt;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The outcome of one synced event. Replayed results come from the stored
+ * receipt and are identical to the first answer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSyncEventResultDto {
+
+    private String idempotencyKey;
+    private AttendanceEvent.Type type;
+    private AttendanceSyncReceipt.Outcome outcome;
+    private String message;
+    private boolean replayed;
+}
@@ -0,0 +1,24 @@
+package com.takeam.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Per-event outcomes in request order, plus today's attendance as the server
+ * now sees it. The device replaces its local state with {@code attendance}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSyncResultDto {
+
+    private List<AttendanceSyncEventResultDto> results;
+    private AttendanceResponse attendance;
+    private Instant serverTime;
+}
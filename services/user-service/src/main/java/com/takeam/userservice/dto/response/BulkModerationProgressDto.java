@@ -0,0 +1,21 @@
+package com.takeam.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkModerationProgressDto {
+
+    private String action;
+    private int total;
+    private int processed;
+    private int updated;
+    // Already in the target state, or not allowed for this admin
+    private int skipped;
+    private boolean done;
+}
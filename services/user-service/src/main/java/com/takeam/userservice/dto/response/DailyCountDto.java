@@ -0,0 +1,15 @@
+package com.takeam.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCountDto {
+    private LocalDate date;
+    private long count;
+}
@@ -0,0 +1,20 @@
+package com.takeam.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDto {
+
+    private long rank;
+    private UUID agentId;
+    private String fullName;
+    private double score;
+}
@@ -0,0 +1,32 @@
+package com.takeam.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.takeam.userservice.model.LeaderboardMetric;
+import com.takeam.userservice.model.LeaderboardWindow;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPageDto {
+
+    private String marketId;
+    private LeaderboardMetric metric;
+    private LeaderboardWindow window;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate windowStart;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate windowEnd;
+
+    private long totalAgents;
+    private List<LeaderboardEntryDto> entries;
+}
@@ -0,0 +1,29 @@
+package com.takeam.userservice.dto.response;
+
+import com.takeam.userservice.model.LeaderboardMetric;
+import com.takeam.userservice.model.LeaderboardWindow;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * One agent's place on their market's leaderboard; {@code rank} is null
+ * until the agent has scored in the window.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardRankDto {
+
+    private UUID agentId;
+    private String marketId;
+    private LeaderboardMetric metric;
+    private LeaderboardWindow window;
+    private Long rank;
+    private double score;
+    private long totalAgents;
+}
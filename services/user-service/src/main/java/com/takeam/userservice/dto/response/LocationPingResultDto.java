@@ -0,0 +1,24 @@
+package com.takeam.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What happened to an uploaded batch. Dropped pings were valid but the
+ * ingestion buffer was full; the device may send them again.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationPingResultDto {
+
+    private int received;
+    private int accepted;
+    private int duplicates;
+    private int downsampled;
+    private int rejected;
+    private int dropped;
+}
@@ -0,0 +1,31 @@
+package com.takeam.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.takeam.userservice.model.RollupPeriod;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketAttendanceRollupDto {
+
+    private String marketId;
+    private RollupPeriod period;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate periodStart;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate periodEnd;
+
+    private int agentsPresent;
+    private long agentDays;
+    private double totalHoursWorked;
+    private long totalPickups;
+}
@@ -0,0 +1,35 @@
+package com.takeam.userservice.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MarketGeofenceDto {
+
+    private String marketId;
+    private String name;
+    private String shape;
+    private Double centerLatitude;
+    private Double centerLongitude;
+    private Double radiusMeters;
+    private List<List<Double>> vertices;
+    private String timeZone;
+
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime closesAt;
+
+    private boolean active;
+    private LocalDateTime updatedAt;
+}
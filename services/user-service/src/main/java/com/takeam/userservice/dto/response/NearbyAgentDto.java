@@ -0,0 +1,23 @@
+package com.takeam.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyAgentDto {
+
+    private UUID agentId;
+    private String marketId;
+    private double latitude;
+    private double longitude;
+    private double distanceMeters;
+    private Instant lastSeenAt;
+}
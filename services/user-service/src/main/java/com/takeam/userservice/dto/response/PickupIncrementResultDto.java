@@ -0,0 +1,26 @@
+package com.takeam.userservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PickupIncrementResultDto {
+
+    private int agentsUpdated;
+    private long pickupsAdded;
+
+    // Agents with no attendance record today; their pickups were not counted
+    private List<UUID> notClockedIn;
+
+    // Agents whose pickups were still being written when the request gave up waiting;
+    // they may yet be counted, so must not be resent
+    private List<UUID> pending;
+}
@@ -0,0 +1,10 @@
+package com.takeam.userservice.event;
+
+import com.takeam.userservice.model.ApprovalStatus;
+
+/**
+ * Published when an agent profile is created ({@code previousStatus == null})
+ * or its approval status changes.
+ */
+public record AgentApprovalEvent(ApprovalStatus previousStatus, ApprovalStatus newStatus) {
+}
@@ -0,0 +1,37 @@
+package com.takeam.userservice.event;
+
+import com.takeam.userservice.model.AgentAttendance;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published when an agent clocks in or out, carrying the agent's market so
+ * listeners do not have to look it up again.
+ */
+public record AttendanceEvent(
+        Type type,
+        UUID agentId,
+        String marketId,
+        LocalDate date,
+        LocalDateTime time,
+        Double latitude,
+        Double longitude
+) {
+
+    public enum Type {
+        CLOCK_IN,
+        CLOCK_OUT
+    }
+
+    public static AttendanceEvent clockedIn(AgentAttendance attendance, String marketId) {
+        return new AttendanceEvent(Type.CLOCK_IN, attendance.getAgentId(), marketId, attendance.getDate(),
+                attendance.getClockInTime(), attendance.getClockInLatitude(), attendance.getClockInLongitude());
+    }
+
+    public static AttendanceEvent clockedOut(AgentAttendance attendance, String marketId) {
+        return new AttendanceEvent(Type.CLOCK_OUT, attendance.getAgentId(), marketId, attendance.getDate(),
+                attendance.getClockOutTime(), attendance.getClockOutLatitude(), attendance.getClockOutLongitude());
+    }
+}
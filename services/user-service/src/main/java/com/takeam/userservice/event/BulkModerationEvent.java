@@ -0,0 +1,19 @@
+package com.takeam.userservice.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published once per committed chunk of a bulk moderation action, carrying
+ * every user and agent change the set-based update made.
+ */
+public record BulkModerationEvent(
+        List<UserLifecycleEvent> userChanges,
+        List<AgentApprovalEvent> agentChanges,
+        List<UUID> agentIds
+) {
+
+    public List<UUID> userIds() {
+        return userChanges.stream().map(UserLifecycleEvent::userId).toList();
+    }
+}
@@ -0,0 +1,10 @@
+package com.takeam.userservice.event;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Published when pickups are added to an agent's attendance for a day.
+ */
+public record PickupsCompletedEvent(UUID agentId, LocalDate date, int count) {
+}
@@ -0,0 +1,33 @@
+package com.takeam.userservice.event;
+
+import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.model.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published when a user is registered ({@code previousStatus == null}) or when
+ * an existing user's status changes.
+ */
+public record UserLifecycleEvent(
+        UUID userId,
+        Role role,
+        UserStatus previousStatus,
+        UserStatus newStatus,
+        LocalDateTime createdAt
+) {
+
+    public static UserLifecycleEvent registered(User user) {
+        return new UserLifecycleEvent(user.getId(), user.getRole(), null, user.getStatus(), user.getCreatedAt());
+    }
+
+    public static UserLifecycleEvent statusChanged(User user, UserStatus previousStatus) {
+        return new UserLifecycleEvent(user.getId(), user.getRole(), previousStatus, user.getStatus(), user.getCreatedAt());
+    }
+
+    public boolean isRegistration() {
+        return previousStatus == null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.takeam.userservice.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a user's profile details change. Carries the phone number
+ * before and after, which differ only when the number itself was changed.
+ */
+public record UserProfileChangedEvent(
+        UUID userId,
+        String previousPhoneNumber,
+        String phoneNumber
+) {
+}
@@ -0,0 +1,7 @@
+package com.takeam.userservice.exception;
+
+public class SmsDeliveryException extends RuntimeException {
+    public SmsDeliveryException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import com.takeam.userservice.dto.request.TraderRegistrationRequestDto;
 import com.takeam.userservice.dto.response.TraderDetailResponseDto;
 import com.takeam.userservice.model.Trader;
 import com.takeam.userservice.model.User;
+import com.takeam.userservice.repository.projection.TraderDetailView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -34,5 +35,13 @@ public interface TraderMapper {
     @Mapping(source = "user", target = "user")
     TraderDetailResponseDto toDetailResponse(Trader trader);
 
+    @Mapping(source = "userId", target = "user.id")
+    @Mapping(source = "phoneNumber", target = "user.phoneNumber")
+    @Mapping(source = "fullName", target = "user.fullName")
+    @Mapping(source = "role", target = "user.role")
+    @Mapping(source = "status", target = "user.status")
+    @Mapping(source = "userCreatedAt", target = "user.createdAt")
+    TraderDetailResponseDto toDetailResponse(TraderDetailView view);
+
 
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.takeam.userservice.mapper;
 
 import com.takeam.userservice.dto.response.UserLookupResponseDto;
 import com.takeam.userservice.model.User;
+import com.takeam.userservice.repository.projection.UserLookupView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -11,4 +12,8 @@ public interface UserLookupMapper {
 
       @Mapping(target = "role", expression = "java(user.getRole().name())")
     UserLookupResponseDto toUserLookupResponse(User user);
+
+    @Mapping(target = "role", expression = "java(view.role().name())")
+    @Mapping(target = "isActive", source = "active")
+    UserLookupResponseDto toUserLookupResponse(UserLookupView view);
 }
\ No newline at end of file
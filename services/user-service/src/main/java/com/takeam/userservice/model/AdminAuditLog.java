@@ -11,7 +11,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "admin_audit_logs")
+@Table(name = "admin_audit_logs", indexes = {
+        @Index(name = "idx_audit_admin_created", columnList = "admin_id, created_at"),
+        @Index(name = "idx_audit_target_created", columnList = "target_user_id, created_at"),
+        @Index(name = "idx_audit_created", columnList = "created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -2,13 +2,19 @@ package com.takeam.userservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "agents")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "agents")
+@Table(name = "agents", indexes = {
+        @Index(name = "idx_agents_market_user", columnList = "assigned_market_id, user_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,7 +25,7 @@ public class Agent {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
 
@@ -10,9 +10,15 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "agent_attendance", indexes = {
-        @Index(name = "idx_agent_date", columnList = "agentId, date"),
-        @Index(name = "idx_date", columnList = "date"),
+// The two covering indexes carry the report columns so range aggregates are index-only scans.
+// One session per agent and day; lookups by (agent, date) rely on it.
+@Table(name = "agent_attendance", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_attendance_agent_date", columnNames = {"agent_id", "date"})
+}, indexes = {
+        @Index(name = "idx_attendance_agent_date_cover",
+                columnList = "agent_id, date, id, total_hours_worked, completed_pickups"),
+        @Index(name = "idx_attendance_date_cover",
+                columnList = "date, agent_id, total_hours_worked, completed_pickups"),
         @Index(name = "idx_status", columnList = "status")
 })
 @Data
@@ -61,6 +67,10 @@ public class AgentAttendance {
 
     private Integer completedPickups;
 
+    // Closed by the scheduler at market closing time rather than by the agent
+    @Column(name = "auto_clocked_out")
+    private Boolean autoClockedOut;
+
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
@@ -82,6 +92,9 @@ public class AgentAttendance {
         if (completedPickups == null) {
             completedPickups = 0;
         }
+        if (autoClockedOut == null) {
+            autoClockedOut = false;
+        }
     }
 
     @PreUpdate
@@ -0,0 +1,57 @@
+package com.takeam.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An agent's attendance totals for one week or month. Rows are recomputed
+ * from {@code agent_attendance} with upserts keyed by period, so rewriting a
+ * period any number of times gives the same result.
+ */
+@Entity
+@Table(name = "agent_attendance_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_agent_rollup_period", columnNames = {"agent_id", "period", "period_start"})
+}, indexes = {
+        @Index(name = "idx_agent_rollup_market_period", columnList = "market_id, period, period_start")
+})
+@Data
+@NoArgsConstructor
+public class AgentAttendanceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "agent_id", nullable = false)
+    private UUID agentId;
+
+    @Column(name = "market_id")
+    private String marketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "days_present", nullable = false)
+    private int daysPresent;
+
+    @Column(name = "total_hours", nullable = false)
+    private double totalHours;
+
+    @Column(name = "total_pickups", nullable = false)
+    private long totalPickups;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
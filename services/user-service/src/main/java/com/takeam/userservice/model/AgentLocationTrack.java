@@ -0,0 +1,45 @@
+package com.takeam.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One agent's location pings for one day, delta-encoded into {@code data}
+ * (see {@code LocationTrackCodec}). Rows are written by appending chunks
+ * with plain JDBC; the entity only defines the table.
+ */
+@Entity
+@Table(name = "agent_location_tracks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_location_track_agent_date", columnNames = {"agent_id", "track_date"})
+})
+@Data
+@NoArgsConstructor
+public class AgentLocationTrack {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "agent_id", nullable = false)
+    private UUID agentId;
+
+    @Column(name = "track_date", nullable = false)
+    private LocalDate trackDate;
+
+    @Column(name = "point_count", nullable = false)
+    private int pointCount;
+
+    @Column(name = "first_ping_at")
+    private LocalDateTime firstPingAt;
+
+    @Column(name = "last_ping_at")
+    private LocalDateTime lastPingAt;
+
+    @Column(name = "data", nullable = false, columnDefinition = "BYTEA")
+    private byte[] data;
+}
@@ -0,0 +1,58 @@
+package com.takeam.userservice.model;
+
+import com.takeam.userservice.event.AttendanceEvent;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The outcome of one offline attendance event, keyed by the device's
+ * idempotency key. A replayed event is answered from here instead of being
+ * applied again.
+ */
+@Entity
+@Table(name = "attendance_sync_receipts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sync_receipt_agent_key", columnNames = {"agent_id", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_sync_receipt_processed_at", columnList = "processed_at")
+})
+@Data
+@NoArgsConstructor
+public class AttendanceSyncReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "agent_id", nullable = false)
+    private UUID agentId;
+
+    @Column(name = "idempotency_key", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AttendanceEvent.Type type;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Outcome outcome;
+
+    private String message;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+
+    public enum Outcome {
+        APPLIED,
+        UNCHANGED,
+        REJECTED
+    }
+}
@@ -0,0 +1,6 @@
+package com.takeam.userservice.model;
+
+public enum LeaderboardMetric {
+    PICKUPS,
+    HOURS
+}
@@ -0,0 +1,29 @@
+package com.takeam.userservice.model;
+
+import java.time.LocalDate;
+
+/**
+ * The stretch of time a leaderboard ranks agents over. Week and month follow
+ * the attendance rollup calendar.
+ */
+public enum LeaderboardWindow {
+    TODAY,
+    WEEK,
+    MONTH;
+
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case TODAY -> date;
+            case WEEK -> RollupPeriod.WEEK.startOf(date);
+            case MONTH -> RollupPeriod.MONTH.startOf(date);
+        };
+    }
+
+    public LocalDate endOf(LocalDate date) {
+        return switch (this) {
+            case TODAY -> date;
+            case WEEK -> RollupPeriod.WEEK.endOf(date);
+            case MONTH -> RollupPeriod.MONTH.endOf(date);
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.takeam.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A market's attendance totals for one week or month, recomputed from the
+ * agent rollups of that market and period.
+ */
+@Entity
+@Table(name = "market_attendance_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_market_rollup_period", columnNames = {"market_id", "period", "period_start"})
+})
+@Data
+@NoArgsConstructor
+public class MarketAttendanceRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "market_id", nullable = false, length = 64)
+    private String marketId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupPeriod period;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(name = "agents_present", nullable = false)
+    private int agentsPresent;
+
+    @Column(name = "agent_days", nullable = false)
+    private long agentDays;
+
+    @Column(name = "total_hours", nullable = false)
+    private double totalHours;
+
+    @Column(name = "total_pickups", nullable = false)
+    private long totalPickups;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
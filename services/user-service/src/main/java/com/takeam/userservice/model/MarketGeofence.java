@@ -0,0 +1,66 @@
+package com.takeam.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Geometry of a market. A circle uses the center and radius; a polygon stores
+ * its vertices as {@code "lat,lng;lat,lng;..."} in order.
+ */
+@Entity
+@Table(name = "market_geofences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketGeofence {
+
+    @Id
+    @Column(name = "market_id", length = 64)
+    private String marketId;
+
+    @Column(name = "name")
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "shape", nullable = false, length = 16)
+    private Shape shape;
+
+    @Column(name = "center_latitude")
+    private Double centerLatitude;
+
+    @Column(name = "center_longitude")
+    private Double centerLongitude;
+
+    @Column(name = "radius_meters")
+    private Double radiusMeters;
+
+    @Column(name = "polygon", columnDefinition = "TEXT")
+    private String polygon;
+
+    // IANA zone and local closing time; null means the configured defaults
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
+    @Column(name = "closes_at")
+    private LocalTime closesAt;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Shape {
+        CIRCLE,
+        POLYGON
+    }
+}
@@ -0,0 +1,47 @@
+package com.takeam.userservice.model;
+
+import java.time.Duration;
+
+/**
+ * Delivery lanes for outgoing notifications. Each lane has its own bounded queue
+ * and worker threads, so a burst in a lower lane never delays a higher one.
+ */
+public enum NotificationPriority {
+
+    // Login / registration / password-reset OTPs: useless once the OTP expires
+    CRITICAL(4, 500, Duration.ofSeconds(5), Duration.ofMinutes(5)),
+
+    // Account status and security alerts
+    HIGH(2, 1000, Duration.ofSeconds(30), null),
+
+    // Welcome and other informational messages
+    LOW(1, 2000, Duration.ofMinutes(5), null);
+
+    private final int threads;
+    private final int queueCapacity;
+    private final Duration latencySlo;
+    private final Duration deadline;
+
+    NotificationPriority(int threads, int queueCapacity, Duration latencySlo, Duration deadline) {
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.latencySlo = latencySlo;
+        this.deadline = deadline;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public Duration getLatencySlo() {
+        return latencySlo;
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+}
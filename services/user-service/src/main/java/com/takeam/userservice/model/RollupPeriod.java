@@ -0,0 +1,30 @@
+package com.takeam.userservice.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar periods attendance is rolled up by. Weeks start on Monday, like
+ * PostgreSQL's {@code date_trunc('week', ...)}.
+ */
+public enum RollupPeriod {
+    WEEK,
+    MONTH;
+
+    public LocalDate startOf(LocalDate date) {
+        return this == WEEK
+                ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : date.withDayOfMonth(1);
+    }
+
+    public LocalDate endOf(LocalDate date) {
+        return this == WEEK
+                ? startOf(date).plusDays(6)
+                : date.with(TemporalAdjusters.lastDayOfMonth());
+    }
+
+    public LocalDate plus(LocalDate periodStart, long periods) {
+        return this == WEEK ? periodStart.plusWeeks(periods) : periodStart.plusMonths(periods);
+    }
+}
@@ -4,13 +4,20 @@ package com.takeam.userservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "traders")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "traders")
+@Table(name = "traders", indexes = {
+        @Index(name = "idx_traders_registered_by_agent", columnList = "registered_by_agent_id"),
+        @Index(name = "idx_traders_created", columnList = "created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,7 +27,7 @@ public class Trader {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="user_id", nullable=false, unique = true)
     private User user;
 
@@ -3,14 +3,27 @@ package com.takeam.userservice.model;
 import jakarta.persistence.*;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-phone")
+@Table(name = "users", indexes = {
+        // Keyset listing on (created_at, id) for each admin filter combination
+        @Index(name = "idx_users_created", columnList = "created_at, id"),
+        @Index(name = "idx_users_role_created", columnList = "role, created_at, id"),
+        @Index(name = "idx_users_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_users_role_status_created", columnList = "role, status, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,6 +37,7 @@ public class User {
     @Column(name = "full_name", nullable = false)
     private String fullName;
 
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true, length = 15)
     private String phoneNumber;
 
@@ -4,8 +4,11 @@ import com.takeam.userservice.model.AdminAuditLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,4 +20,54 @@ public interface AdminAuditLogRepository extends JpaRepository<AdminAuditLog, UU
     List<AdminAuditLog> findByAdminIdOrderByCreatedAtDesc(UUID adminId);
 
     List<AdminAuditLog> findByTargetUserIdOrderByCreatedAtDesc(UUID targetUserId);
+
+    Page<AdminAuditLog> findByAdminIdOrderByCreatedAtDesc(UUID adminId, Pageable pageable);
+
+    Page<AdminAuditLog> findByTargetUserIdOrderByCreatedAtDesc(UUID targetUserId, Pageable pageable);
+
+    // Keyset pages, served by idx_audit_admin_created / idx_audit_target_created
+
+    @Query(value = """
+            SELECT * FROM admin_audit_logs
+            WHERE admin_id = :adminId
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AdminAuditLog> findFirstPageByAdmin(@Param("adminId") UUID adminId, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM admin_audit_logs
+            WHERE admin_id = :adminId
+              AND (created_at, id) < (:createdAt, :id)
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AdminAuditLog> findPageByAdminAfter(
+            @Param("adminId") UUID adminId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit
+    );
+
+    @Query(value = """
+            SELECT * FROM admin_audit_logs
+            WHERE target_user_id = :targetUserId
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AdminAuditLog> findFirstPageByTarget(@Param("targetUserId") UUID targetUserId, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM admin_audit_logs
+            WHERE target_user_id = :targetUserId
+              AND (created_at, id) < (:createdAt, :id)
+            ORDER BY created_at DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AdminAuditLog> findPageByTargetAfter(
+            @Param("targetUserId") UUID targetUserId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            @Param("limit") int limit
+    );
 }
\ No newline at end of file
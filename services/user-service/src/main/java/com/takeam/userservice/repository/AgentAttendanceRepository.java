@@ -32,4 +32,72 @@ public interface AgentAttendanceRepository extends JpaRepository<AgentAttendance
     List<AgentAttendance> findAllClockedInToday(@Param("date") LocalDate date);
 
     long countByAgentId(UUID agentId);
+
+    // Keyset pages over idx_attendance_agent_date_cover, newest first
+
+    @Query(value = """
+            SELECT * FROM agent_attendance
+            WHERE agent_id = :agentId
+            ORDER BY date DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AgentAttendance> findFirstPageByAgent(@Param("agentId") UUID agentId, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM agent_attendance
+            WHERE agent_id = :agentId
+              AND (date, id) < (:date, :id)
+            ORDER BY date DESC, id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<AgentAttendance> findPageByAgentAfter(
+            @Param("agentId") UUID agentId,
+            @Param("date") LocalDate date,
+            @Param("id") UUID id,
+            @Param("limit") int limit
+    );
+
+    // Range aggregates; both read only covering index columns
+
+    @Query("""
+            SELECT a.agentId AS agentId,
+                   COUNT(DISTINCT a.date) AS daysPresent,
+                   COALESCE(SUM(a.totalHoursWorked), 0.0) AS totalHours,
+                   COALESCE(SUM(a.completedPickups), 0L) AS totalPickups
+            FROM AgentAttendance a
+            WHERE a.agentId = :agentId AND a.date BETWEEN :startDate AND :endDate
+            GROUP BY a.agentId
+            """)
+    Optional<AttendanceTotals> summarizeAgent(
+            @Param("agentId") UUID agentId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    @Query("""
+            SELECT a.agentId AS agentId,
+                   COUNT(DISTINCT a.date) AS daysPresent,
+                   COALESCE(SUM(a.totalHoursWorked), 0.0) AS totalHours,
+                   COALESCE(SUM(a.completedPickups), 0L) AS totalPickups
+            FROM AgentAttendance a
+            WHERE a.date BETWEEN :startDate AND :endDate
+              AND a.agentId IN (SELECT ag.user.id FROM Agent ag WHERE ag.assignedMarketId = :marketId)
+            GROUP BY a.agentId
+            ORDER BY totalPickups DESC, totalHours DESC
+            """)
+    List<AttendanceTotals> summarizeMarket(
+            @Param("marketId") String marketId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+
+    interface AttendanceTotals {
+        UUID getAgentId();
+
+        long getDaysPresent();
+
+        double getTotalHours();
+
+        long getTotalPickups();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.takeam.userservice.repository;
+
+import com.takeam.userservice.model.AgentAttendanceRollup;
+import com.takeam.userservice.model.RollupPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AgentAttendanceRollupRepository extends JpaRepository<AgentAttendanceRollup, UUID> {
+
+    List<AgentAttendanceRollup> findByAgentIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+            UUID agentId, RollupPeriod period, LocalDate from, LocalDate to);
+
+    List<AgentAttendanceRollup> findByMarketIdAndPeriodAndPeriodStartOrderByTotalPickupsDescTotalHoursDesc(
+            String marketId, RollupPeriod period, LocalDate periodStart);
+}
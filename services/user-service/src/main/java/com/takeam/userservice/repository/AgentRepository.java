@@ -4,7 +4,10 @@ import com.takeam.userservice.model.Agent;
 import com.takeam.userservice.model.ApprovalStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,7 +21,17 @@ public interface AgentRepository extends JpaRepository<Agent, UUID> {
 
     List<Agent> findByApprovalStatus(ApprovalStatus status);
 
-    Page<Agent> findByApprovalStatus(ApprovalStatus status, Pageable pageable);
+    @Query(
+            value = "SELECT a FROM Agent a JOIN FETCH a.user WHERE a.approvalStatus = :status",
+            countQuery = "SELECT COUNT(a) FROM Agent a WHERE a.approvalStatus = :status"
+    )
+    Page<Agent> findByApprovalStatus(@Param("status") ApprovalStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<Agent> findWithUserById(UUID id);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<Agent> findWithUserByUserId(UUID userId);
 
     List<Agent> findByAssignedMarketId(String marketId);
 
@@ -0,0 +1,15 @@
+package com.takeam.userservice.repository;
+
+import com.takeam.userservice.model.AttendanceSyncReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AttendanceSyncReceiptRepository extends JpaRepository<AttendanceSyncReceipt, UUID> {
+
+    List<AttendanceSyncReceipt> findByAgentIdAndIdempotencyKeyIn(UUID agentId, Collection<String> idempotencyKeys);
+}
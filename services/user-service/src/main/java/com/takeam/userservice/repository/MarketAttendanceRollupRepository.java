@@ -0,0 +1,17 @@
+package com.takeam.userservice.repository;
+
+import com.takeam.userservice.model.MarketAttendanceRollup;
+import com.takeam.userservice.model.RollupPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MarketAttendanceRollupRepository extends JpaRepository<MarketAttendanceRollup, UUID> {
+
+    List<MarketAttendanceRollup> findByMarketIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+            String marketId, RollupPeriod period, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,18 @@
+package com.takeam.userservice.repository;
+
+import com.takeam.userservice.model.MarketGeofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MarketGeofenceRepository extends JpaRepository<MarketGeofence, String> {
+
+    List<MarketGeofence> findByActiveTrue();
+
+    @Query("SELECT MAX(g.updatedAt) FROM MarketGeofence g")
+    LocalDateTime findLatestUpdate();
+}
@@ -2,8 +2,12 @@ package com.takeam.userservice.repository;
 
 import com.takeam.userservice.model.Trader;
 import com.takeam.userservice.model.User;
+import com.takeam.userservice.repository.projection.TraderDetailView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,4 +22,41 @@ public interface TraderRepository extends JpaRepository<Trader, UUID> {
     boolean existsByUserId(UUID userId);
 
     List<Trader> findByRegisteredByAgentId(UUID userId);
+
+    long countByRegisteredByAgentId(UUID userId);
+
+    // Read paths: select only the columns TraderDetailResponseDto needs
+
+    @Query("""
+            SELECT new com.takeam.userservice.repository.projection.TraderDetailView(
+                u.id, u.phoneNumber, u.fullName, u.role, u.status, u.createdAt,
+                t.bankAccountNumber, t.bankName, t.accountName, t.verified, t.createdAt)
+            FROM Trader t JOIN t.user u
+            WHERE u.id = :userId
+            """)
+    Optional<TraderDetailView> findDetailViewByUserId(@Param("userId") UUID userId);
+
+    @Query("""
+            SELECT new com.takeam.userservice.repository.projection.TraderDetailView(
+                u.id, u.phoneNumber, u.fullName, u.role, u.status, u.createdAt,
+                t.bankAccountNumber, t.bankName, t.accountName, t.verified, t.createdAt)
+            FROM Trader t JOIN t.user u
+            WHERE t.registeredByAgentId = :agentUserId
+            ORDER BY t.createdAt DESC
+            """)
+    List<TraderDetailView> findDetailViewsByRegisteredByAgentId(@Param("agentUserId") UUID agentUserId);
+
+    @Query("""
+            SELECT t.registeredByAgentId AS agentUserId, COUNT(t) AS traderCount
+            FROM Trader t
+            WHERE t.registeredByAgentId IN :agentUserIds
+            GROUP BY t.registeredByAgentId
+            """)
+    List<RegisteredTraderCount> countByRegisteredByAgentIds(@Param("agentUserIds") Collection<UUID> agentUserIds);
+
+    interface RegisteredTraderCount {
+        UUID getAgentUserId();
+
+        long getTraderCount();
+    }
 }
@@ -3,25 +3,36 @@ package com.takeam.userservice.repository;
 import com.takeam.userservice.model.Role;
 import com.takeam.userservice.model.User;
 import com.takeam.userservice.model.UserStatus;
+import com.takeam.userservice.repository.projection.UserLookupView;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface    UserRepository  extends JpaRepository<User, UUID> {
-    Optional<User> findByEmail(String email);
+public interface    UserRepository  extends JpaRepository<User, UUID>, UserRepositoryCustom {
     Optional<User> phoneNumber(String phoneNumber);
     boolean existsByPhoneNumber(String phoneNumber);
+
+    @Query("SELECT u.phoneNumber FROM User u WHERE u.phoneNumber IN :phoneNumbers")
+    List<String> findExistingPhoneNumbers(@Param("phoneNumbers") Collection<String> phoneNumbers);
     boolean existsByEmail(String email);
     Optional<User> findByPhoneNumberAndStatus(String phoneNumber, UserStatus status);
 
-    Optional<User> findByPhoneNumber(String phoneNumber);
+    @Query("""
+            SELECT new com.takeam.userservice.repository.projection.UserLookupView(
+                u.id, u.phoneNumber, u.fullName, u.role, t.bankAccountNumber, t.bankName, u.active, u.createdAt)
+            FROM User u LEFT JOIN Trader t ON t.user = u
+            WHERE u.phoneNumber IN :phoneNumbers
+            """)
+    List<UserLookupView> findLookupViewsByPhoneNumberIn(@Param("phoneNumbers") Collection<String> phoneNumbers);
 
     //admin
     boolean existsByRole(Role role);
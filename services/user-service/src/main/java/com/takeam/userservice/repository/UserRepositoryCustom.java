@@ -0,0 +1,39 @@
+package com.takeam.userservice.repository;
+
+import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.model.UserStatus;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Resolved through the phone-number natural id, so repeat lookups are
+     * served from the second-level cache without a query.
+     */
+    @Transactional(readOnly = true)
+    Optional<User> findByPhoneNumber(String phoneNumber);
+
+    /**
+     * Login lookup. The email to id mapping is cached and checked against the
+     * cached user on every hit, so a changed email falls back to a query.
+     */
+    @Transactional(readOnly = true)
+    Optional<User> findByEmail(String email);
+
+    /**
+     * Users ordered by (created_at DESC, id DESC), starting strictly after the
+     * given position. Null filters and a null position are ignored.
+     */
+    List<User> findPageAfter(Role role, UserStatus status, LocalDateTime createdAt, UUID id, int limit);
+
+    /**
+     * Planner row estimate for the filtered listing; cheap, but not exact.
+     */
+    long estimateCount(Role role, UserStatus status);
+}
@@ -0,0 +1,143 @@
+package com.takeam.userservice.repository;
+
+import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.model.UserStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.cache.Cache;
+import javax.cache.Caching;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * User queries that need the EntityManager directly: phone and email lookups
+ * that go through the second-level cache, and the keyset listing query built with only
+ * the predicates that apply, so each filter combination matches one of the
+ * composite indexes on {@code users}.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+    private static final String EHCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Cache<Object, Object> idsByEmail;
+
+    @PostConstruct
+    void init() {
+        try {
+            // Same configuration file as the second-level cache
+            idsByEmail = Caching.getCachingProvider(EHCACHE_PROVIDER)
+                    .getCacheManager(new ClassPathResource("ehcache.xml").getURI(), getClass().getClassLoader())
+                    .getCache("users-by-email");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<User> findByPhoneNumber(String phoneNumber) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(phoneNumber);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        if (idsByEmail.get(email) instanceof UUID cachedId) {
+            // The user itself is evicted everywhere on change, so it tells whether the mapping still holds
+            User user = entityManager.find(User.class, cachedId);
+            if (user != null && email.equals(user.getEmail())) {
+                return Optional.of(user);
+            }
+            idsByEmail.remove(email, cachedId);
+        }
+
+        Optional<User> user = entityManager
+                .createQuery("SELECT u FROM User u WHERE u.email = :email", User.class)
+                .setParameter("email", email)
+                .getResultStream()
+                .findFirst();
+        user.ifPresent(found -> idsByEmail.put(email, found.getId()));
+        return user;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<User> findPageAfter(Role role, UserStatus status, LocalDateTime createdAt, UUID id, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        List<String> predicates = filterPredicates(role, status, params);
+        if (createdAt != null && id != null) {
+            predicates.add("(created_at, id) < (:createdAt, :id)");
+            params.put("createdAt", createdAt);
+            params.put("id", id);
+        }
+
+        String sql = "SELECT * FROM users" + where(predicates)
+                + " ORDER BY created_at DESC, id DESC LIMIT :limit";
+        params.put("limit", limit);
+
+        Query query = entityManager.createNativeQuery(sql, User.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    public long estimateCount(Role role, UserStatus status) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        List<String> predicates = filterPredicates(role, status, params);
+
+        if (predicates.isEmpty()) {
+            Object estimate = entityManager
+                    .createNativeQuery("SELECT CAST(reltuples AS bigint) FROM pg_class WHERE relname = 'users'")
+                    .getSingleResult();
+            return Math.max(((Number) estimate).longValue(), 0L);
+        }
+
+        // EXPLAIN does not accept bind parameters, but the filter values are enum names
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM users" + where(predicates);
+        for (Map.Entry<String, Object> param : params.entrySet()) {
+            sql = sql.replace(":" + param.getKey(), "'" + param.getValue() + "'");
+        }
+        Object plan = entityManager.createNativeQuery(sql).getSingleResult();
+        Matcher matcher = PLAN_ROWS.matcher(String.valueOf(plan));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    private List<String> filterPredicates(Role role, UserStatus status, Map<String, Object> params) {
+        List<String> predicates = new ArrayList<>();
+        if (role != null) {
+            predicates.add("role = :role");
+            params.put("role", role.name());
+        }
+        if (status != null) {
+            predicates.add("status = :status");
+            params.put("status", status.name());
+        }
+        return predicates;
+    }
+
+    private String where(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+}
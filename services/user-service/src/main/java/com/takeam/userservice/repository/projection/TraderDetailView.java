@@ -0,0 +1,25 @@
+package com.takeam.userservice.repository.projection;
+
+import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.UserStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat trader + user columns for {@code TraderDetailResponseDto}.
+ */
+public record TraderDetailView(
+        UUID userId,
+        String phoneNumber,
+        String fullName,
+        Role role,
+        UserStatus status,
+        LocalDateTime userCreatedAt,
+        String bankAccountNumber,
+        String bankName,
+        String accountName,
+        Boolean verified,
+        LocalDateTime createdAt
+) {
+}
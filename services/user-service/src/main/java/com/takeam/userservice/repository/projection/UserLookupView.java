@@ -0,0 +1,22 @@
+package com.takeam.userservice.repository.projection;
+
+import com.takeam.userservice.model.Role;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns needed for cross-service user lookups, with bank details joined in
+ * from the trader profile when there is one.
+ */
+public record UserLookupView(
+        UUID id,
+        String phoneNumber,
+        String fullName,
+        Role role,
+        String bankAccountNumber,
+        String bankName,
+        boolean active,
+        LocalDateTime createdAt
+) {
+}
@@ -1,13 +1,21 @@
 package com.takeam.userservice.service;
 
+import com.takeam.userservice.dto.request.PageCursor;
+import com.takeam.userservice.dto.response.CursorPageDto;
 import com.takeam.userservice.model.AdminAuditLog;
 import com.takeam.userservice.repository.AdminAuditLogRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -15,7 +23,14 @@ import java.util.UUID;
 @Slf4j
 public class AdminAuditService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final AdminAuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
+
+    // Actions written inside the admin's transaction; everything else is buffered
+    @Value("${audit.sync-actions:CREATE_ADMIN,BAN_USER}")
+    private Set<String> syncActions;
 
 
     public void logAction(
@@ -38,23 +53,98 @@ public class AdminAuditService {
         auditLog.setNotes(notes);
         auditLog.setIpAddress(ipAddress);
 
-        auditLogRepository.save(auditLog);
+        if (syncActions.contains(action)) {
+            auditLogRepository.save(auditLog);
+        } else {
+            auditLog.setId(UUID.randomUUID());
+            auditLog.setCreatedAt(LocalDateTime.now());
+            enqueueAfterCommit(auditLog);
+        }
 
         log.info("Admin action logged: {} by {} on {}", action, adminEmail, targetUserEmail);
     }
 
 
+    /**
+     * Write the entries of a bulk action as one batched insert inside the
+     * caller's transaction.
+     */
+    public void logActions(List<AdminAuditLog> auditLogs) {
+        LocalDateTime now = LocalDateTime.now();
+        for (AdminAuditLog auditLog : auditLogs) {
+            auditLog.setId(UUID.randomUUID());
+            auditLog.setCreatedAt(now);
+        }
+        auditLogWriter.writeNow(auditLogs);
+        log.info("Admin actions logged: {} entries", auditLogs.size());
+    }
+
+
     public Page<AdminAuditLog> getAllLogs(Pageable pageable) {
         return auditLogRepository.findAllByOrderByCreatedAtDesc(pageable);
     }
 
 
     public Page<AdminAuditLog> getLogsByAdmin(UUID adminId, Pageable pageable) {
-        return auditLogRepository.findAll(pageable);
+        return auditLogRepository.findByAdminIdOrderByCreatedAtDesc(adminId, pageable);
     }
 
 
     public Page<AdminAuditLog> getLogsByTargetUser(UUID userId, Pageable pageable) {
-        return auditLogRepository.findAll(pageable);
+        return auditLogRepository.findByTargetUserIdOrderByCreatedAtDesc(userId, pageable);
+    }
+
+
+    public CursorPageDto<AdminAuditLog> getLogsByAdmin(UUID adminId, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        PageCursor after = PageCursor.decode(cursor);
+        List<AdminAuditLog> rows = after == null
+                ? auditLogRepository.findFirstPageByAdmin(adminId, limit + 1)
+                : auditLogRepository.findPageByAdminAfter(adminId, after.createdAt(), after.id(), limit + 1);
+        return toCursorPage(rows, limit);
+    }
+
+
+    public CursorPageDto<AdminAuditLog> getLogsByTargetUser(UUID userId, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        PageCursor after = PageCursor.decode(cursor);
+        List<AdminAuditLog> rows = after == null
+                ? auditLogRepository.findFirstPageByTarget(userId, limit + 1)
+                : auditLogRepository.findPageByTargetAfter(userId, after.createdAt(), after.id(), limit + 1);
+        return toCursorPage(rows, limit);
+    }
+
+    // ============ HELPER METHODS ============
+
+    /**
+     * Buffered entries must not outlive a rolled-back admin action, so they are
+     * only handed to the writer once the surrounding transaction commits.
+     */
+    private void enqueueAfterCommit(AdminAuditLog auditLog) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    auditLogWriter.enqueue(auditLog);
+                }
+            });
+        } else {
+            auditLogWriter.enqueue(auditLog);
+        }
+    }
+
+    private CursorPageDto<AdminAuditLog> toCursorPage(List<AdminAuditLog> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<AdminAuditLog> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AdminAuditLog last = items.get(items.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPageDto.<AdminAuditLog>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -3,11 +3,16 @@ package com.takeam.userservice.service;
 import com.takeam.userservice.dto.request.AdminSeedDto;
 import com.takeam.userservice.dto.request.ApprovalActionDto;
 import com.takeam.userservice.dto.request.CreateAdminDto;
+import com.takeam.userservice.dto.request.PageCursor;
 import com.takeam.userservice.dto.request.UserActionDto;
 import com.takeam.userservice.dto.response.AgentDetailDto;
+import com.takeam.userservice.dto.response.CursorPageDto;
+import com.takeam.userservice.dto.response.DailyCountDto;
 import com.takeam.userservice.dto.response.DashboardStatsDto;
 import com.takeam.userservice.dto.response.MessageResponseDto;
 import com.takeam.userservice.dto.response.UserResponseDto;
+import com.takeam.userservice.event.AgentApprovalEvent;
+import com.takeam.userservice.event.UserLifecycleEvent;
 import com.takeam.userservice.exception.BadRequestException;
 import com.takeam.userservice.exception.ResourceNotFoundException;
 import com.takeam.userservice.exception.UnauthorizedException;
@@ -17,15 +22,19 @@ import com.takeam.userservice.model.*;
 import com.takeam.userservice.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -42,6 +51,10 @@ public class AdminService {
     private final AdminAuditService auditService;
     private final EmailService emailService;
     private final AgentMapper agentMapper;
+    private final DashboardStatsService dashboardStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_PAGE_SIZE = 100;
 
     // creating admin
 
@@ -71,6 +84,7 @@ public class AdminService {
         admin.setLoginAttempts(0);
 
         userRepository.save(admin);
+        eventPublisher.publishEvent(UserLifecycleEvent.registered(admin));
 
         log.info("Super Admin created: {}", admin.getEmail());
 
@@ -113,6 +127,7 @@ public class AdminService {
         admin.setLoginAttempts(0);
 
         User savedAdmin = userRepository.save(admin);
+        eventPublisher.publishEvent(UserLifecycleEvent.registered(savedAdmin));
 
         // Log action
         auditService.logAction(
@@ -138,18 +153,19 @@ public class AdminService {
         log.info("Fetching pending agents");
 
         Page<Agent> agents = agentRepository.findByApprovalStatus(ApprovalStatus.PENDING, pageable);
+        AgentEnrichment enrichment = loadEnrichment(agents.getContent());
 
-        return agents.map(this::mapToAgentDetailDto);
+        return agents.map(agent -> mapToAgentDetailDto(agent, enrichment));
     }
 
 
     public AgentDetailDto getAgentDetails(UUID agentId) {
         log.info("Fetching agent details: {}", agentId);
 
-        Agent agent = agentRepository.findById(agentId)
+        Agent agent = agentRepository.findWithUserById(agentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
 
-        return mapToAgentDetailDto(agent);
+        return mapToAgentDetailDto(agent, loadEnrichment(List.of(agent)));
     }
 
 
@@ -161,7 +177,7 @@ public class AdminService {
         User admin = getAdminUser(adminId);
 
         // Get agent
-        Agent agent = agentRepository.findById(agentId)
+        Agent agent = agentRepository.findWithUserById(agentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
 
         // Check if already approved
@@ -170,15 +186,19 @@ public class AdminService {
         }
 
         // Approve
+        ApprovalStatus previousApproval = agent.getApprovalStatus();
         agent.setApprovalStatus(ApprovalStatus.APPROVED);
         agent.setApprovedBy(adminId);
         agent.setApprovedAt(LocalDateTime.now());
         agentRepository.save(agent);
+        eventPublisher.publishEvent(new AgentApprovalEvent(previousApproval, ApprovalStatus.APPROVED));
 
         // Activate user account
         User agentUser = agent.getUser();
+        UserStatus previousStatus = agentUser.getStatus();
         agentUser.setStatus(UserStatus.ACTIVE);
         userRepository.save(agentUser);
+        eventPublisher.publishEvent(UserLifecycleEvent.statusChanged(agentUser, previousStatus));
 
         // Log action
         auditService.logAction(
@@ -193,11 +213,7 @@ public class AdminService {
         );
 
         // Send email notification
-        emailService.sendOTPEmail(
-                agentUser.getEmail(),
-                "Your agent account has been approved! You can now login and start working.",
-                agentUser.getFullName()
-        );
+        emailService.sendAccountApprovedEmail(agentUser.getEmail(), agentUser.getFullName());
 
         log.info("Agent approved: {}", agentId);
 
@@ -218,13 +234,15 @@ public class AdminService {
         User admin = getAdminUser(adminId);
 
         // Get agent
-        Agent agent = agentRepository.findById(agentId)
+        Agent agent = agentRepository.findWithUserById(agentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
 
         // Reject
+        ApprovalStatus previousApproval = agent.getApprovalStatus();
         agent.setApprovalStatus(ApprovalStatus.REJECTED);
         agent.setRejectionReason(dto.getReason());
         agentRepository.save(agent);
+        eventPublisher.publishEvent(new AgentApprovalEvent(previousApproval, ApprovalStatus.REJECTED));
 
         // Keep user status as PENDING (they can reapply later)
         User agentUser = agent.getUser();
@@ -242,10 +260,10 @@ public class AdminService {
         );
 
         // Send email notification
-        emailService.sendOTPEmail(
+        emailService.sendApplicationRejectedEmail(
                 agentUser.getEmail(),
-                "Your agent application has been rejected. Reason: " + dto.getReason(),
-                agentUser.getFullName()
+                agentUser.getFullName(),
+                dto.getReason()
         );
 
         log.info("Agent rejected: {}", agentId);
@@ -261,20 +279,37 @@ public class AdminService {
     /**
      * Get all users (with filters)
      */
-    public Page<UserResponseDto> getAllUsers(Role role, UserStatus status, Pageable pageable) {
+    public CursorPageDto<UserResponseDto> getAllUsers(
+            Role role, UserStatus status, String cursor, int size, boolean includeTotal) {
         log.info("Fetching users - Role: {}, Status: {}", role, status);
 
-        Page<User> users;
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        PageCursor after = PageCursor.decode(cursor);
+
+        // One extra row tells us whether another page exists without a COUNT
+        List<User> users = userRepository.findPageAfter(
+                role,
+                status,
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                limit + 1
+        );
 
-        if (role != null && status != null) {
-            users = userRepository.findByRoleAndStatus(role, status, pageable);
-        } else if (role != null) {
-            users = userRepository.findByRole(role, pageable);
-        } else {
-            users = userRepository.findAll(pageable);
+        boolean hasMore = users.size() > limit;
+        List<User> page = hasMore ? users.subList(0, limit) : users;
+
+        String nextCursor = null;
+        if (hasMore) {
+            User last = page.get(page.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
         }
 
-        return users.map(userMapper::toUserResponseDto);
+        return CursorPageDto.<UserResponseDto>builder()
+                .items(page.stream().map(userMapper::toUserResponseDto).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .approximateTotal(includeTotal ? userRepository.estimateCount(role, status) : null)
+                .build();
     }
 
     /**
@@ -310,8 +345,10 @@ public class AdminService {
         }
 
         // Suspend
+        UserStatus previousStatus = user.getStatus();
         user.setStatus(UserStatus.SUSPENDED);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.statusChanged(user, previousStatus));
 
         // Log action
         auditService.logAction(
@@ -354,8 +391,10 @@ public class AdminService {
         }
 
         // Ban
+        UserStatus previousStatus = user.getStatus();
         user.setStatus(UserStatus.BANNED);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.statusChanged(user, previousStatus));
 
         // Log action
         auditService.logAction(
@@ -392,10 +431,12 @@ public class AdminService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Reactivate
+        UserStatus previousStatus = user.getStatus();
         user.setStatus(UserStatus.ACTIVE);
         user.setLoginAttempts(0);
         user.setLockedUntil(null);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.statusChanged(user, previousStatus));
 
         // Log action
         auditService.logAction(
@@ -423,35 +464,14 @@ public class AdminService {
      * Get dashboard statistics
      */
     public DashboardStatsDto getDashboardStats() {
-        log.info("Fetching dashboard statistics");
-
-        LocalDateTime today = LocalDateTime.of(LocalDate.now(), LocalTime.MIN);
-        LocalDateTime weekStart = today.minusDays(7);
-        LocalDateTime monthStart = today.minusDays(30);
-
-        return DashboardStatsDto.builder()
-                // User counts
-                .totalUsers(userRepository.count())
-                .totalTraders(userRepository.countByRole(Role.TRADER))
-                .totalAgents(userRepository.countByRole(Role.AGENT))
-                .totalBuyers(userRepository.countByRole(Role.BUYER))
-                .totalAdmins(userRepository.countByRole(Role.ADMIN) + userRepository.countByRole(Role.SUPER_ADMIN))
-
-                // Agent stats
-                .pendingAgents(agentRepository.countByApprovalStatus(ApprovalStatus.PENDING))
-                .approvedAgents(agentRepository.countByApprovalStatus(ApprovalStatus.APPROVED))
-                .rejectedAgents(agentRepository.countByApprovalStatus(ApprovalStatus.REJECTED))
-
-                // User status
-                .activeUsers(userRepository.countByStatus(UserStatus.ACTIVE))
-                .suspendedUsers(userRepository.countByStatus(UserStatus.SUSPENDED))
-                .bannedUsers(userRepository.countByStatus(UserStatus.BANNED))
-
-                // Time-based
-                .todayRegistrations(userRepository.countByCreatedAtAfter(today))
-                .thisWeekRegistrations(userRepository.countByCreatedAtAfter(weekStart))
-                .thisMonthRegistrations(userRepository.countByCreatedAtAfter(monthStart))
-                .build();
+        return dashboardStatsService.getStats();
+    }
+
+    /**
+     * Get daily registration counts for the dashboard chart
+     */
+    public List<DailyCountDto> getDailyRegistrations(int days) {
+        return dashboardStatsService.getDailyRegistrations(days);
     }
 
     /**
@@ -462,6 +482,22 @@ public class AdminService {
         return auditService.getAllLogs(pageable);
     }
 
+    /**
+     * Get audit logs recorded for actions taken by an admin, newest first
+     */
+    public CursorPageDto<AdminAuditLog> getAuditLogsByAdmin(UUID adminId, String cursor, int size) {
+        log.info("Fetching audit logs for admin: {}", adminId);
+        return auditService.getLogsByAdmin(adminId, cursor, size);
+    }
+
+    /**
+     * Get audit logs recorded against a target user, newest first
+     */
+    public CursorPageDto<AdminAuditLog> getAuditLogsByTargetUser(UUID userId, String cursor, int size) {
+        log.info("Fetching audit logs for target user: {}", userId);
+        return auditService.getLogsByTargetUser(userId, cursor, size);
+    }
+
     // ============ HELPER METHODS ============
 
     private User getAdminUser(UUID adminId) {
@@ -474,7 +510,7 @@ public class AdminService {
 
         return admin;
     }
-    private AgentDetailDto mapToAgentDetailDto(Agent agent) {
+    private AgentDetailDto mapToAgentDetailDto(Agent agent, AgentEnrichment enrichment) {
         // Use MapStruct for the basic mapping
         AgentDetailDto dto = agentMapper.toDetailResponse(agent);
 
@@ -482,17 +518,50 @@ public class AdminService {
         User user = agent.getUser();
 
         // Count traders registered by this agent
-        Integer tradersCount = traderRepository.findByRegisteredByAgentId(user.getId()).size();
-        dto.setTradersRegistered(tradersCount);
+        long tradersCount = enrichment.traderCounts().getOrDefault(user.getId(), 0L);
+        dto.setTradersRegistered((int) tradersCount);
 
         // Get approver email if approved
         if (agent.getApprovedBy() != null) {
-            String approverEmail = userRepository.findById(agent.getApprovedBy())
-                    .map(User::getEmail)
-                    .orElse(null);
-            dto.setApprovedByAdminEmail(approverEmail);
+            dto.setApprovedByAdminEmail(enrichment.approverEmails().get(agent.getApprovedBy()));
         }
 
         return dto;
     }
+
+    /**
+     * Load trader counts and approver emails for a page of agents with one
+     * grouped count query and one IN lookup, whatever the page size.
+     */
+    private AgentEnrichment loadEnrichment(List<Agent> agents) {
+        if (agents.isEmpty()) {
+            return new AgentEnrichment(Map.of(), Map.of());
+        }
+
+        Set<UUID> agentUserIds = new HashSet<>();
+        Set<UUID> approverIds = new HashSet<>();
+        for (Agent agent : agents) {
+            agentUserIds.add(agent.getUser().getId());
+            if (agent.getApprovedBy() != null) {
+                approverIds.add(agent.getApprovedBy());
+            }
+        }
+
+        Map<UUID, Long> traderCounts = new HashMap<>();
+        for (TraderRepository.RegisteredTraderCount row : traderRepository.countByRegisteredByAgentIds(agentUserIds)) {
+            traderCounts.put(row.getAgentUserId(), row.getTraderCount());
+        }
+
+        Map<UUID, String> approverEmails = new HashMap<>();
+        if (!approverIds.isEmpty()) {
+            for (User approver : userRepository.findAllById(approverIds)) {
+                approverEmails.put(approver.getId(), approver.getEmail());
+            }
+        }
+
+        return new AgentEnrichment(traderCounts, approverEmails);
+    }
+
+    private record AgentEnrichment(Map<UUID, Long> traderCounts, Map<UUID, String> approverEmails) {
+    }
 }
\ No newline at end of file
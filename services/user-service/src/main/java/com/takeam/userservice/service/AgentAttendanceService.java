@@ -2,24 +2,36 @@ package com.takeam.userservice.service;
 
 import com.takeam.userservice.dto.request.ClockInRequest;
 import com.takeam.userservice.dto.request.ClockOutRequest;
+import com.takeam.userservice.dto.request.PageCursor;
+import com.takeam.userservice.dto.request.PickupIncrementDto;
 //import com.takeam.userservice.dto.response.AgentStatusResponse;
+import com.takeam.userservice.dto.response.AttendanceReportDto;
 import com.takeam.userservice.dto.response.AttendanceResponse;
+import com.takeam.userservice.dto.response.CursorPageDto;
+import com.takeam.userservice.dto.response.NearbyAgentDto;
+import com.takeam.userservice.dto.response.PickupIncrementResultDto;
+import com.takeam.userservice.event.AttendanceEvent;
 import com.takeam.userservice.exception.BadRequestException;
 import com.takeam.userservice.exception.ResourceNotFoundException;
 import com.takeam.userservice.mapper.AttendanceMapper;
 import com.takeam.userservice.model.*;
 import com.takeam.userservice.repository.AgentAttendanceRepository;
-import com.takeam.userservice.repository.UserRepository;
+import com.takeam.userservice.repository.AgentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,30 +41,36 @@ import java.util.stream.Collectors;
 public class AgentAttendanceService {
 
     private final AgentAttendanceRepository attendanceRepository;
-    private final UserRepository userRepository;
+    private final AgentRepository agentRepository;
     private final AttendanceMapper attendanceMapper;
+    private final AgentPresenceRegistry presenceRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GeofenceService geofenceService;
+    private final PickupCounter pickupCounter;
+    private final JdbcTemplate jdbcTemplate;
 
-    // Market zone configuration
-    private static final double MARKET_CENTER_LAT = 6.4550;
-    private static final double MARKET_CENTER_LNG = 3.3941;
-    private static final double MARKET_RADIUS_KM = 2.0;
-
-    // Working hours configuration
+    // Working hours configuration; the day ends at each market's closing time
     private static final LocalTime WORK_START_TIME = LocalTime.of(10, 0);
-    private static final LocalTime WORK_END_TIME = LocalTime.of(18, 0);
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_NEAREST_AGENTS = 50;
+
+    // Serializes one agent's attendance writes (online, replayed and auto clock-out) until committed
+    private static final String AGENT_LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext(?))";
 
 
     @Transactional
     public AttendanceResponse clockIn(UUID agentId, ClockInRequest request) {
         log.info("Clock-in request for agent ID: {}", agentId);
 
-        validateAgentExists(agentId);
+        lockAgentAttendance(agentId);
         validateNotAlreadyClockedIn(agentId);
-        validateWorkingHours();
-        validateLocationInMarketZone(request.getLatitude(), request.getLongitude());
+        Agent agent = validateClockIn(agentId, request.getLatitude(), request.getLongitude(), Instant.now());
 
-        AgentAttendance attendance = createClockInRecord(agentId, request);
+        AgentAttendance attendance = newClockInRecord(agentId, LocalDateTime.now(),
+                request.getLatitude(), request.getLongitude(), request.getAddress());
         AgentAttendance saved = attendanceRepository.save(attendance);
+        eventPublisher.publishEvent(AttendanceEvent.clockedIn(saved, agent.getAssignedMarketId()));
 
         log.info("Agent {} clocked in successfully at {}", agentId, saved.getClockInTime());
         return mapToResponse(saved, "Clocked in successfully!");
@@ -63,13 +81,16 @@ public class AgentAttendanceService {
     public AttendanceResponse clockOut(UUID agentId, ClockOutRequest request) {
         log.info("Clock-out request for agent ID: {}", agentId);
 
+        // Loaded under the lock, so an auto clock-out committed meanwhile is seen, not overwritten
+        lockAgentAttendance(agentId);
         AgentAttendance attendance = getTodayAttendanceRecord(agentId);
         validateNotAlreadyClockedOut(attendance);
 
-        updateClockOutDetails(attendance, request);
-        calculateAndSetTotalHours(attendance);
+        closeSession(attendance, LocalDateTime.now(),
+                request.getLatitude(), request.getLongitude(), request.getAddress());
 
         AgentAttendance saved = attendanceRepository.save(attendance);
+        eventPublisher.publishEvent(AttendanceEvent.clockedOut(saved, resolveMarketId(agentId)));
         log.info("Agent {} clocked out. Total hours: {}", agentId, saved.getTotalHoursWorked());
 
         return mapToResponse(saved,
@@ -88,69 +109,203 @@ public class AgentAttendanceService {
 
 
     public boolean isAgentClockedIn(UUID agentId) {
-        return attendanceRepository.isAgentClockedIn(agentId, LocalDate.now());
+        return presenceRegistry.isOnDuty(agentId);
+    }
+
+
+    public Set<UUID> getOnDutyAgents(String marketId) {
+        return presenceRegistry.onDutyIn(marketId);
+    }
+
+
+    public List<NearbyAgentDto> getNearestAgents(double latitude, double longitude, int k, String marketId) {
+        int limit = Math.min(Math.max(k, 1), MAX_NEAREST_AGENTS);
+        return presenceRegistry.nearest(latitude, longitude, limit, marketId)
+                .stream()
+                .map(nearby -> NearbyAgentDto.builder()
+                        .agentId(nearby.agentId())
+                        .marketId(nearby.presence().marketId())
+                        .latitude(nearby.presence().latitude())
+                        .longitude(nearby.presence().longitude())
+                        .distanceMeters(Math.round(nearby.distanceMeters() * 10.0) / 10.0)
+                        .lastSeenAt(Instant.ofEpochMilli(nearby.presence().positionMillis()))
+                        .build())
+                .toList();
     }
 
 
     public List<AttendanceResponse> getAttendanceHistory(UUID agentId, int limit) {
-        return attendanceRepository.findByAgentIdOrderByDateDesc(agentId)
+        return attendanceRepository.findFirstPageByAgent(agentId, clampPageSize(limit))
                 .stream()
-                .limit(limit)
                 .map(attendance -> mapToResponse(attendance, null))
                 .collect(Collectors.toList());
     }
 
 
-    @Transactional
+    public CursorPageDto<AttendanceResponse> getAttendanceHistoryPage(UUID agentId, String cursor, int size) {
+        int limit = clampPageSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<AgentAttendance> rows = after == null
+                ? attendanceRepository.findFirstPageByAgent(agentId, limit + 1)
+                : attendanceRepository.findPageByAgentAfter(
+                        agentId, after.createdAt().toLocalDate(), after.id(), limit + 1);
+
+        boolean hasMore = rows.size() > limit;
+        List<AgentAttendance> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AgentAttendance last = items.get(items.size() - 1);
+            nextCursor = new PageCursor(last.getDate().atStartOfDay(), last.getId()).encode();
+        }
+
+        return CursorPageDto.<AttendanceResponse>builder()
+                .items(items.stream().map(attendance -> mapToResponse(attendance, null)).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+
+    public AttendanceReportDto getAttendanceReport(UUID agentId, LocalDate from, LocalDate to) {
+        validateReportRange(from, to);
+        return attendanceRepository.summarizeAgent(agentId, from, to)
+                .map(totals -> mapToReport(totals, from, to))
+                .orElseGet(() -> AttendanceReportDto.builder().agentId(agentId).from(from).to(to).build());
+    }
+
+
+    public List<AttendanceReportDto> getMarketAttendanceReport(String marketId, LocalDate from, LocalDate to) {
+        validateReportRange(from, to);
+        return attendanceRepository.summarizeMarket(marketId, from, to)
+                .stream()
+                .map(totals -> mapToReport(totals, from, to))
+                .toList();
+    }
+
+
     public void incrementCompletedPickups(UUID agentId) {
-        attendanceRepository.findByAgentIdAndDate(agentId, LocalDate.now())
-                .ifPresent(attendance -> {
-                    attendance.setCompletedPickups(attendance.getCompletedPickups() + 1);
-                    attendanceRepository.save(attendance);
-                    log.info("Incremented pickups for agent {}: {}",
-                            agentId, attendance.getCompletedPickups());
-                });
+        switch (pickupCounter.incrementAndWait(agentId, 1)) {
+            case APPLIED -> log.info("Incremented pickups for agent {}", agentId);
+            case NOT_CLOCKED_IN -> log.warn("Ignoring pickup for agent {} with no attendance today", agentId);
+            case PENDING -> log.warn("Pickup for agent {} is still being written", agentId);
+        }
+    }
+
+
+    public PickupIncrementResultDto incrementCompletedPickups(List<PickupIncrementDto> increments) {
+        Map<UUID, Integer> counts = increments.stream()
+                .collect(Collectors.toMap(PickupIncrementDto::getAgentId, PickupIncrementDto::getCount, Integer::sum));
+
+        Map<UUID, PickupCounter.Outcome> outcomes = pickupCounter.incrementAll(counts);
+        List<UUID> notClockedIn = agentsWith(outcomes, PickupCounter.Outcome.NOT_CLOCKED_IN);
+        List<UUID> pending = agentsWith(outcomes, PickupCounter.Outcome.PENDING);
+        long added = counts.entrySet().stream()
+                .filter(entry -> outcomes.get(entry.getKey()) == PickupCounter.Outcome.APPLIED)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        int updated = counts.size() - notClockedIn.size() - pending.size();
+
+        log.info("Added {} pickups for {} agents; {} not clocked in, {} pending",
+                added, updated, notClockedIn.size(), pending.size());
+        return PickupIncrementResultDto.builder()
+                .agentsUpdated(updated)
+                .pickupsAdded(added)
+                .notClockedIn(notClockedIn)
+                .pending(pending)
+                .build();
+    }
+
+    /**
+     * Checks that the agent may clock in at the given instant and position,
+     * returning the agent. Also used when replaying offline clock-ins.
+     */
+    public Agent validateClockIn(UUID agentId, double latitude, double longitude, Instant at) {
+        Agent agent = validateAgentExists(agentId);
+        validateWorkingHours(agent.getAssignedMarketId(), at);
+        validateLocationInMarketZone(agent.getAssignedMarketId(), latitude, longitude);
+        return agent;
+    }
+
+
+    /**
+     * Takes the per-agent attendance lock for the rest of the transaction.
+     * Also used by the offline sync.
+     */
+    void lockAgentAttendance(UUID agentId) {
+        jdbcTemplate.query(AGENT_LOCK_SQL, rs -> null, "attendance:" + agentId);
+    }
+
+
+    public String resolveMarketId(UUID agentId) {
+        String marketId = presenceRegistry.marketOf(agentId);
+        if (marketId != null) {
+            return marketId;
+        }
+        return agentRepository.findByUserId(agentId)
+                .map(Agent::getAssignedMarketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
     }
 
     // validation methods
 
-    private void validateAgentExists(UUID agentId) {
-        User agent = userRepository.findById(agentId)
+    private Agent validateAgentExists(UUID agentId) {
+        Agent agent = agentRepository.findWithUserByUserId(agentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
+        User user = agent.getUser();
 
-        if (!agent.getRole().equals(Role.AGENT)) {
+        if (!user.getRole().equals(Role.AGENT)) {
             throw new BadRequestException("Only agents can clock in");
         }
-        if (agent.getStatus() != UserStatus.ACTIVE) {
+        if (user.getStatus() != UserStatus.ACTIVE) {
             throw new BadRequestException("Agent account must be approved and active");
         }
+        return agent;
     }
 
+    // Checked against the table, not the presence registry, which lags behind commits
     private void validateNotAlreadyClockedIn(UUID agentId) {
         attendanceRepository.findByAgentIdAndDate(agentId, LocalDate.now())
                 .ifPresent(attendance -> {
                     if (attendance.getStatus() == AgentAttendance.AttendanceStatus.CLOCKED_IN) {
                         throw new BadRequestException("You are already clocked in today");
                     }
+                    throw new BadRequestException("You have already clocked out today");
                 });
     }
 
-    private void validateWorkingHours() {
-        LocalTime currentTime = LocalTime.now();
+    private void validateWorkingHours(String marketId, Instant at) {
+        GeofenceService.MarketHours hours = geofenceService.hoursOf(marketId);
+        LocalTime currentTime = LocalTime.ofInstant(at, hours.zone());
         if (currentTime.isBefore(WORK_START_TIME)) {
             throw new BadRequestException(
                     String.format("Cannot clock in before %s", WORK_START_TIME));
         }
+        if (!currentTime.isBefore(hours.closesAt())) {
+            throw new BadRequestException(
+                    String.format("Cannot clock in after %s", hours.closesAt()));
+        }
     }
 
-    private void validateLocationInMarketZone(double latitude, double longitude) {
-        if (!isLocationInMarketZone(latitude, longitude)) {
+    private void validateLocationInMarketZone(String marketId, double latitude, double longitude) {
+        if (!geofenceService.isWithinMarket(marketId, latitude, longitude)) {
+            List<String> markets = geofenceService.findMarketsAt(latitude, longitude);
+            if (!markets.isEmpty()) {
+                throw new BadRequestException(String.format(
+                        "You are inside market %s but assigned to market %s. " +
+                                "Please clock in at your assigned market.", markets.get(0), marketId));
+            }
             throw new BadRequestException(
                     "You must be within the market area to clock in. " +
                             "Please ensure you are at the correct location.");
         }
     }
 
+    private void validateReportRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+    }
+
     private void validateNotAlreadyClockedOut(AgentAttendance attendance) {
         if (attendance.getStatus() == AgentAttendance.AttendanceStatus.CLOCKED_OUT) {
             throw new BadRequestException("You have already clocked out today");
@@ -159,29 +314,32 @@ public class AgentAttendanceService {
 
     // ==================== RECORD CREATION METHODS ====================
 
-    private AgentAttendance createClockInRecord(UUID agentId, ClockInRequest request) {
+    static AgentAttendance newClockInRecord(UUID agentId, LocalDateTime time,
+                                            Double latitude, Double longitude, String address) {
         AgentAttendance attendance = new AgentAttendance();
         attendance.setAgentId(agentId);
-        attendance.setDate(LocalDate.now());
-        attendance.setClockInTime(LocalDateTime.now());
-        attendance.setClockInLatitude(request.getLatitude());
-        attendance.setClockInLongitude(request.getLongitude());
-        attendance.setClockInAddress(request.getAddress());
+        attendance.setDate(time.toLocalDate());
+        attendance.setClockInTime(time);
+        attendance.setClockInLatitude(latitude);
+        attendance.setClockInLongitude(longitude);
+        attendance.setClockInAddress(address);
         attendance.setIsInMarketZone(true);
         attendance.setStatus(AgentAttendance.AttendanceStatus.CLOCKED_IN);
         attendance.setCompletedPickups(0);
         return attendance;
     }
 
-    private void updateClockOutDetails(AgentAttendance attendance, ClockOutRequest request) {
-        attendance.setClockOutTime(LocalDateTime.now());
-        attendance.setClockOutLatitude(request.getLatitude());
-        attendance.setClockOutLongitude(request.getLongitude());
-        attendance.setClockOutAddress(request.getAddress());
+    static void closeSession(AgentAttendance attendance, LocalDateTime time,
+                             Double latitude, Double longitude, String address) {
+        attendance.setClockOutTime(time);
+        attendance.setClockOutLatitude(latitude);
+        attendance.setClockOutLongitude(longitude);
+        attendance.setClockOutAddress(address);
         attendance.setStatus(AgentAttendance.AttendanceStatus.CLOCKED_OUT);
+        calculateAndSetTotalHours(attendance);
     }
 
-    private void calculateAndSetTotalHours(AgentAttendance attendance) {
+    private static void calculateAndSetTotalHours(AgentAttendance attendance) {
         Duration duration = Duration.between(
                 attendance.getClockInTime(),
                 attendance.getClockOutTime()
@@ -206,33 +364,35 @@ public class AgentAttendanceService {
         return response;
     }
 
-    // ==================== GEOLOCATION METHODS ====================
+    // ==================== MAPPING METHODS ====================
 
-    private boolean isLocationInMarketZone(double latitude, double longitude) {
-        double distance = calculateDistance(
-                MARKET_CENTER_LAT, MARKET_CENTER_LNG,
-                latitude, longitude
-        );
-        log.debug("Distance from market center: {} km", distance);
-        return distance <= MARKET_RADIUS_KM;
+    private AttendanceReportDto mapToReport(AgentAttendanceRepository.AttendanceTotals totals,
+                                            LocalDate from, LocalDate to) {
+        double totalHours = Math.round(totals.getTotalHours() * 100.0) / 100.0;
+        double average = totals.getDaysPresent() > 0
+                ? Math.round(totals.getTotalHours() / totals.getDaysPresent() * 100.0) / 100.0
+                : 0.0;
+        return AttendanceReportDto.builder()
+                .agentId(totals.getAgentId())
+                .from(from)
+                .to(to)
+                .daysPresent(totals.getDaysPresent())
+                .totalHoursWorked(totalHours)
+                .totalPickups(totals.getTotalPickups())
+                .averageHoursPerDay(average)
+                .build();
     }
 
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int EARTH_RADIUS_KM = 6371;
-
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-
-        return EARTH_RADIUS_KM * c;
+    private static List<UUID> agentsWith(Map<UUID, PickupCounter.Outcome> outcomes, PickupCounter.Outcome outcome) {
+        return outcomes.entrySet().stream()
+                .filter(entry -> entry.getValue() == outcome)
+                .map(Map.Entry::getKey)
+                .toList();
     }
 
-    // ==================== MAPPING METHODS ====================
+    private static int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+    }
 
     private AttendanceResponse mapToResponse(AgentAttendance attendance, String message) {
         AttendanceResponse response = attendanceMapper.toResponse(attendance);
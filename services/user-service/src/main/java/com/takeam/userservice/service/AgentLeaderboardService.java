@@ -0,0 +1,382 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.response.LeaderboardEntryDto;
+import com.takeam.userservice.dto.response.LeaderboardPageDto;
+import com.takeam.userservice.dto.response.LeaderboardRankDto;
+import com.takeam.userservice.event.AttendanceEvent;
+import com.takeam.userservice.event.PickupsCompletedEvent;
+import com.takeam.userservice.model.LeaderboardMetric;
+import com.takeam.userservice.model.LeaderboardWindow;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Live per-market rankings of agents by pickups and hours worked for today,
+ * this week and this month, kept in Redis sorted sets so rank and top-N
+ * reads cost O(log n). Completed pickups and clock-outs update the sets as
+ * they happen; hours are written as totals read back from the database, so
+ * re-sent and late-corrected clock-outs never count twice. Each key is named
+ * after its window's start date and expires shortly after the window ends, so
+ * boards roll over without a reset job. The database stays the source of
+ * truth: one replica rebuilds the current windows from {@code agent_attendance}
+ * on a schedule and drops boards nobody ranks on any more.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AgentLeaderboardService {
+
+    private static final String KEY_PREFIX = "leaderboard:";
+    private static final String LOCK_NAME = "leaderboard:reconcile";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String REBUILD_SUFFIX = ":rebuild:";
+
+    // One summed column per window, e.g. hours_week; bound as (start, end) per window, then agent and range
+    private static final String WINDOW_HOURS_SQL = windowHoursSql();
+
+    private static final String TOTALS_SQL = """
+            SELECT a.assigned_market_id AS market_id, aa.agent_id,
+                   COALESCE(SUM(aa.completed_pickups), 0) AS pickups,
+                   COALESCE(SUM(aa.total_hours_worked), 0) AS hours
+            FROM agent_attendance aa
+            JOIN agents a ON a.user_id = aa.agent_id
+            WHERE aa.date BETWEEN ? AND ? AND a.assigned_market_id IS NOT NULL
+            GROUP BY a.assigned_market_id, aa.agent_id
+            """;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final AgentAttendanceService attendanceService;
+    private final UserRepository userRepository;
+    private final RedisLeaderLock leaderLock;
+
+    // How long a board stays readable after its window ends
+    @Value("${leaderboard.retention-days:1}")
+    private int retentionDays;
+
+    @Value("${leaderboard.lock-ttl-ms:300000}")
+    private long lockTtlMs;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickupsCompleted(PickupsCompletedEvent event) {
+        try {
+            String marketId = attendanceService.resolveMarketId(event.agentId());
+            String member = event.agentId().toString();
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                    for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                        String key = key(LeaderboardMetric.PICKUPS, window, event.date(), marketId);
+                        redis.opsForZSet().incrementScore(key, member, event.count());
+                        redis.expireAt(key, expiryOf(window, event.date()));
+                    }
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to add {} pickups for agent {} to leaderboards: {}",
+                    event.count(), event.agentId(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendance(AttendanceEvent event) {
+        if (event.type() != AttendanceEvent.Type.CLOCK_OUT || event.marketId() == null) {
+            return;
+        }
+        try {
+            setHours(event.agentId(), event.marketId(), event.date());
+        } catch (RuntimeException e) {
+            log.warn("Failed to update hours leaderboards for agent {}: {}", event.agentId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Set the agent's score on every hours board covering the date to the
+     * window's total in {@code agent_attendance}.
+     */
+    void setHours(UUID agentId, String marketId, LocalDate date) {
+        List<Object> args = new ArrayList<>();
+        LocalDate from = date;
+        LocalDate to = date;
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            args.add(window.startOf(date));
+            args.add(window.endOf(date));
+            from = window.startOf(date).isBefore(from) ? window.startOf(date) : from;
+            to = window.endOf(date).isAfter(to) ? window.endOf(date) : to;
+        }
+        args.addAll(List.of(agentId, from, to));
+        Map<String, Object> totals = jdbcTemplate.queryForMap(WINDOW_HOURS_SQL, args.toArray());
+
+        String member = agentId.toString();
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                for (LeaderboardWindow window : LeaderboardWindow.values()) {
+                    String key = key(LeaderboardMetric.HOURS, window, date, marketId);
+                    Object total = totals.get(hoursColumn(window));
+                    double hours = total != null ? ((Number) total).doubleValue() : 0.0;
+                    if (hours > 0) {
+                        redis.opsForZSet().add(key, member, hours);
+                    } else {
+                        redis.opsForZSet().remove(key, member);
+                    }
+                    redis.expireAt(key, expiryOf(window, date));
+                }
+                return null;
+            }
+        });
+    }
+
+    public LeaderboardPageDto getTop(String marketId, LeaderboardMetric metric, LeaderboardWindow window,
+                                     int offset, int limit) {
+        int start = Math.max(offset, 0);
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        LocalDate today = LocalDate.now();
+        String key = key(metric, window, today, marketId);
+
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().reverseRangeWithScores(key, start, start + size - 1);
+        Long total = redisTemplate.opsForZSet().zCard(key);
+
+        List<ZSetOperations.TypedTuple<String>> ranked = tuples != null ? new ArrayList<>(tuples) : List.of();
+        Map<UUID, String> names = namesOf(ranked.stream().map(tuple -> UUID.fromString(tuple.getValue())).toList());
+        List<LeaderboardEntryDto> entries = new ArrayList<>(ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            UUID agentId = UUID.fromString(ranked.get(i).getValue());
+            entries.add(LeaderboardEntryDto.builder()
+                    .rank(start + i + 1L)
+                    .agentId(agentId)
+                    .fullName(names.get(agentId))
+                    .score(round(ranked.get(i).getScore()))
+                    .build());
+        }
+
+        return LeaderboardPageDto.builder()
+                .marketId(marketId)
+                .metric(metric)
+                .window(window)
+                .windowStart(window.startOf(today))
+                .windowEnd(window.endOf(today))
+                .totalAgents(total != null ? total : 0)
+                .entries(entries)
+                .build();
+    }
+
+    public LeaderboardPageDto getTopForAgentMarket(UUID agentId, LeaderboardMetric metric,
+                                                   LeaderboardWindow window, int limit) {
+        return getTop(attendanceService.resolveMarketId(agentId), metric, window, 0, limit);
+    }
+
+    /**
+     * The agent's rank, score and board size, read in one pipelined round trip.
+     */
+    public LeaderboardRankDto getRank(UUID agentId, LeaderboardMetric metric, LeaderboardWindow window) {
+        String marketId = attendanceService.resolveMarketId(agentId);
+        String key = key(metric, window, LocalDate.now(), marketId);
+        String member = agentId.toString();
+
+        List<Object> replies = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                redis.opsForZSet().reverseRank(key, member);
+                redis.opsForZSet().score(key, member);
+                redis.opsForZSet().zCard(key);
+                return null;
+            }
+        });
+
+        Long rank = (Long) replies.get(0);
+        Double score = (Double) replies.get(1);
+        Long total = (Long) replies.get(2);
+        return LeaderboardRankDto.builder()
+                .agentId(agentId)
+                .marketId(marketId)
+                .metric(metric)
+                .window(window)
+                .rank(rank != null ? rank + 1 : null)
+                .score(score != null ? round(score) : 0.0)
+                .totalAgents(total != null ? total : 0)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.reconcile-interval-ms:600000}",
+            initialDelayString = "${leaderboard.reconcile-interval-ms:600000}")
+    public void scheduledReconcile() {
+        reconcileIfLeader();
+    }
+
+    /**
+     * Rebuild the current boards if this replica wins the lock. Returns the
+     * number of boards written, or -1 when another replica is already running.
+     */
+    public int reconcileIfLeader() {
+        String token = leaderLock.tryAcquire(LOCK_NAME, Duration.ofMillis(lockTtlMs));
+        if (token == null) {
+            log.debug("Leaderboard reconcile skipped; another instance holds the lock");
+            return -1;
+        }
+        try {
+            return reconcile();
+        } finally {
+            leaderLock.release(LOCK_NAME, token);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    /**
+     * Each board is written under a temporary key and renamed over the live
+     * one, so readers never see it half-built. Current boards the query did
+     * not produce (a market left without ranked agents) are deleted.
+     * Increments that land between the query and the swap are lost until the
+     * next run puts them back.
+     */
+    private int reconcile() {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        Map<LeaderboardWindow, Map<String, Map<String, Double>>> boards = new EnumMap<>(LeaderboardWindow.class);
+
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            Map<String, Map<String, Double>> windowBoards = new HashMap<>();
+            boards.put(window, windowBoards);
+            jdbcTemplate.query(TOTALS_SQL, rs -> {
+                String marketId = rs.getString("market_id");
+                String member = rs.getObject("agent_id", UUID.class).toString();
+                long pickups = rs.getLong("pickups");
+                double hours = rs.getDouble("hours");
+                if (pickups > 0) {
+                    windowBoards.computeIfAbsent(key(LeaderboardMetric.PICKUPS, window, today, marketId),
+                            key -> new HashMap<>()).put(member, (double) pickups);
+                }
+                if (hours > 0) {
+                    windowBoards.computeIfAbsent(key(LeaderboardMetric.HOURS, window, today, marketId),
+                            key -> new HashMap<>()).put(member, hours);
+                }
+            }, window.startOf(today), today);
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                boards.forEach((window, windowBoards) -> {
+                    Date expiresAt = expiryOf(window, today);
+                    windowBoards.forEach((key, scores) -> {
+                        String tempKey = key + REBUILD_SUFFIX + UUID.randomUUID();
+                        Set<ZSetOperations.TypedTuple<String>> tuples = scores.entrySet().stream()
+                                .<ZSetOperations.TypedTuple<String>>map(entry ->
+                                        new DefaultTypedTuple<>(entry.getKey(), entry.getValue()))
+                                .collect(Collectors.toSet());
+                        redis.opsForZSet().add(tempKey, tuples);
+                        redis.expireAt(tempKey, expiresAt);
+                        redis.rename(tempKey, key);
+                    });
+                });
+                return null;
+            }
+        });
+
+        Set<String> rebuilt = new HashSet<>();
+        boards.values().forEach(windowBoards -> rebuilt.addAll(windowBoards.keySet()));
+        List<String> stale = staleBoards(today, rebuilt);
+        if (!stale.isEmpty()) {
+            redisTemplate.delete(stale);
+        }
+
+        log.info("Leaderboards reconciled in {} ms: {} boards, {} stale removed",
+                (System.nanoTime() - started) / 1_000_000, rebuilt.size(), stale.size());
+        return rebuilt.size();
+    }
+
+    private List<String> staleBoards(LocalDate today, Set<String> rebuilt) {
+        List<String> stale = new ArrayList<>();
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            // Both metrics, every market, this window's current start date
+            String pattern = KEY_PREFIX + "*:" + window.name().toLowerCase() + ":" + window.startOf(today) + ":*";
+            try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(1000).build())) {
+                while (cursor.hasNext()) {
+                    String key = cursor.next();
+                    if (!rebuilt.contains(key) && !key.contains(REBUILD_SUFFIX)) {
+                        stale.add(key);
+                    }
+                }
+            }
+        }
+        return stale;
+    }
+
+    private static String windowHoursSql() {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        LeaderboardWindow[] windows = LeaderboardWindow.values();
+        for (int i = 0; i < windows.length; i++) {
+            sql.append(i > 0 ? ", " : "")
+                    .append("COALESCE(SUM(total_hours_worked) FILTER (WHERE date BETWEEN ? AND ?), 0) AS ")
+                    .append(hoursColumn(windows[i]));
+        }
+        return sql.append(" FROM agent_attendance WHERE agent_id = ? AND date BETWEEN ? AND ?").toString();
+    }
+
+    private static String hoursColumn(LeaderboardWindow window) {
+        return "hours_" + window.name().toLowerCase();
+    }
+
+    // e.g. leaderboard:pickups:week:2025-03-10:mile-12
+    private static String key(LeaderboardMetric metric, LeaderboardWindow window, LocalDate date, String marketId) {
+        return KEY_PREFIX + metric.name().toLowerCase() + ":" + window.name().toLowerCase() + ":"
+                + window.startOf(date) + ":" + marketId;
+    }
+
+    private Date expiryOf(LeaderboardWindow window, LocalDate date) {
+        LocalDate expiresOn = window.endOf(date).plusDays(1L + retentionDays);
+        return Date.from(expiresOn.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private Map<UUID, String> namesOf(List<UUID> agentIds) {
+        if (agentIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(new HashSet<>(agentIds)).stream()
+                .collect(Collectors.toMap(User::getId, User::getFullName, (a, b) -> a));
+    }
+
+    private static double round(Double score) {
+        return score != null ? Math.round(score * 100.0) / 100.0 : 0.0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.service.AgentPresenceRegistry.Presence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Concurrent uniform grid of agent positions for nearest-neighbour queries.
+ * A query scans rings of cells outward from the query point and stops once
+ * the k-th best distance is closer than anything in the unscanned rings.
+ * Queries take no lock, so a moving agent may briefly sit in both its old
+ * and new cell; each query counts an agent at most once.
+ */
+final class AgentLocationIndex {
+
+    private static final double METERS_PER_DEGREE = 111_320;
+
+    private final double cellDegrees;
+    private final double maxRadiusMeters;
+    private final ConcurrentHashMap<Long, Set<UUID>> cells = new ConcurrentHashMap<>();
+
+    AgentLocationIndex(double cellDegrees, double maxRadiusMeters) {
+        this.cellDegrees = cellDegrees;
+        this.maxRadiusMeters = maxRadiusMeters;
+    }
+
+    void add(UUID agentId, double lat, double lng) {
+        cells.computeIfAbsent(key(lat, lng), k -> ConcurrentHashMap.newKeySet()).add(agentId);
+    }
+
+    void remove(UUID agentId, double lat, double lng) {
+        long key = key(lat, lng);
+        Set<UUID> members = cells.get(key);
+        if (members != null) {
+            members.remove(agentId);
+            if (members.isEmpty()) {
+                cells.remove(key, members);
+            }
+        }
+    }
+
+    void move(UUID agentId, double fromLat, double fromLng, double toLat, double toLng) {
+        if (key(fromLat, fromLng) != key(toLat, toLng)) {
+            add(agentId, toLat, toLng);
+            remove(agentId, fromLat, fromLng);
+        }
+    }
+
+    /**
+     * Up to {@code k} agents within the search radius closest to the point,
+     * nearest first, among those that pass the filter.
+     */
+    List<Neighbour> nearest(double lat, double lng, int k, Map<UUID, Presence> positions,
+                            Predicate<Presence> filter) {
+        // Max-heap on distance holding the best k so far
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(
+                Comparator.comparingDouble(Neighbour::distanceMeters).reversed());
+        Set<UUID> seen = new HashSet<>();
+        int latCell = cell(lat);
+        int lngCell = cell(lng);
+        // Cells narrow towards the poles; the smaller side bounds how far each ring reaches
+        double ringMeters = cellDegrees * METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        int maxRings = (int) Math.ceil(maxRadiusMeters / ringMeters) + 1;
+
+        for (int ring = 0; ring <= maxRings; ring++) {
+            if (best.size() == k && best.peek().distanceMeters() <= (ring - 1) * ringMeters) {
+                break;
+            }
+            for (int dLat = -ring; dLat <= ring; dLat++) {
+                for (int dLng = -ring; dLng <= ring; dLng++) {
+                    if (Math.abs(dLat) != ring && Math.abs(dLng) != ring) {
+                        continue;
+                    }
+                    Set<UUID> members = cells.get(key(latCell + dLat, lngCell + dLng));
+                    if (members == null) {
+                        continue;
+                    }
+                    for (UUID agentId : members) {
+                        if (!seen.add(agentId)) {
+                            continue;
+                        }
+                        Presence position = positions.get(agentId);
+                        if (position == null || !filter.test(position)) {
+                            continue;
+                        }
+                        double distance = Geofence.distanceMeters(lat, lng, position.latitude(), position.longitude());
+                        if (distance > maxRadiusMeters) {
+                            continue;
+                        }
+                        if (best.size() < k) {
+                            best.add(new Neighbour(agentId, position, distance));
+                        } else if (distance < best.peek().distanceMeters()) {
+                            best.poll();
+                            best.add(new Neighbour(agentId, position, distance));
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Neighbour> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(Neighbour::distanceMeters));
+        return result;
+    }
+
+    private int cell(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private long key(double lat, double lng) {
+        return key(cell(lat), cell(lng));
+    }
+
+    private static long key(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+
+    record Neighbour(UUID agentId, Presence position, double distanceMeters) {
+    }
+}
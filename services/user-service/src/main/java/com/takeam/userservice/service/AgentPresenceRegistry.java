@@ -0,0 +1,365 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.event.AttendanceEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which agents are clocked in today and where they were last seen, held in
+ * memory so duty checks and nearest-agent searches never hit the database.
+ * Updated from attendance events once they commit and from location updates,
+ * shared with other instances over Redis pub/sub and mirrored to a Redis hash
+ * ({@code agentId -> Presence.encode()}) for other services. The database
+ * stays the source of truth: the registry is rebuilt from it at startup,
+ * shortly after midnight and on a schedule.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AgentPresenceRegistry implements MessageListener {
+
+    private static final String HASH_KEY = "presence:agents";
+    private static final String CHANNEL = "presence:changes";
+
+    private static final String LOAD_SQL = """
+            SELECT aa.agent_id, a.assigned_market_id, aa.clock_in_time,
+                   aa.clock_in_latitude, aa.clock_in_longitude
+            FROM agent_attendance aa
+            JOIN agents a ON a.user_id = aa.agent_id
+            WHERE aa.date = ? AND aa.status = 'CLOCKED_IN'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${presence.location.cell-degrees:0.01}")
+    private double cellDegrees;
+
+    @Value("${presence.location.max-radius-meters:50000}")
+    private double maxRadiusMeters;
+
+    private volatile State state;
+    // Non-null while a rebuild is loading; changes are applied to it as well
+    private volatile State rebuilding;
+
+    /**
+     * An on-duty agent and their last known position.
+     */
+    public record Presence(String marketId, long epochDay, long clockInMillis,
+                           double latitude, double longitude, long positionMillis) {
+
+        Presence movedTo(double newLatitude, double newLongitude, long atMillis) {
+            return new Presence(marketId, epochDay, clockInMillis, newLatitude, newLongitude, atMillis);
+        }
+
+        String encode() {
+            return epochDay + "|" + clockInMillis + "|" + latitude + "|" + longitude + "|" + positionMillis
+                    + "|" + marketId;
+        }
+
+        static Presence decode(String value) {
+            String[] parts = value.split("\\|", 6);
+            return new Presence(parts[5], Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                    Double.parseDouble(parts[2]), Double.parseDouble(parts[3]), Long.parseLong(parts[4]));
+        }
+    }
+
+    public record NearbyAgent(UUID agentId, Presence presence, double distanceMeters) {
+    }
+
+    public record PositionUpdate(UUID agentId, double latitude, double longitude, long atMillis) {
+    }
+
+    @PostConstruct
+    void subscribe() {
+        state = new State();
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        Gauge.builder("presence.agents.on_duty", this, registry -> registry.state.agents.size())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    public boolean isOnDuty(UUID agentId) {
+        Presence presence = state.agents.get(agentId);
+        return presence != null && presence.epochDay() == today();
+    }
+
+    public String marketOf(UUID agentId) {
+        Presence presence = state.agents.get(agentId);
+        return presence != null ? presence.marketId() : null;
+    }
+
+    /**
+     * Live, read-only view of the agents on duty in a market.
+     */
+    public Set<UUID> onDutyIn(String marketId) {
+        Set<UUID> agents = state.markets.get(marketId);
+        return agents != null ? Collections.unmodifiableSet(agents) : Set.of();
+    }
+
+    public int onDutyCount() {
+        return state.agents.size();
+    }
+
+    /**
+     * The {@code k} on-duty agents nearest to a point, optionally only those of
+     * one market, nearest first.
+     */
+    public List<NearbyAgent> nearest(double latitude, double longitude, int k, String marketId) {
+        long today = today();
+        State current = state;
+        return current.locations.nearest(latitude, longitude, k, current.agents,
+                        presence -> presence.epochDay() == today
+                                && (marketId == null || marketId.equals(presence.marketId())))
+                .stream()
+                .map(n -> new NearbyAgent(n.agentId(), n.position(), n.distanceMeters()))
+                .toList();
+    }
+
+    /**
+     * Record a newer position for an on-duty agent; ignored for agents that
+     * are not clocked in or when a later position is already known.
+     */
+    public void updatePosition(UUID agentId, double latitude, double longitude, long atMillis) {
+        updatePositions(List.of(new PositionUpdate(agentId, latitude, longitude, atMillis)));
+    }
+
+    /**
+     * Record many positions at once and share them in a single pipelined
+     * round trip to Redis.
+     */
+    public void updatePositions(Collection<PositionUpdate> updates) {
+        long today = today();
+        Map<String, String> moved = new HashMap<>();
+        for (PositionUpdate update : updates) {
+            Presence current = state.agents.get(update.agentId());
+            if (current == null || current.epochDay() != today || current.positionMillis() >= update.atMillis()) {
+                continue;
+            }
+            Presence next = current.movedTo(update.latitude(), update.longitude(), update.atMillis());
+            apply(update.agentId(), next);
+            moved.put(update.agentId().toString(), next.encode());
+        }
+        if (!moved.isEmpty()) {
+            publishAll(moved);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendance(AttendanceEvent event) {
+        if (event.type() == AttendanceEvent.Type.CLOCK_IN) {
+            long clockInMillis = event.time().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            Presence presence = new Presence(event.marketId(), event.date().toEpochDay(), clockInMillis,
+                    event.latitude(), event.longitude(), clockInMillis);
+            apply(event.agentId(), presence);
+            publish(event.agentId(), presence);
+        } else {
+            Presence current = state.agents.get(event.agentId());
+            if (current != null && current.epochDay() != event.date().toEpochDay()) {
+                // A session from an earlier day was closed; the agent is on duty today
+                return;
+            }
+            apply(event.agentId(), null);
+            publish(event.agentId(), null);
+        }
+    }
+
+    /**
+     * Replace the registry with today's clocked-in rows. Changes that arrive
+     * while the rows load win over the snapshot.
+     */
+    @Scheduled(cron = "${presence.rollover-cron:5 0 0 * * *}")
+    @Scheduled(fixedDelayString = "${presence.reconcile-interval-ms:300000}",
+            initialDelayString = "${presence.reconcile-interval-ms:300000}")
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        State previous = state;
+        State fresh = new State();
+        rebuilding = fresh;
+        try {
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                UUID agentId = rs.getObject("agent_id", UUID.class);
+                Timestamp clockIn = rs.getTimestamp("clock_in_time");
+                long clockInMillis = clockIn != null ? clockIn.getTime() : 0L;
+                Presence loaded = new Presence(rs.getString("assigned_market_id"), today.toEpochDay(),
+                        clockInMillis, rs.getDouble("clock_in_latitude"), rs.getDouble("clock_in_longitude"),
+                        clockInMillis);
+                // Positions reported since clock-in only live in memory; keep them
+                Presence known = previous.agents.get(agentId);
+                if (known != null && known.epochDay() == loaded.epochDay() && known.positionMillis() > clockInMillis) {
+                    loaded = loaded.movedTo(known.latitude(), known.longitude(), known.positionMillis());
+                }
+                fresh.load(agentId, loaded);
+            }, today);
+            state = fresh;
+        } finally {
+            rebuilding = null;
+        }
+
+        mirror(fresh);
+        log.info("Presence registry rebuilt in {} ms: {} agents on duty",
+                (System.nanoTime() - started) / 1_000_000, fresh.agents.size());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            String[] parts = payload.split("\\|", 2);
+            UUID agentId = UUID.fromString(parts[0]);
+            apply(agentId, parts.length > 1 ? Presence.decode(parts[1]) : null);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed presence message: {}", payload);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void apply(UUID agentId, Presence presence) {
+        state.apply(agentId, presence);
+        State next = rebuilding;
+        if (next != null) {
+            next.apply(agentId, presence);
+        }
+    }
+
+    private void publish(UUID agentId, Presence presence) {
+        try {
+            if (presence != null) {
+                redisTemplate.opsForHash().put(HASH_KEY, agentId.toString(), presence.encode());
+                redisTemplate.convertAndSend(CHANNEL, agentId + "|" + presence.encode());
+            } else {
+                redisTemplate.opsForHash().delete(HASH_KEY, agentId.toString());
+                redisTemplate.convertAndSend(CHANNEL, agentId.toString());
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to publish presence change for agent {}: {}", agentId, e.getMessage());
+        }
+    }
+
+    private void publishAll(Map<String, String> encoded) {
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> redis = (RedisOperations<String, String>) operations;
+                    redis.opsForHash().putAll(HASH_KEY, encoded);
+                    encoded.forEach((agentId, value) -> redis.convertAndSend(CHANNEL, agentId + "|" + value));
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to publish {} presence changes: {}", encoded.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrite the Redis hash under a temporary key and swap it in, so readers
+     * never see a half-written registry.
+     */
+    private void mirror(State snapshot) {
+        String tempKey = HASH_KEY + ":rebuild:" + UUID.randomUUID();
+        try {
+            Map<String, String> entries = new HashMap<>();
+            snapshot.agents.forEach((agentId, presence) -> entries.put(agentId.toString(), presence.encode()));
+            if (entries.isEmpty()) {
+                redisTemplate.delete(HASH_KEY);
+                return;
+            }
+            redisTemplate.opsForHash().putAll(tempKey, entries);
+            redisTemplate.rename(tempKey, HASH_KEY);
+        } catch (RuntimeException e) {
+            log.error("Failed to mirror presence registry to Redis: {}", e.getMessage());
+        }
+    }
+
+    private static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    private class State {
+
+        private final ConcurrentHashMap<UUID, Presence> agents = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Set<UUID>> markets = new ConcurrentHashMap<>();
+        private final AgentLocationIndex locations = new AgentLocationIndex(cellDegrees, maxRadiusMeters);
+        // Agents clocked out during a rebuild, so the snapshot does not bring them back
+        private final Set<UUID> removed = ConcurrentHashMap.newKeySet();
+
+        // Changes for one agent arrive from its own request thread or the Redis listener
+        synchronized void apply(UUID agentId, Presence presence) {
+            if (presence == null) {
+                removed.add(agentId);
+                Presence previous = agents.remove(agentId);
+                if (previous != null) {
+                    leave(agentId, previous.marketId());
+                    locations.remove(agentId, previous.latitude(), previous.longitude());
+                }
+                return;
+            }
+            removed.remove(agentId);
+            Presence previous = agents.put(agentId, presence);
+            if (previous == null) {
+                locations.add(agentId, presence.latitude(), presence.longitude());
+            } else {
+                locations.move(agentId, previous.latitude(), previous.longitude(),
+                        presence.latitude(), presence.longitude());
+                if (!previous.marketId().equals(presence.marketId())) {
+                    leave(agentId, previous.marketId());
+                }
+            }
+            markets.computeIfAbsent(presence.marketId(), key -> ConcurrentHashMap.newKeySet()).add(agentId);
+        }
+
+        synchronized void load(UUID agentId, Presence presence) {
+            if (!removed.contains(agentId) && agents.putIfAbsent(agentId, presence) == null) {
+                markets.computeIfAbsent(presence.marketId(), key -> ConcurrentHashMap.newKeySet()).add(agentId);
+                locations.add(agentId, presence.latitude(), presence.longitude());
+            }
+        }
+
+        private void leave(UUID agentId, String marketId) {
+            Set<UUID> members = markets.get(marketId);
+            if (members != null) {
+                members.remove(agentId);
+            }
+        }
+    }
+}
@@ -5,11 +5,15 @@ import com.takeam.userservice.dto.request.AgentVerifyOTPDto;
 import com.takeam.userservice.dto.request.TraderRegistrationRequestDto;
 import com.takeam.userservice.dto.response.AgentDetailDto;
 import com.takeam.userservice.dto.response.AuthResponseDto;
+import com.takeam.userservice.dto.response.TraderDetailResponseDto;
 import com.takeam.userservice.dto.response.UserResponseDto;
+import com.takeam.userservice.event.AgentApprovalEvent;
+import com.takeam.userservice.event.UserLifecycleEvent;
 import com.takeam.userservice.exception.BadRequestException;
 import com.takeam.userservice.exception.ResourceNotFoundException;
 import com.takeam.userservice.exception.UnauthorizedException;
 import com.takeam.userservice.mapper.AgentMapper;
+import com.takeam.userservice.mapper.TraderMapper;
 import com.takeam.userservice.mapper.UserMapper;
 import com.takeam.userservice.model.*;
 import com.takeam.userservice.repository.AgentRepository;
@@ -17,6 +21,7 @@ import com.takeam.userservice.repository.TraderRepository;
 import com.takeam.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,9 +39,11 @@ public class AgentService {
     private final TraderRepository traderRepository;
     private final OTPService otpService;
     private final AgentMapper agentMapper;
+    private final TraderMapper traderMapper;
     private final UserMapper userMapper;
     private final TraderService traderService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     // agent registration
 
@@ -82,6 +89,7 @@ public class AgentService {
         User user = agentMapper.toUser(dto);
         user.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.registered(savedUser));
         log.info("User created with ID: {}", savedUser.getId());
         return savedUser;
     }
@@ -90,6 +98,7 @@ public class AgentService {
         Agent agent = agentMapper.toAgent(dto);
         agent.setUser(user);
         agentRepository.save(agent);
+        eventPublisher.publishEvent(new AgentApprovalEvent(null, agent.getApprovalStatus()));
         log.info("Agent profile created for user: {}", user.getId());
     }
 
@@ -132,10 +141,11 @@ public class AgentService {
     public AgentDetailDto getAgentDetails(UUID userId) {  // ← Changed return type
         log.info("Fetching agent details for user: {}", userId);
 
-        Agent agent = findAgentByUserId(userId);
-        List<Trader> tradersRegistered = traderRepository.findByRegisteredByAgentId(userId);
+        Agent agent = agentRepository.findWithUserByUserId(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
 
         AgentDetailDto response = agentMapper.toDetailResponse(agent);
+        response.setTradersRegistered((int) traderRepository.countByRegisteredByAgentId(userId));
 
         return response;
     }
@@ -143,7 +153,7 @@ public class AgentService {
     public AgentDetailDto getAgentDetailsById(UUID agentId) {
         log.info("Fetching agent details by agent ID: {}", agentId);
 
-        Agent agent = agentRepository.findById(agentId)
+        Agent agent = agentRepository.findWithUserById(agentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Agent not found with ID: " + agentId));
 
         return agentMapper.toDetailResponse(agent);
@@ -173,8 +183,9 @@ public class AgentService {
         return response;
     }
 
-    private void validateAgentCanRegisterTraders(UUID agentId) {
-        Agent agent = findAgentByUserId(agentId);
+    public void validateAgentCanRegisterTraders(UUID agentId) {
+        Agent agent = agentRepository.findWithUserByUserId(agentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
 
         if (agent.getApprovalStatus() != ApprovalStatus.APPROVED) {
             throw new UnauthorizedException("Agent not approved yet");
@@ -200,8 +211,10 @@ public class AgentService {
     }
 
 
-    public List<Trader> getTradersRegisteredByAgent(UUID agentId) {
+    public List<TraderDetailResponseDto> getTradersRegisteredByAgent(UUID agentId) {
         log.info("Fetching traders registered by agent: {}", agentId);
-        return traderRepository.findByRegisteredByAgentId(agentId);
+        return traderRepository.findDetailViewsByRegisteredByAgentId(agentId).stream()
+                .map(traderMapper::toDetailResponse)
+                .toList();
     }
 }
\ No newline at end of file
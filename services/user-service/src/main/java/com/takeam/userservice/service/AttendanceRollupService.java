@@ -0,0 +1,432 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.response.AttendanceRollupDto;
+import com.takeam.userservice.dto.response.MarketAttendanceRollupDto;
+import com.takeam.userservice.dto.response.RollupBackfillResultDto;
+import com.takeam.userservice.event.AttendanceEvent;
+import com.takeam.userservice.event.PickupsCompletedEvent;
+import com.takeam.userservice.exception.BadRequestException;
+import com.takeam.userservice.model.AgentAttendanceRollup;
+import com.takeam.userservice.model.MarketAttendanceRollup;
+import com.takeam.userservice.model.RollupPeriod;
+import com.takeam.userservice.repository.AgentAttendanceRollupRepository;
+import com.takeam.userservice.repository.MarketAttendanceRollupRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Weekly and monthly attendance totals per agent and per market. Clock-outs
+ * and completed pickups only mark the (agent, day) as changed; a background
+ * job recomputes the periods containing each changed day from the agent's
+ * attendance rows (at most a month of them), then each affected market once
+ * from the agent rollups. All writes are upserts keyed by period, so a
+ * refresh can be repeated or replayed safely. A nightly job, run by one
+ * replica, re-runs the recent periods and a backfill rebuilds any range
+ * set-wise.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceRollupService {
+
+    private static final String AGENT_MARKET_SQL =
+            "SELECT assigned_market_id FROM agents WHERE user_id = ?";
+
+    private static final String ROLLUP_MARKET_SQL =
+            "SELECT market_id FROM agent_attendance_rollups WHERE agent_id = ? AND period = ? AND period_start = ?";
+
+    // Serializes recomputes of one agent or market so each sees the rows committed before it
+    private static final String ROLLUP_LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext(?))";
+
+    private static final String RECONCILE_LOCK_NAME = "attendance:rollup-reconcile";
+
+    // Lock order for market recomputes
+    private static final Comparator<MarketPeriod> MARKET_PERIOD_ORDER = Comparator
+            .comparing(MarketPeriod::marketId)
+            .thenComparing(MarketPeriod::period)
+            .thenComparing(MarketPeriod::start);
+
+    private static final String AGENT_CONFLICT = """
+            ON CONFLICT (agent_id, period, period_start) DO UPDATE SET
+                market_id = EXCLUDED.market_id,
+                period_end = EXCLUDED.period_end,
+                days_present = EXCLUDED.days_present,
+                total_hours = EXCLUDED.total_hours,
+                total_pickups = EXCLUDED.total_pickups,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String MARKET_CONFLICT = """
+            ON CONFLICT (market_id, period, period_start) DO UPDATE SET
+                period_end = EXCLUDED.period_end,
+                agents_present = EXCLUDED.agents_present,
+                agent_days = EXCLUDED.agent_days,
+                total_hours = EXCLUDED.total_hours,
+                total_pickups = EXCLUDED.total_pickups,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String UPSERT_AGENT_SQL = """
+            INSERT INTO agent_attendance_rollups AS r
+                (id, agent_id, market_id, period, period_start, period_end,
+                 days_present, total_hours, total_pickups, updated_at)
+            SELECT ?, ?, ?, ?, ?, ?,
+                   COUNT(DISTINCT aa.date),
+                   COALESCE(SUM(aa.total_hours_worked), 0),
+                   COALESCE(SUM(aa.completed_pickups), 0),
+                   now()
+            FROM agent_attendance aa
+            WHERE aa.agent_id = ? AND aa.date BETWEEN ? AND ?
+            """ + AGENT_CONFLICT;
+
+    private static final String UPSERT_MARKET_SQL = """
+            INSERT INTO market_attendance_rollups AS m
+                (id, market_id, period, period_start, period_end,
+                 agents_present, agent_days, total_hours, total_pickups, updated_at)
+            SELECT ?, ?, ?, ?, ?,
+                   COUNT(*) FILTER (WHERE r.days_present > 0),
+                   COALESCE(SUM(r.days_present), 0),
+                   COALESCE(SUM(r.total_hours), 0),
+                   COALESCE(SUM(r.total_pickups), 0),
+                   now()
+            FROM agent_attendance_rollups r
+            WHERE r.market_id = ? AND r.period = ? AND r.period_start = ?
+            """ + MARKET_CONFLICT;
+
+    // Backfill statements; %1$s is the date_trunc unit, %2$s the period length less a day
+
+    private static final String BACKFILL_AGENTS_SQL = """
+            INSERT INTO agent_attendance_rollups AS r
+                (id, agent_id, market_id, period, period_start, period_end,
+                 days_present, total_hours, total_pickups, updated_at)
+            SELECT gen_random_uuid(), aa.agent_id, a.assigned_market_id, ?,
+                   date_trunc('%1$s', aa.date::timestamp)::date,
+                   (date_trunc('%1$s', aa.date::timestamp) + interval '%2$s')::date,
+                   COUNT(DISTINCT aa.date),
+                   COALESCE(SUM(aa.total_hours_worked), 0),
+                   COALESCE(SUM(aa.completed_pickups), 0),
+                   now()
+            FROM agent_attendance aa
+            LEFT JOIN agents a ON a.user_id = aa.agent_id
+            WHERE aa.date BETWEEN ? AND ?
+            GROUP BY aa.agent_id, a.assigned_market_id, date_trunc('%1$s', aa.date::timestamp)
+            """ + AGENT_CONFLICT;
+
+    private static final String CLEAR_MARKETS_SQL =
+            "DELETE FROM market_attendance_rollups WHERE period = ? AND period_start BETWEEN ? AND ?";
+
+    private static final String BACKFILL_MARKETS_SQL = """
+            INSERT INTO market_attendance_rollups AS m
+                (id, market_id, period, period_start, period_end,
+                 agents_present, agent_days, total_hours, total_pickups, updated_at)
+            SELECT gen_random_uuid(), r.market_id, r.period, r.period_start, MAX(r.period_end),
+                   COUNT(*) FILTER (WHERE r.days_present > 0),
+                   SUM(r.days_present),
+                   SUM(r.total_hours),
+                   SUM(r.total_pickups),
+                   now()
+            FROM agent_attendance_rollups r
+            WHERE r.period = ? AND r.period_start BETWEEN ? AND ? AND r.market_id IS NOT NULL
+            GROUP BY r.market_id, r.period, r.period_start
+            """ + MARKET_CONFLICT;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final AgentAttendanceRollupRepository agentRollupRepository;
+    private final MarketAttendanceRollupRepository marketRollupRepository;
+    private final RedisLeaderLock leaderLock;
+
+    @Value("${attendance.rollups.backfill-chunk-periods:4}")
+    private int backfillChunkPeriods;
+
+    @Value("${attendance.rollups.reconcile-months:1}")
+    private int reconcileMonths;
+
+    @Value("${attendance.rollups.reconcile-lock-ttl-ms:1800000}")
+    private long reconcileLockTtlMs;
+
+    @Value("${attendance.rollups.refresh-batch-size:200}")
+    private int refreshBatchSize;
+
+    // Days changed since the last refresh; repeats for the same day collapse into one
+    private final Set<AgentDay> pending = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate newTransaction;
+
+    @PostConstruct
+    void init() {
+        // Refreshes run after the attendance transaction has committed
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendance(AttendanceEvent event) {
+        if (event.type() == AttendanceEvent.Type.CLOCK_OUT) {
+            pending.add(new AgentDay(event.agentId(), event.date()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPickupsCompleted(PickupsCompletedEvent event) {
+        pending.add(new AgentDay(event.agentId(), event.date()));
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.rollups.refresh-interval-ms:5000}")
+    @PreDestroy
+    public void refreshPending() {
+        List<AgentDay> batch = new ArrayList<>(refreshBatchSize);
+        Iterator<AgentDay> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+            if (batch.size() == refreshBatchSize || !iterator.hasNext()) {
+                refresh(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Recompute the week and month containing each day for its agent, then
+     * every market those agents count towards, once per market and period.
+     * Failures are logged, not thrown: the attendance changes have already
+     * committed and the nightly run repairs them.
+     */
+    public void refresh(Collection<AgentDay> days) {
+        // Same lock order on every replica, so overlapping batches cannot deadlock
+        List<AgentDay> ordered = days.stream()
+                .sorted(Comparator.comparing(AgentDay::agentId).thenComparing(AgentDay::date))
+                .toList();
+        try {
+            Set<MarketPeriod> markets = newTransaction.execute(status -> {
+                Set<MarketPeriod> affected = new TreeSet<>(MARKET_PERIOD_ORDER);
+                UUID locked = null;
+                for (AgentDay day : ordered) {
+                    if (!day.agentId().equals(locked)) {
+                        jdbcTemplate.query(ROLLUP_LOCK_SQL, rs -> null, "attendance-rollup-agent:" + day.agentId());
+                        locked = day.agentId();
+                    }
+                    refreshAgent(day, affected);
+                }
+                return affected;
+            });
+            newTransaction.executeWithoutResult(status -> {
+                String locked = null;
+                for (MarketPeriod market : markets) {
+                    if (!market.marketId().equals(locked)) {
+                        jdbcTemplate.query(ROLLUP_LOCK_SQL, rs -> null, "attendance-rollup:" + market.marketId());
+                        locked = market.marketId();
+                    }
+                    jdbcTemplate.update(UPSERT_MARKET_SQL, UUID.randomUUID(), market.marketId(),
+                            market.period().name(), market.start(), market.end(),
+                            market.marketId(), market.period().name(), market.start());
+                }
+            });
+            log.debug("Refreshed attendance rollups for {} agent days and {} market periods",
+                    ordered.size(), markets.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to refresh attendance rollups for {} agent days: {}", ordered.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuild every rollup whose period overlaps {@code [from, to]}, a few
+     * periods per transaction.
+     */
+    public RollupBackfillResultDto backfill(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        long started = System.nanoTime();
+        int agentRows = 0;
+        int marketRows = 0;
+
+        for (RollupPeriod period : RollupPeriod.values()) {
+            LocalDate last = period.startOf(to);
+            LocalDate chunkStart = period.startOf(from);
+            while (!chunkStart.isAfter(last)) {
+                LocalDate chunkLast = period.plus(chunkStart, backfillChunkPeriods - 1L);
+                if (chunkLast.isAfter(last)) {
+                    chunkLast = last;
+                }
+                int[] rows = backfillChunk(period, chunkStart, chunkLast);
+                agentRows += rows[0];
+                marketRows += rows[1];
+                chunkStart = period.plus(chunkLast, 1);
+            }
+        }
+
+        long durationMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Backfilled attendance rollups {}..{}: {} agent rows, {} market rows in {} ms",
+                from, to, agentRows, marketRows, durationMs);
+        return RollupBackfillResultDto.builder()
+                .from(from)
+                .to(to)
+                .agentRollups(agentRows)
+                .marketRollups(marketRows)
+                .durationMs(durationMs)
+                .build();
+    }
+
+    @Scheduled(cron = "${attendance.rollups.reconcile-cron:0 30 0 * * *}")
+    public void reconcileRecent() {
+        String token = leaderLock.tryAcquire(RECONCILE_LOCK_NAME, Duration.ofMillis(reconcileLockTtlMs));
+        if (token == null) {
+            log.debug("Rollup reconcile skipped; another instance holds the lock");
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            backfill(RollupPeriod.MONTH.startOf(today.minusMonths(reconcileMonths)), today);
+        } finally {
+            leaderLock.release(RECONCILE_LOCK_NAME, token);
+        }
+    }
+
+    public List<AttendanceRollupDto> getAgentRollups(UUID agentId, RollupPeriod period, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return agentRollupRepository
+                .findByAgentIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+                        agentId, period, period.startOf(from), period.startOf(to))
+                .stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+
+    public List<MarketAttendanceRollupDto> getMarketRollups(String marketId, RollupPeriod period,
+                                                            LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return marketRollupRepository
+                .findByMarketIdAndPeriodAndPeriodStartBetweenOrderByPeriodStartAsc(
+                        marketId, period, period.startOf(from), period.startOf(to))
+                .stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+
+    /**
+     * Every agent's totals in a market for the period containing {@code date},
+     * most pickups first.
+     */
+    public List<AttendanceRollupDto> getMarketAgentRollups(String marketId, RollupPeriod period, LocalDate date) {
+        return agentRollupRepository
+                .findByMarketIdAndPeriodAndPeriodStartOrderByTotalPickupsDescTotalHoursDesc(
+                        marketId, period, period.startOf(date))
+                .stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+
+    /**
+     * An agent's attendance changed on this day.
+     */
+    public record AgentDay(UUID agentId, LocalDate date) {
+    }
+
+    // ============ HELPER METHODS ============
+
+    private record MarketPeriod(String marketId, RollupPeriod period, LocalDate start, LocalDate end) {
+    }
+
+    // Caller holds the agent's lock
+    private void refreshAgent(AgentDay day, Set<MarketPeriod> affected) {
+        UUID agentId = day.agentId();
+        String marketId = jdbcTemplate.queryForList(AGENT_MARKET_SQL, String.class, agentId)
+                .stream().findFirst().orElse(null);
+
+        for (RollupPeriod period : RollupPeriod.values()) {
+            LocalDate start = period.startOf(day.date());
+            LocalDate end = period.endOf(day.date());
+
+            // Include the market the agent was counted in before, in case it was reassigned
+            List<String> markets = new ArrayList<>();
+            if (marketId != null) {
+                markets.add(marketId);
+            }
+            jdbcTemplate.queryForList(ROLLUP_MARKET_SQL, String.class, agentId, period.name(), start)
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .forEach(markets::add);
+
+            jdbcTemplate.update(UPSERT_AGENT_SQL, UUID.randomUUID(), agentId, marketId, period.name(),
+                    start, end, agentId, start, end);
+            markets.forEach(market -> affected.add(new MarketPeriod(market, period, start, end)));
+        }
+    }
+
+    private int[] backfillChunk(RollupPeriod period, LocalDate firstStart, LocalDate lastStart) {
+        String unit = period == RollupPeriod.WEEK ? "week" : "month";
+        String length = period == RollupPeriod.WEEK ? "6 days" : "1 month - 1 day";
+        LocalDate end = period.endOf(lastStart);
+
+        return newTransaction.execute(status -> {
+            int agentRows = jdbcTemplate.update(BACKFILL_AGENTS_SQL.formatted(unit, length),
+                    period.name(), firstStart, end);
+            // Markets are rebuilt from scratch so agents who moved away stop counting
+            jdbcTemplate.update(CLEAR_MARKETS_SQL, period.name(), firstStart, lastStart);
+            int marketRows = jdbcTemplate.update(BACKFILL_MARKETS_SQL, period.name(), firstStart, lastStart);
+            return new int[]{agentRows, marketRows};
+        });
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+    }
+
+    private AttendanceRollupDto mapToDto(AgentAttendanceRollup rollup) {
+        double totalHours = Math.round(rollup.getTotalHours() * 100.0) / 100.0;
+        double average = rollup.getDaysPresent() > 0
+                ? Math.round(rollup.getTotalHours() / rollup.getDaysPresent() * 100.0) / 100.0
+                : 0.0;
+        return AttendanceRollupDto.builder()
+                .agentId(rollup.getAgentId())
+                .marketId(rollup.getMarketId())
+                .period(rollup.getPeriod())
+                .periodStart(rollup.getPeriodStart())
+                .periodEnd(rollup.getPeriodEnd())
+                .daysPresent(rollup.getDaysPresent())
+                .totalHoursWorked(totalHours)
+                .totalPickups(rollup.getTotalPickups())
+                .averageHoursPerDay(average)
+                .build();
+    }
+
+    private MarketAttendanceRollupDto mapToDto(MarketAttendanceRollup rollup) {
+        return MarketAttendanceRollupDto.builder()
+                .marketId(rollup.getMarketId())
+                .period(rollup.getPeriod())
+                .periodStart(rollup.getPeriodStart())
+                .periodEnd(rollup.getPeriodEnd())
+                .agentsPresent(rollup.getAgentsPresent())
+                .agentDays(rollup.getAgentDays())
+                .totalHoursWorked(Math.round(rollup.getTotalHours() * 100.0) / 100.0)
+                .totalPickups(rollup.getTotalPickups())
+                .build();
+    }
+}
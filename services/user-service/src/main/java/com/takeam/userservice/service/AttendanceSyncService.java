@@ -0,0 +1,226 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.request.AttendanceSyncEventDto;
+import com.takeam.userservice.dto.response.AttendanceSyncEventResultDto;
+import com.takeam.userservice.dto.response.AttendanceSyncResultDto;
+import com.takeam.userservice.event.AttendanceEvent;
+import com.takeam.userservice.exception.BadRequestException;
+import com.takeam.userservice.exception.ResourceNotFoundException;
+import com.takeam.userservice.model.Agent;
+import com.takeam.userservice.model.AgentAttendance;
+import com.takeam.userservice.model.AttendanceSyncReceipt;
+import com.takeam.userservice.model.AttendanceSyncReceipt.Outcome;
+import com.takeam.userservice.repository.AgentAttendanceRepository;
+import com.takeam.userservice.repository.AttendanceSyncReceiptRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Applies attendance events that agents captured offline. Events are applied
+ * in device-time order with the same rules as the online endpoints, and each
+ * outcome is stored under the event's idempotency key, so resending a batch
+ * (or part of one) never applies an event twice and always gets the same
+ * answer. Clock-ins are only accepted for today. A clock-out from an earlier
+ * day, within the receipt retention window, is accepted when it closes that
+ * day's session or corrects its auto clock-out, so an agent who went offline
+ * before closing time keeps their real hours.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttendanceSyncService {
+
+    private static final String EARLIER_DAY = "Events from an earlier day can no longer be synced";
+
+    private static final String PURGE_SQL = "DELETE FROM attendance_sync_receipts WHERE processed_at < ?";
+
+    private final AgentAttendanceRepository attendanceRepository;
+    private final AttendanceSyncReceiptRepository receiptRepository;
+    private final AgentAttendanceService attendanceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.sync.max-clock-skew-ms:300000}")
+    private long maxClockSkewMs;
+
+    // Receipts only need to outlive the day their events belong to
+    @Value("${attendance.sync.receipt-retention-days:7}")
+    private int receiptRetentionDays;
+
+    Clock clock = Clock.systemDefaultZone();
+
+    @Transactional
+    public AttendanceSyncResultDto sync(UUID agentId, List<AttendanceSyncEventDto> events) {
+        // Serializes concurrent uploads from the same agent, and online clock-ins
+        attendanceService.lockAgentAttendance(agentId);
+
+        Set<String> keys = events.stream().map(AttendanceSyncEventDto::getIdempotencyKey).collect(Collectors.toSet());
+        Map<String, AttendanceSyncReceipt> receipts = new HashMap<>();
+        receiptRepository.findByAgentIdAndIdempotencyKeyIn(agentId, keys)
+                .forEach(receipt -> receipts.put(receipt.getIdempotencyKey(), receipt));
+
+        Instant now = clock.instant();
+        List<AttendanceSyncEventDto> ordered = events.stream()
+                .sorted(Comparator.comparing(AttendanceSyncEventDto::getRecordedAt))
+                .toList();
+
+        List<AttendanceSyncReceipt> fresh = new ArrayList<>();
+        for (AttendanceSyncEventDto event : ordered) {
+            if (!receipts.containsKey(event.getIdempotencyKey())) {
+                AttendanceSyncReceipt receipt = apply(agentId, event, now);
+                receipts.put(receipt.getIdempotencyKey(), receipt);
+                fresh.add(receipt);
+            }
+        }
+        receiptRepository.saveAll(fresh);
+
+        Set<String> answered = new HashSet<>();
+        Set<String> freshKeys = fresh.stream().map(AttendanceSyncReceipt::getIdempotencyKey).collect(Collectors.toSet());
+        List<AttendanceSyncEventResultDto> results = events.stream()
+                .map(event -> {
+                    String key = event.getIdempotencyKey();
+                    boolean replayed = !freshKeys.contains(key) || !answered.add(key);
+                    return toResult(receipts.get(key), replayed);
+                })
+                .toList();
+
+        log.info("Synced {} attendance events for agent {} ({} new)", events.size(), agentId, fresh.size());
+        return AttendanceSyncResultDto.builder()
+                .results(results)
+                .attendance(attendanceService.getClockInStatus(agentId))
+                .serverTime(now)
+                .build();
+    }
+
+    @Scheduled(cron = "${attendance.sync.receipt-purge-cron:0 45 0 * * *}")
+    public void purgeExpiredReceipts() {
+        int removed = jdbcTemplate.update(PURGE_SQL, LocalDateTime.now(clock).minusDays(receiptRetentionDays));
+        if (removed > 0) {
+            log.info("Purged {} attendance sync receipts", removed);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private AttendanceSyncReceipt apply(UUID agentId, AttendanceSyncEventDto event, Instant now) {
+        AttendanceSyncReceipt receipt = new AttendanceSyncReceipt();
+        receipt.setAgentId(agentId);
+        receipt.setIdempotencyKey(event.getIdempotencyKey());
+        receipt.setType(event.getType());
+        receipt.setRecordedAt(event.getRecordedAt());
+        receipt.setProcessedAt(LocalDateTime.ofInstant(now, clock.getZone()));
+
+        try {
+            LocalDateTime time = resolveTime(event.getRecordedAt(), now);
+            LocalDate today = LocalDate.ofInstant(now, clock.getZone());
+            boolean earlierDay = time.toLocalDate().isBefore(today);
+            if (earlierDay && (event.getType() == AttendanceEvent.Type.CLOCK_IN
+                    || time.toLocalDate().isBefore(today.minusDays(receiptRetentionDays)))) {
+                throw new BadRequestException(EARLIER_DAY);
+            }
+            String message = switch (event.getType()) {
+                case CLOCK_IN -> applyClockIn(agentId, event, time);
+                case CLOCK_OUT -> applyClockOut(agentId, event, time, earlierDay);
+            };
+            receipt.setOutcome(message == null ? Outcome.APPLIED : Outcome.UNCHANGED);
+            receipt.setMessage(message == null ? describe(event.getType(), time) : message);
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            receipt.setOutcome(Outcome.REJECTED);
+            receipt.setMessage(e.getMessage());
+        }
+
+        meterRegistry.counter("attendance.sync.events", "outcome", receipt.getOutcome().name()).increment();
+        return receipt;
+    }
+
+    /**
+     * Device time as a server-local timestamp. Small clock skew into the
+     * future is tolerated and clamped to now.
+     */
+    private LocalDateTime resolveTime(Instant recordedAt, Instant now) {
+        if (recordedAt.isAfter(now.plusMillis(maxClockSkewMs))) {
+            throw new BadRequestException("Event is recorded in the future; check the device clock");
+        }
+        Instant at = recordedAt.isAfter(now) ? now : recordedAt;
+        return LocalDateTime.ofInstant(at, clock.getZone());
+    }
+
+    // Each returns null when applied, or a message when the event changed nothing
+
+    private String applyClockIn(UUID agentId, AttendanceSyncEventDto event, LocalDateTime time) {
+        AgentAttendance existing = attendanceRepository.findByAgentIdAndDate(agentId, time.toLocalDate()).orElse(null);
+        if (existing != null) {
+            if (existing.getStatus() == AgentAttendance.AttendanceStatus.CLOCKED_IN) {
+                return "Already clocked in at " + existing.getClockInTime();
+            }
+            throw new BadRequestException("You have already clocked out today");
+        }
+
+        Instant at = time.atZone(clock.getZone()).toInstant();
+        Agent agent = attendanceService.validateClockIn(agentId, event.getLatitude(), event.getLongitude(), at);
+        AgentAttendance saved = attendanceRepository.save(AgentAttendanceService.newClockInRecord(
+                agentId, time, event.getLatitude(), event.getLongitude(), event.getAddress()));
+        eventPublisher.publishEvent(AttendanceEvent.clockedIn(saved, agent.getAssignedMarketId()));
+        return null;
+    }
+
+    private String applyClockOut(UUID agentId, AttendanceSyncEventDto event, LocalDateTime time, boolean earlierDay) {
+        AgentAttendance attendance = attendanceRepository.findByAgentIdAndDate(agentId, time.toLocalDate())
+                .orElseThrow(() -> new BadRequestException(earlierDay ? EARLIER_DAY : "You are not clocked in today"));
+        if (time.isBefore(attendance.getClockInTime())) {
+            throw new BadRequestException("Clock-out cannot be earlier than clock-in at " + attendance.getClockInTime());
+        }
+
+        if (attendance.getStatus() == AgentAttendance.AttendanceStatus.CLOCKED_OUT) {
+            // The agent's own earlier clock-out beats the scheduler's closing-time cutoff
+            boolean correctsAutoClose = Boolean.TRUE.equals(attendance.getAutoClockedOut())
+                    && time.isBefore(attendance.getClockOutTime());
+            if (!correctsAutoClose) {
+                return "Already clocked out at " + attendance.getClockOutTime();
+            }
+            attendance.setAutoClockedOut(false);
+        }
+
+        AgentAttendanceService.closeSession(attendance, time,
+                event.getLatitude(), event.getLongitude(), event.getAddress());
+        AgentAttendance saved = attendanceRepository.save(attendance);
+        eventPublisher.publishEvent(AttendanceEvent.clockedOut(saved, attendanceService.resolveMarketId(agentId)));
+        return null;
+    }
+
+    private static String describe(AttendanceEvent.Type type, LocalDateTime time) {
+        return (type == AttendanceEvent.Type.CLOCK_IN ? "Clocked in at " : "Clocked out at ") + time;
+    }
+
+    private static AttendanceSyncEventResultDto toResult(AttendanceSyncReceipt receipt, boolean replayed) {
+        return AttendanceSyncEventResultDto.builder()
+                .idempotencyKey(receipt.getIdempotencyKey())
+                .type(receipt.getType())
+                .outcome(receipt.getOutcome())
+                .message(receipt.getMessage())
+                .replayed(replayed)
+                .build();
+    }
+}
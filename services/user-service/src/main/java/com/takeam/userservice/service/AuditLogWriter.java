@@ -0,0 +1,118 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.model.AdminAuditLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers audit entries in a lock-free ring buffer and writes them with JDBC
+ * batch inserts. If the buffer is full the entry is written immediately, so
+ * entries are never dropped for capacity reasons.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO admin_audit_logs
+                (id, admin_id, admin_email, action, target_user_id, target_user_email,
+                 reason, notes, ip_address, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RingBuffer<AdminAuditLog> buffer;
+    private final int batchSize;
+    private final Counter written;
+    private final Counter failed;
+
+    public AuditLogWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${audit.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${audit.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new RingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.written = meterRegistry.counter("audit.entries.written");
+        this.failed = meterRegistry.counter("audit.entries.failed");
+        Gauge.builder("audit.buffer.size", buffer, RingBuffer::size).register(meterRegistry);
+    }
+
+    public void enqueue(AdminAuditLog entry) {
+        if (!buffer.offer(entry)) {
+            log.warn("Audit buffer full, writing entry synchronously: {}", entry.getAction());
+            write(List.of(entry));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${audit.flush-interval-ms:200}")
+    public void flush() {
+        List<AdminAuditLog> batch = new ArrayList<>(batchSize);
+        AdminAuditLog entry;
+        while ((entry = buffer.poll()) != null) {
+            batch.add(entry);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    /**
+     * Insert entries right away on the caller's connection, so they commit or
+     * roll back together with the surrounding transaction.
+     */
+    public void writeNow(List<AdminAuditLog> entries) {
+        if (!entries.isEmpty()) {
+            insert(entries);
+        }
+    }
+
+    private void write(List<AdminAuditLog> batch) {
+        try {
+            insert(batch);
+        } catch (DataAccessException e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} audit entries: {}", batch.size(), e.getMessage());
+            batch.forEach(entry -> log.error("=== AUDIT FALLBACK === {} by {} on {} at {}",
+                    entry.getAction(), entry.getAdminEmail(), entry.getTargetUserEmail(), entry.getCreatedAt()));
+        }
+    }
+
+    private void insert(List<AdminAuditLog> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, auditLog) -> {
+            ps.setObject(1, auditLog.getId());
+            ps.setObject(2, auditLog.getAdminId());
+            ps.setString(3, auditLog.getAdminEmail());
+            ps.setString(4, auditLog.getAction());
+            ps.setObject(5, auditLog.getTargetUserId());
+            ps.setString(6, auditLog.getTargetUserEmail());
+            ps.setString(7, auditLog.getReason());
+            ps.setString(8, auditLog.getNotes());
+            ps.setString(9, auditLog.getIpAddress());
+            ps.setTimestamp(10, Timestamp.valueOf(auditLog.getCreatedAt()));
+        });
+        written.increment(batch.size());
+    }
+}
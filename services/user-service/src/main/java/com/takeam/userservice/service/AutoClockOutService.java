@@ -0,0 +1,181 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.response.AutoClockOutReportDto;
+import com.takeam.userservice.dto.response.AutoClosedSessionDto;
+import com.takeam.userservice.event.AttendanceEvent;
+import com.takeam.userservice.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Clocks out agents who are still clocked in after their market's closing
+ * time. One UPDATE finds every stale session, works out the closing instant
+ * in the market's own time zone and the hours worked, and marks the rows as
+ * auto-closed; only the replica holding the Redis lock runs it. A session
+ * whose agent is mid clock-out holds the per-agent attendance lock and is
+ * skipped until the next run, so the two never overwrite each other. Closed
+ * sessions go out as ordinary clock-out events, so presence and rollups
+ * follow.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutoClockOutService {
+
+    private static final String LOCK_NAME = "attendance:auto-clock-out";
+
+    // Attendance times are server-local; the cutoff is converted from market time to server time
+    private static final String CLOSE_SQL = """
+            WITH stale AS (
+                SELECT aa.id, a.assigned_market_id AS market_id,
+                       ((aa.date + COALESCE(g.closes_at, CAST(? AS time)))
+                            AT TIME ZONE COALESCE(g.time_zone, ?)) AT TIME ZONE ? AS cutoff
+                FROM agent_attendance aa
+                LEFT JOIN agents a ON a.user_id = aa.agent_id
+                LEFT JOIN market_geofences g ON g.market_id = a.assigned_market_id AND g.active
+                WHERE aa.status = 'CLOCKED_IN'
+            )
+            UPDATE agent_attendance aa
+            SET status = 'CLOCKED_OUT',
+                clock_out_time = GREATEST(s.cutoff, aa.clock_in_time),
+                total_hours_worked = ROUND((FLOOR(GREATEST(
+                        EXTRACT(EPOCH FROM (s.cutoff - aa.clock_in_time)), 0) / 60) / 60.0)::numeric, 2),
+                auto_clocked_out = true,
+                updated_at = ?
+            FROM stale s
+            WHERE aa.id = s.id AND s.cutoff <= ? AND aa.status = 'CLOCKED_IN'
+              AND pg_try_advisory_xact_lock(hashtext('attendance:' || aa.agent_id::text))
+            RETURNING aa.id, aa.agent_id, s.market_id, aa.date, aa.clock_in_time,
+                      aa.clock_out_time, aa.total_hours_worked
+            """;
+
+    private static final String REPORT_SQL = """
+            SELECT aa.id, aa.agent_id, a.assigned_market_id AS market_id, aa.date, aa.clock_in_time,
+                   aa.clock_out_time, aa.total_hours_worked
+            FROM agent_attendance aa
+            LEFT JOIN agents a ON a.user_id = aa.agent_id
+            WHERE aa.date BETWEEN ? AND ? AND aa.auto_clocked_out = true
+            ORDER BY aa.date DESC, market_id, aa.clock_out_time
+            """;
+
+    private static final RowMapper<AutoClosedSessionDto> SESSION_MAPPER = (rs, rowNum) ->
+            AutoClosedSessionDto.builder()
+                    .attendanceId(rs.getObject("id", UUID.class))
+                    .agentId(rs.getObject("agent_id", UUID.class))
+                    .marketId(rs.getString("market_id"))
+                    .date(rs.getObject("date", LocalDate.class))
+                    .clockInTime(rs.getObject("clock_in_time", LocalDateTime.class))
+                    .clockOutTime(rs.getObject("clock_out_time", LocalDateTime.class))
+                    .totalHoursWorked(rs.getDouble("total_hours_worked"))
+                    .build();
+
+    private static final int MAX_REPORT_DAYS = 31;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GeofenceService geofenceService;
+    private final RedisLeaderLock leaderLock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${attendance.auto-clock-out.lock-ttl-ms:240000}")
+    private long lockTtlMs;
+
+    private Counter closedCounter;
+
+    @PostConstruct
+    void init() {
+        closedCounter = meterRegistry.counter("attendance.auto_clock_out.closed");
+    }
+
+    @Scheduled(fixedDelayString = "${attendance.auto-clock-out.interval-ms:300000}",
+            initialDelayString = "${attendance.auto-clock-out.interval-ms:300000}")
+    public void scheduledRun() {
+        runIfLeader();
+    }
+
+    /**
+     * Close stale sessions if this replica wins the lock. Returns the closed
+     * sessions, or null when another replica is already running.
+     */
+    public AutoClockOutReportDto runIfLeader() {
+        String token = leaderLock.tryAcquire(LOCK_NAME, Duration.ofMillis(lockTtlMs));
+        if (token == null) {
+            log.debug("Auto clock-out skipped; another instance holds the lock");
+            return null;
+        }
+        try {
+            return closeStaleSessions();
+        } finally {
+            leaderLock.release(LOCK_NAME, token);
+        }
+    }
+
+    public AutoClockOutReportDto getReport(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (from.plusDays(MAX_REPORT_DAYS).isBefore(to)) {
+            throw new BadRequestException("Report range cannot exceed " + MAX_REPORT_DAYS + " days");
+        }
+        List<AutoClosedSessionDto> sessions = jdbcTemplate.query(REPORT_SQL, SESSION_MAPPER, from, to);
+        return toReport(from, to, sessions);
+    }
+
+    // ============ HELPER METHODS ============
+
+    private AutoClockOutReportDto closeStaleSessions() {
+        long started = System.nanoTime();
+        GeofenceService.MarketHours defaults = geofenceService.getDefaultHours();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<AutoClosedSessionDto> closed = jdbcTemplate.query(CLOSE_SQL, SESSION_MAPPER,
+                defaults.closesAt(), defaults.zone().getId(), ZoneId.systemDefault().getId(), now, now);
+
+        closed.forEach(session -> eventPublisher.publishEvent(new AttendanceEvent(
+                AttendanceEvent.Type.CLOCK_OUT, session.getAgentId(), session.getMarketId(),
+                session.getDate(), session.getClockOutTime(), null, null)));
+        closedCounter.increment(closed.size());
+
+        LocalDate today = now.toLocalDate();
+        LocalDate earliest = closed.stream().map(AutoClosedSessionDto::getDate).min(LocalDate::compareTo).orElse(today);
+        AutoClockOutReportDto report = toReport(earliest, today, closed);
+        if (!closed.isEmpty()) {
+            log.info("Auto clocked out {} sessions in {} ms: {}", closed.size(),
+                    (System.nanoTime() - started) / 1_000_000, report.getClosedByMarket());
+        }
+        return report;
+    }
+
+    private AutoClockOutReportDto toReport(LocalDate from, LocalDate to, List<AutoClosedSessionDto> sessions) {
+        Map<String, Long> byMarket = sessions.stream()
+                .collect(Collectors.groupingBy(
+                        session -> session.getMarketId() != null ? session.getMarketId() : "unassigned",
+                        TreeMap::new, Collectors.counting()));
+        return AutoClockOutReportDto.builder()
+                .from(from)
+                .to(to)
+                .totalClosed(sessions.size())
+                .closedByMarket(byMarket)
+                .sessions(sessions)
+                .build();
+    }
+}
@@ -0,0 +1,152 @@
+package com.takeam.userservice.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces non-urgent SMS with identical text into bulk provider requests.
+ * A batch is flushed after {@code linger-ms} or once it reaches
+ * {@code max-recipients}. Every caller's future completes with its own
+ * recipient's outcome: when a bulk request fails, its numbers are retried one
+ * by one so a single bad number does not fail the rest.
+ */
+@Component
+@Slf4j
+public class BatchingSmsSender {
+
+    private final SmsGateway smsGateway;
+    private final DistributionSummary batchSizes;
+    private final int maxRecipients;
+    private final long lingerMs;
+
+    private final Map<String, PendingBatch> pending = new HashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "sms-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BatchingSmsSender(
+            SmsGateway smsGateway,
+            MeterRegistry meterRegistry,
+            @Value("${sms.batch.max-recipients:100}") int maxRecipients,
+            @Value("${sms.batch.linger-ms:20}") long lingerMs) {
+        this.smsGateway = smsGateway;
+        this.batchSizes = meterRegistry.summary("sms.batch.size");
+        this.maxRecipients = maxRecipients;
+        this.lingerMs = lingerMs;
+    }
+
+    public CompletableFuture<Void> send(String phoneNumber, String message) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        PendingBatch full = null;
+
+        synchronized (pending) {
+            PendingBatch batch = pending.get(message);
+            if (batch == null) {
+                PendingBatch created = new PendingBatch(message);
+                created.flushTask = scheduler.schedule(() -> flush(created), lingerMs, TimeUnit.MILLISECONDS);
+                pending.put(message, created);
+                batch = created;
+            }
+            batch.add(phoneNumber, future);
+
+            if (batch.size() >= maxRecipients) {
+                pending.remove(message);
+                batch.flushTask.cancel(false);
+                full = batch;
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        List<PendingBatch> remaining;
+        synchronized (pending) {
+            remaining = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        remaining.forEach(this::dispatch);
+        scheduler.shutdown();
+    }
+
+    private void flush(PendingBatch batch) {
+        synchronized (pending) {
+            if (!pending.remove(batch.message, batch)) {
+                return;
+            }
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(PendingBatch batch) {
+        List<String> phoneNumbers = new ArrayList<>(batch.recipients.keySet());
+        batchSizes.record(phoneNumbers.size());
+
+        CompletableFuture<Void> result = phoneNumbers.size() == 1
+                ? smsGateway.send(phoneNumbers.get(0), batch.message)
+                : smsGateway.sendBulk(phoneNumbers, batch.message);
+
+        result.whenComplete((ignored, error) -> {
+            if (error == null || phoneNumbers.size() == 1) {
+                batch.recipients.values().forEach(futures -> complete(futures, error));
+            } else {
+                log.warn("Bulk SMS to {} recipients failed, sending individually: {}",
+                        phoneNumbers.size(), error.getMessage());
+                batch.recipients.forEach((phoneNumber, futures) -> smsGateway.send(phoneNumber, batch.message)
+                        .whenComplete((sent, individualError) -> complete(futures, individualError)));
+            }
+        });
+        log.debug("Dispatched SMS batch of {} recipients", phoneNumbers.size());
+    }
+
+    private static void complete(List<CompletableFuture<Void>> futures, Throwable error) {
+        futures.forEach(future -> {
+            if (error == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(error);
+            }
+        });
+    }
+
+    private static class PendingBatch {
+
+        private final String message;
+        // Same number queued twice for the same text is only sent once
+        private final Map<String, List<CompletableFuture<Void>>> recipients = new LinkedHashMap<>();
+        private ScheduledFuture<?> flushTask;
+
+        PendingBatch(String message) {
+            this.message = message;
+        }
+
+        void add(String phoneNumber, CompletableFuture<Void> future) {
+            recipients.computeIfAbsent(phoneNumber, key -> new ArrayList<>(1)).add(future);
+        }
+
+        int size() {
+            return recipients.size();
+        }
+    }
+}
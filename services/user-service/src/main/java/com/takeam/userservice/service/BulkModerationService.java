@@ -0,0 +1,335 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.request.BulkModerationRequestDto;
+import com.takeam.userservice.dto.response.BulkModerationProgressDto;
+import com.takeam.userservice.event.AgentApprovalEvent;
+import com.takeam.userservice.event.BulkModerationEvent;
+import com.takeam.userservice.event.UserLifecycleEvent;
+import com.takeam.userservice.exception.BadRequestException;
+import com.takeam.userservice.exception.ResourceNotFoundException;
+import com.takeam.userservice.exception.UnauthorizedException;
+import com.takeam.userservice.model.AdminAuditLog;
+import com.takeam.userservice.model.ApprovalStatus;
+import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.model.UserStatus;
+import com.takeam.userservice.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Applies one moderation action to many users or agents. Targets are resolved
+ * upfront (explicit ids or a filter), then each chunk is changed with a single
+ * UPDATE ... RETURNING, audited with one batched insert and published as one
+ * event, all in its own transaction. Notifications for a chunk are queued as
+ * one lane task after it commits, and progress is reported per chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkModerationService {
+
+    private static final String USER_COLUMNS =
+            "u.id, u.role, u.email, u.phone_number, u.full_name, u.created_at";
+
+    private final UserRepository userRepository;
+    private final AdminAuditService auditService;
+    private final NotificationService notificationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${bulk.moderation.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${bulk.moderation.max-targets:10000}")
+    private int maxTargets;
+
+    public enum Action {
+        SUSPEND("SUSPEND_USER", UserStatus.SUSPENDED),
+        BAN("BAN_USER", UserStatus.BANNED),
+        REACTIVATE("REACTIVATE_USER", UserStatus.ACTIVE),
+        APPROVE("APPROVE_AGENT", UserStatus.ACTIVE),
+        REJECT("REJECT_AGENT", null);
+
+        private final String auditAction;
+        private final UserStatus userStatus;
+
+        Action(String auditAction, UserStatus userStatus) {
+            this.auditAction = auditAction;
+            this.userStatus = userStatus;
+        }
+
+        boolean isAgentAction() {
+            return this == APPROVE || this == REJECT;
+        }
+    }
+
+    /**
+     * Everything needed to run a bulk action, resolved before the response
+     * starts streaming so that bad requests still fail with a status code.
+     */
+    public record Plan(User admin, Action action, List<UUID> targetIds, String reason, String notes) {
+    }
+
+    public Plan prepare(UUID adminId, Action action, BulkModerationRequestDto dto) {
+        User admin = userRepository.findById(adminId)
+                .orElseThrow(() -> new ResourceNotFoundException("Admin not found"));
+        if (admin.getRole() != Role.ADMIN && admin.getRole() != Role.SUPER_ADMIN) {
+            throw new UnauthorizedException("User is not an admin");
+        }
+
+        List<UUID> targetIds;
+        if (dto.hasIds()) {
+            targetIds = List.copyOf(new LinkedHashSet<>(dto.getIds()));
+        } else if (dto.hasFilter()) {
+            targetIds = findTargetIds(action, dto);
+        } else {
+            throw new BadRequestException("Either ids or a filter is required");
+        }
+        if (targetIds.size() > maxTargets) {
+            throw new BadRequestException("Bulk action matches more than " + maxTargets + " records; narrow the filter");
+        }
+
+        log.info("Admin {} prepared bulk {} of {} targets", adminId, action, targetIds.size());
+        return new Plan(admin, action, targetIds, dto.getReason(), dto.getNotes());
+    }
+
+    public void execute(Plan plan, Consumer<BulkModerationProgressDto> progress) {
+        List<UUID> targetIds = plan.targetIds();
+        int updated = 0;
+        for (int start = 0; start < targetIds.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, targetIds.size());
+            updated += applyChunk(plan, targetIds.subList(start, end));
+            progress.accept(progress(plan, end, updated, end == targetIds.size()));
+        }
+        if (targetIds.isEmpty()) {
+            progress.accept(progress(plan, 0, 0, true));
+        }
+        log.info("Admin {} bulk {} finished: {} of {} updated",
+                plan.admin().getId(), plan.action(), updated, targetIds.size());
+    }
+
+    // ============ HELPER METHODS ============
+
+    private int applyChunk(Plan plan, List<UUID> ids) {
+        List<ChangedRow> changed = transactionTemplate.execute(status -> {
+            List<ChangedRow> rows = update(plan, ids);
+            if (rows.isEmpty()) {
+                return rows;
+            }
+            auditService.logActions(rows.stream().map(row -> auditEntry(plan, row)).toList());
+            eventPublisher.publishEvent(toEvent(plan.action(), rows));
+            return rows;
+        });
+
+        List<NotificationService.Recipient> recipients = changed.stream()
+                .map(row -> new NotificationService.Recipient(row.email(), row.phoneNumber(), row.fullName()))
+                .toList();
+        if (plan.action() == Action.APPROVE) {
+            notificationService.sendAccountsApproved(recipients);
+        } else if (plan.action() == Action.REJECT) {
+            notificationService.sendApplicationsRejected(recipients, plan.reason());
+        }
+        return changed.size();
+    }
+
+    private List<ChangedRow> update(Plan plan, List<UUID> ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return switch (plan.action()) {
+            case SUSPEND, BAN, REACTIVATE -> updateUsers(plan, ids, now);
+            case APPROVE -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("""
+                        WITH targets AS (
+                            SELECT a.id, a.user_id, a.approval_status, u.status
+                            FROM agents a JOIN users u ON u.id = a.user_id
+                            WHERE a.id = ANY(?) AND a.approval_status <> 'APPROVED'
+                            FOR UPDATE OF a, u
+                        ), approved AS (
+                            UPDATE agents a SET approval_status = 'APPROVED', approved_by = ?, approved_at = ?
+                            FROM targets t WHERE a.id = t.id
+                            RETURNING a.id, a.user_id
+                        ), activated AS (
+                            UPDATE users u SET status = 'ACTIVE', updated_at = ?
+                            FROM targets t WHERE u.id = t.user_id
+                            RETURNING u.*
+                        )
+                        SELECT ap.id AS agent_id, t.approval_status AS previous_approval,
+                               t.status AS previous_status, %s
+                        FROM approved ap
+                        JOIN targets t ON t.id = ap.id
+                        JOIN activated u ON u.id = ap.user_id
+                        """.formatted(USER_COLUMNS));
+                ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+                ps.setObject(2, plan.admin().getId());
+                ps.setTimestamp(3, now);
+                ps.setTimestamp(4, now);
+                return ps;
+            }, this::mapRow);
+            case REJECT -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("""
+                        WITH targets AS (
+                            SELECT id, approval_status FROM agents
+                            WHERE id = ANY(?) AND approval_status <> 'REJECTED'
+                            FOR UPDATE
+                        ), rejected AS (
+                            UPDATE agents a SET approval_status = 'REJECTED', rejection_reason = ?
+                            FROM targets t WHERE a.id = t.id
+                            RETURNING a.id, a.user_id
+                        )
+                        SELECT r.id AS agent_id, t.approval_status AS previous_approval,
+                               u.status AS previous_status, %s
+                        FROM rejected r
+                        JOIN targets t ON t.id = r.id
+                        JOIN users u ON u.id = r.user_id
+                        """.formatted(USER_COLUMNS));
+                ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+                ps.setString(2, plan.reason());
+                return ps;
+            }, this::mapRow);
+        };
+    }
+
+    /**
+     * Rows already in the target status, the acting admin and (unless the actor
+     * is a super admin) other admins are left untouched and counted as skipped.
+     */
+    private List<ChangedRow> updateUsers(Plan plan, List<UUID> ids, Timestamp now) {
+        boolean protectAdmins = plan.admin().getRole() != Role.SUPER_ADMIN;
+        String reset = plan.action() == Action.REACTIVATE ? ", login_attempts = 0, locked_until = NULL" : "";
+        String sql = """
+                WITH targets AS (
+                    SELECT id, status FROM users
+                    WHERE id = ANY(?) AND id <> ? AND status <> ?%s
+                    FOR UPDATE
+                )
+                UPDATE users u SET status = ?, updated_at = ?%s
+                FROM targets t WHERE u.id = t.id
+                RETURNING NULL AS agent_id, NULL AS previous_approval, t.status AS previous_status, %s
+                """.formatted(
+                protectAdmins ? " AND role NOT IN ('ADMIN', 'SUPER_ADMIN')" : "",
+                reset,
+                USER_COLUMNS);
+
+        String targetStatus = plan.action().userStatus.name();
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            ps.setObject(2, plan.admin().getId());
+            ps.setString(3, targetStatus);
+            ps.setString(4, targetStatus);
+            ps.setTimestamp(5, now);
+            return ps;
+        }, this::mapRow);
+    }
+
+    private List<UUID> findTargetIds(Action action, BulkModerationRequestDto filter) {
+        boolean joinAgents = action.isAgentAction() || filter.getMarketId() != null || filter.getApprovalStatus() != null;
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(action.isAgentAction() ? "a.id" : "u.id")
+                .append(" FROM users u")
+                .append(joinAgents ? " JOIN agents a ON a.user_id = u.id" : "")
+                .append(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+
+        if (filter.getRole() != null) {
+            sql.append(" AND u.role = ?");
+            params.add(filter.getRole().name());
+        }
+        if (filter.getStatus() != null) {
+            sql.append(" AND u.status = ?");
+            params.add(filter.getStatus().name());
+        }
+        if (filter.getMarketId() != null) {
+            sql.append(" AND a.assigned_market_id = ?");
+            params.add(filter.getMarketId());
+        }
+        if (filter.getApprovalStatus() != null) {
+            sql.append(" AND a.approval_status = ?");
+            params.add(filter.getApprovalStatus().name());
+        }
+        // One past the limit is enough to tell the filter is too broad
+        sql.append(" ORDER BY 1 LIMIT ?");
+        params.add(maxTargets + 1);
+
+        return jdbcTemplate.queryForList(sql.toString(), UUID.class, params.toArray());
+    }
+
+    private BulkModerationEvent toEvent(Action action, List<ChangedRow> rows) {
+        List<UserLifecycleEvent> userChanges = new ArrayList<>();
+        List<AgentApprovalEvent> agentChanges = new ArrayList<>();
+        List<UUID> agentIds = new ArrayList<>();
+        for (ChangedRow row : rows) {
+            if (action.userStatus != null && row.previousStatus() != action.userStatus) {
+                userChanges.add(new UserLifecycleEvent(
+                        row.userId(), row.role(), row.previousStatus(), action.userStatus, row.createdAt()));
+            }
+            if (row.agentId() != null) {
+                ApprovalStatus newApproval = action == Action.APPROVE ? ApprovalStatus.APPROVED : ApprovalStatus.REJECTED;
+                agentChanges.add(new AgentApprovalEvent(row.previousApproval(), newApproval));
+                agentIds.add(row.agentId());
+            }
+        }
+        return new BulkModerationEvent(userChanges, agentChanges, agentIds);
+    }
+
+    private AdminAuditLog auditEntry(Plan plan, ChangedRow row) {
+        AdminAuditLog auditLog = new AdminAuditLog();
+        auditLog.setAdminId(plan.admin().getId());
+        auditLog.setAdminEmail(plan.admin().getEmail());
+        auditLog.setAction(plan.action().auditAction);
+        auditLog.setTargetUserId(row.userId());
+        auditLog.setTargetUserEmail(row.email() != null ? row.email() : row.phoneNumber());
+        auditLog.setReason(plan.reason());
+        auditLog.setNotes(plan.notes());
+        return auditLog;
+    }
+
+    private BulkModerationProgressDto progress(Plan plan, int processed, int updated, boolean done) {
+        return BulkModerationProgressDto.builder()
+                .action(plan.action().name())
+                .total(plan.targetIds().size())
+                .processed(processed)
+                .updated(updated)
+                .skipped(processed - updated)
+                .done(done)
+                .build();
+    }
+
+    private ChangedRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        String previousApproval = rs.getString("previous_approval");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new ChangedRow(
+                rs.getObject("agent_id", UUID.class),
+                previousApproval != null ? ApprovalStatus.valueOf(previousApproval) : null,
+                rs.getObject("id", UUID.class),
+                Role.valueOf(rs.getString("role")),
+                UserStatus.valueOf(rs.getString("previous_status")),
+                rs.getString("email"),
+                rs.getString("phone_number"),
+                rs.getString("full_name"),
+                createdAt != null ? createdAt.toLocalDateTime() : null
+        );
+    }
+
+    private record ChangedRow(UUID agentId, ApprovalStatus previousApproval, UUID userId, Role role,
+                              UserStatus previousStatus, String email, String phoneNumber, String fullName,
+                              LocalDateTime createdAt) {
+    }
+}
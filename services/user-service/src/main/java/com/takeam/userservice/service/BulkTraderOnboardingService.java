@@ -0,0 +1,185 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.request.TraderRegistrationRequestDto;
+import com.takeam.userservice.dto.response.BulkTraderRowResultDto;
+import com.takeam.userservice.event.UserLifecycleEvent;
+import com.takeam.userservice.exception.BadRequestException;
+import com.takeam.userservice.mapper.TraderMapper;
+import com.takeam.userservice.model.Trader;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.repository.TraderRepository;
+import com.takeam.userservice.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Registers many traders on behalf of an agent. Rows are processed in chunks:
+ * each chunk costs one IN query for existing phone numbers, batched inserts
+ * (with registeredByAgentId set upfront), one pipelined Redis write for the
+ * OTPs and one queued SMS batch. Results are handed to the caller per chunk
+ * so they can be streamed back while later chunks are still running.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkTraderOnboardingService {
+
+    private final AgentService agentService;
+    private final UserRepository userRepository;
+    private final TraderRepository traderRepository;
+    private final TraderMapper traderMapper;
+    private final OTPService otpService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${bulk.traders.max-rows:1000}")
+    private int maxRows;
+
+    @Value("${bulk.traders.chunk-size:100}")
+    private int chunkSize;
+
+    public List<TraderRegistrationRequestDto> parseCsv(Reader csv) throws IOException {
+        return TraderCsvParser.parse(csv, maxRows);
+    }
+
+    /**
+     * Fails fast if the agent may not register traders or the upload is too large;
+     * call before the response starts streaming.
+     */
+    public void validateRequest(UUID agentId, List<TraderRegistrationRequestDto> rows) {
+        agentService.validateAgentCanRegisterTraders(agentId);
+        if (rows.size() > maxRows) {
+            throw new BadRequestException("Bulk upload exceeds the limit of " + maxRows + " rows");
+        }
+    }
+
+    public void registerAll(UUID agentId, List<TraderRegistrationRequestDto> rows,
+                            Consumer<List<BulkTraderRowResultDto>> sink) {
+        log.info("Agent {} bulk registering {} traders", agentId, rows.size());
+        // Phones seen in earlier chunks of this upload, so repeats are reported, not retried
+        Set<String> seenPhones = new HashSet<>();
+
+        for (int start = 0; start < rows.size(); start += chunkSize) {
+            int end = Math.min(start + chunkSize, rows.size());
+            sink.accept(registerChunk(agentId, rows.subList(start, end), start + 1, seenPhones));
+        }
+    }
+
+    private List<BulkTraderRowResultDto> registerChunk(UUID agentId, List<TraderRegistrationRequestDto> rows,
+                                                       int firstRowNumber, Set<String> seenPhones) {
+        BulkTraderRowResultDto[] results = new BulkTraderRowResultDto[rows.size()];
+        Map<Integer, TraderRegistrationRequestDto> candidates = new LinkedHashMap<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            TraderRegistrationRequestDto row = rows.get(i);
+            int rowNumber = firstRowNumber + i;
+            Set<ConstraintViolation<TraderRegistrationRequestDto>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                results[i] = result(rowNumber, row, BulkTraderRowResultDto.INVALID, null, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            } else if (!seenPhones.add(row.getPhoneNumber())) {
+                results[i] = result(rowNumber, row, BulkTraderRowResultDto.DUPLICATE, null,
+                        "Phone number appears more than once in this upload");
+            } else {
+                candidates.put(i, row);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Map<String, String> otps = insertChunk(agentId, candidates, firstRowNumber, results);
+            otpService.storeOTPs(otps);
+            otpService.sendOTPsToPhones(otps);
+        }
+
+        return List.of(results);
+    }
+
+    /**
+     * Insert all new traders of a chunk in one transaction and return the OTPs
+     * to deliver once it has committed.
+     */
+    private Map<String, String> insertChunk(UUID agentId, Map<Integer, TraderRegistrationRequestDto> candidates,
+                                            int firstRowNumber, BulkTraderRowResultDto[] results) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Set<String> existing = new HashSet<>(userRepository.findExistingPhoneNumbers(
+                        candidates.values().stream().map(TraderRegistrationRequestDto::getPhoneNumber).toList()));
+
+                List<Integer> indexes = new ArrayList<>();
+                List<User> users = new ArrayList<>();
+                List<Trader> traders = new ArrayList<>();
+                candidates.forEach((index, row) -> {
+                    if (existing.contains(row.getPhoneNumber())) {
+                        results[index] = result(firstRowNumber + index, row, BulkTraderRowResultDto.DUPLICATE, null,
+                                "Phone number already registered");
+                        return;
+                    }
+                    User user = traderMapper.toUser(row);
+                    Trader trader = traderMapper.toTrader(row);
+                    trader.setUser(user);
+                    trader.setRegisteredByAgentId(agentId);
+                    indexes.add(index);
+                    users.add(user);
+                    traders.add(trader);
+                });
+
+                userRepository.saveAll(users);
+                traderRepository.saveAll(traders);
+
+                Map<String, String> otps = new LinkedHashMap<>();
+                for (int i = 0; i < users.size(); i++) {
+                    User user = users.get(i);
+                    int index = indexes.get(i);
+                    eventPublisher.publishEvent(UserLifecycleEvent.registered(user));
+                    otps.put(user.getPhoneNumber(), otpService.generateOTP());
+                    results[index] = result(firstRowNumber + index, candidates.get(index),
+                            BulkTraderRowResultDto.CREATED, user.getId(), null);
+                }
+                return otps;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration took one of the numbers; the whole chunk rolled back
+            log.warn("Bulk trader chunk starting at row {} rolled back: {}", firstRowNumber, e.getMessage());
+            candidates.forEach((index, row) -> {
+                if (results[index] == null || BulkTraderRowResultDto.CREATED.equals(results[index].getStatus())) {
+                    results[index] = result(firstRowNumber + index, row, BulkTraderRowResultDto.FAILED, null,
+                            "Chunk rolled back due to a conflicting registration; retry");
+                }
+            });
+            return Map.of();
+        }
+    }
+
+    private BulkTraderRowResultDto result(int rowNumber, TraderRegistrationRequestDto row, String status,
+                                          UUID userId, String message) {
+        return BulkTraderRowResultDto.builder()
+                .row(rowNumber)
+                .phoneNumber(row.getPhoneNumber())
+                .status(status)
+                .userId(userId)
+                .message(message)
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ import com.takeam.userservice.dto.request.OTPVerificationDto;
 import com.takeam.userservice.dto.response.AuthResponseDto;
 import com.takeam.userservice.dto.response.TokenResponseDto;
 import com.takeam.userservice.dto.response.UserResponseDto;
+import com.takeam.userservice.event.UserLifecycleEvent;
 import com.takeam.userservice.exception.BadRequestException;
 import com.takeam.userservice.exception.ResourceNotFoundException;
 import com.takeam.userservice.mapper.BuyerMapper;
@@ -17,6 +18,7 @@ import com.takeam.userservice.repository.BuyerRepository;
 import com.takeam.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +36,7 @@ public class   BuyerService {
     private final OTPService otpService;
     private final EmailService emailService;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public AuthResponseDto registerBuyer(BuyerRegistrationDto dto) {
@@ -47,6 +50,7 @@ public class   BuyerService {
         user.setStatus(UserStatus.PENDING);
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.registered(savedUser));
 
         Buyer buyer = buyerMapper.toBuyer(dto);
         buyer.setUser(savedUser);
@@ -76,9 +80,11 @@ public class   BuyerService {
         User user = userRepository.findByEmail(dto.getEmail())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        UserStatus previousStatus = user.getStatus();
         user.setStatus(UserStatus.ACTIVE);
         user.setVerified(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.statusChanged(user, previousStatus));
 
         Buyer buyer = buyerRepository.findByUserId(user.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Buyer profile not found"));
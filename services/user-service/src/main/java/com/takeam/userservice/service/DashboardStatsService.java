@@ -0,0 +1,219 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.response.DailyCountDto;
+import com.takeam.userservice.dto.response.DashboardStatsDto;
+import com.takeam.userservice.event.AgentApprovalEvent;
+import com.takeam.userservice.event.BulkModerationEvent;
+import com.takeam.userservice.event.UserLifecycleEvent;
+import com.takeam.userservice.model.ApprovalStatus;
+import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.UserStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves dashboard statistics from memory. Counters are rebuilt from one
+ * grouped aggregate query at startup and on a schedule, and kept current in
+ * between by user and agent lifecycle events once their transaction commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardStatsService {
+
+    private static final String AGGREGATE_SQL = """
+            SELECT 'user' AS kind, role AS k1, status AS k2, COUNT(*) AS total
+            FROM users GROUP BY role, status
+            UNION ALL
+            SELECT 'agent', approval_status, NULL, COUNT(*)
+            FROM agents GROUP BY approval_status
+            UNION ALL
+            SELECT 'day', CAST(CAST(created_at AS date) AS varchar), NULL, COUNT(*)
+            FROM users WHERE created_at >= ? GROUP BY CAST(created_at AS date)
+            """;
+
+    private static final int ROLES = Role.values().length;
+    private static final int STATUSES = UserStatus.values().length;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${dashboard.stats.retention-days:90}")
+    private int retentionDays;
+
+    private volatile Counters counters = new Counters();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Replace the in-memory counters with a fresh snapshot, correcting any drift
+     * from missed events and dropping day buckets past the retention window.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.stats.reconcile-interval-ms:300000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        Counters fresh = new Counters();
+        LocalDate since = LocalDate.now().minusDays(retentionDays);
+
+        jdbcTemplate.query(AGGREGATE_SQL, rs -> {
+            String kind = rs.getString("kind");
+            long total = rs.getLong("total");
+            switch (kind) {
+                case "user" -> fresh.users.addAndGet(
+                        index(Role.valueOf(rs.getString("k1")), UserStatus.valueOf(rs.getString("k2"))), total);
+                case "agent" -> fresh.agents.addAndGet(
+                        ApprovalStatus.valueOf(rs.getString("k1")).ordinal(), total);
+                case "day" -> fresh.day(LocalDate.parse(rs.getString("k1"))).add(total);
+                default -> log.warn("Unexpected aggregate row kind: {}", kind);
+            }
+        }, since.atStartOfDay());
+
+        Counters previous = counters;
+        counters = fresh;
+        log.info("Dashboard stats rebuilt in {} ms (drift in total users: {})",
+                (System.nanoTime() - started) / 1_000_000, fresh.totalUsers() - previous.totalUsers());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserLifecycle(UserLifecycleEvent event) {
+        Counters current = counters;
+        if (event.previousStatus() != null) {
+            current.users.decrementAndGet(index(event.role(), event.previousStatus()));
+        }
+        current.users.incrementAndGet(index(event.role(), event.newStatus()));
+
+        if (event.isRegistration()) {
+            LocalDate day = event.createdAt() != null ? event.createdAt().toLocalDate() : LocalDate.now();
+            current.day(day).increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkModeration(BulkModerationEvent event) {
+        event.userChanges().forEach(this::onUserLifecycle);
+        event.agentChanges().forEach(this::onAgentApproval);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentApproval(AgentApprovalEvent event) {
+        Counters current = counters;
+        if (event.previousStatus() != null) {
+            current.agents.decrementAndGet(event.previousStatus().ordinal());
+        }
+        current.agents.incrementAndGet(event.newStatus().ordinal());
+    }
+
+    public DashboardStatsDto getStats() {
+        Counters current = counters;
+        LocalDate today = LocalDate.now();
+
+        return DashboardStatsDto.builder()
+                // User counts
+                .totalUsers(current.totalUsers())
+                .totalTraders(current.byRole(Role.TRADER))
+                .totalAgents(current.byRole(Role.AGENT))
+                .totalBuyers(current.byRole(Role.BUYER))
+                .totalAdmins(current.byRole(Role.ADMIN) + current.byRole(Role.SUPER_ADMIN))
+
+                // Agent stats
+                .pendingAgents(current.agents.get(ApprovalStatus.PENDING.ordinal()))
+                .approvedAgents(current.agents.get(ApprovalStatus.APPROVED.ordinal()))
+                .rejectedAgents(current.agents.get(ApprovalStatus.REJECTED.ordinal()))
+
+                // User status
+                .activeUsers(current.byStatus(UserStatus.ACTIVE))
+                .suspendedUsers(current.byStatus(UserStatus.SUSPENDED))
+                .bannedUsers(current.byStatus(UserStatus.BANNED))
+
+                // Time-based
+                .todayRegistrations(current.registrationsSince(today))
+                .thisWeekRegistrations(current.registrationsSince(today.minusDays(7)))
+                .thisMonthRegistrations(current.registrationsSince(today.minusDays(30)))
+                .build();
+    }
+
+    /**
+     * Registrations per day for the last {@code days} days, oldest first,
+     * including days with no registrations.
+     */
+    public List<DailyCountDto> getDailyRegistrations(int days) {
+        Counters current = counters;
+        int window = Math.min(Math.max(days, 1), retentionDays);
+        LocalDate today = LocalDate.now();
+
+        List<DailyCountDto> series = new ArrayList<>(window);
+        for (int i = window - 1; i >= 0; i--) {
+            LocalDate date = today.minusDays(i);
+            LongAdder bucket = current.registrationsByDay.get(date);
+            series.add(new DailyCountDto(date, bucket != null ? bucket.sum() : 0L));
+        }
+        return series;
+    }
+
+    private static int index(Role role, UserStatus status) {
+        return role.ordinal() * STATUSES + status.ordinal();
+    }
+
+    private static final class Counters {
+
+        private final AtomicLongArray users = new AtomicLongArray(ROLES * STATUSES);
+        private final AtomicLongArray agents = new AtomicLongArray(ApprovalStatus.values().length);
+        private final ConcurrentMap<LocalDate, LongAdder> registrationsByDay = new ConcurrentHashMap<>();
+
+        LongAdder day(LocalDate date) {
+            return registrationsByDay.computeIfAbsent(date, key -> new LongAdder());
+        }
+
+        long totalUsers() {
+            long total = 0;
+            for (int i = 0; i < users.length(); i++) {
+                total += users.get(i);
+            }
+            return total;
+        }
+
+        long byRole(Role role) {
+            long total = 0;
+            for (UserStatus status : UserStatus.values()) {
+                total += users.get(index(role, status));
+            }
+            return total;
+        }
+
+        long byStatus(UserStatus status) {
+            long total = 0;
+            for (Role role : Role.values()) {
+                total += users.get(index(role, status));
+            }
+            return total;
+        }
+
+        long registrationsSince(LocalDate from) {
+            long total = 0;
+            for (var entry : registrationsByDay.entrySet()) {
+                if (!entry.getKey().isBefore(from)) {
+                    total += entry.getValue().sum();
+                }
+            }
+            return total;
+        }
+    }
+}
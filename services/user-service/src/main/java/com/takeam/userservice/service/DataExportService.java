@@ -0,0 +1,224 @@
+package com.takeam.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.takeam.userservice.exception.BadRequestException;
+import com.takeam.userservice.exception.TooManyRequestsException;
+import com.takeam.userservice.model.Role;
+import com.takeam.userservice.model.UserStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams admin exports straight from a forward-only JDBC cursor into the
+ * response. PostgreSQL only honours the fetch size inside a transaction, so
+ * each export runs in a read-only one and holds at most one fetch of rows in
+ * memory regardless of table size. Each export also holds a pooled connection
+ * for its whole run, so only {@code export.max-concurrent} run at once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataExportService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${export.fetch-size:2000}")
+    private int fetchSize;
+
+    @Value("${export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private TransactionTemplate readOnlyTransaction;
+    private Semaphore slots;
+
+    public enum Dataset {
+        USERS("users", """
+                SELECT u.id, u.role, u.status, u.full_name, u.phone_number, u.email,
+                       u.verified, u.last_login, u.created_at
+                FROM users u WHERE 1 = 1""", "u.created_at", "u.id", true),
+        TRADERS("traders", """
+                SELECT u.id AS user_id, u.full_name, u.phone_number, u.status, t.bank_name,
+                       t.account_name, t.verified, t.registered_by_agent_id, t.created_at
+                FROM traders t JOIN users u ON u.id = t.user_id WHERE 1 = 1""", "t.created_at", "t.id", true),
+        AUDIT_LOGS("audit-logs", """
+                SELECT l.id, l.created_at, l.admin_id, l.admin_email, l.action, l.target_user_id,
+                       l.target_user_email, l.reason, l.notes, l.ip_address
+                FROM admin_audit_logs l WHERE 1 = 1""", "l.created_at", "l.id", false);
+
+        private final String fileName;
+        private final String select;
+        private final String createdColumn;
+        private final String idColumn;
+        private final boolean userFilters;
+
+        Dataset(String fileName, String select, String createdColumn, String idColumn, boolean userFilters) {
+            this.fileName = fileName;
+            this.select = select;
+            this.createdColumn = createdColumn;
+            this.idColumn = idColumn;
+            this.userFilters = userFilters;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromParam(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Date bounds are inclusive calendar days on {@code created_at}.
+     */
+    public record Filter(Role role, UserStatus status, LocalDate from, LocalDate to) {
+    }
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Reserve a slot before the response starts streaming and close it once
+     * the export ends. Fails with 429 while all slots are taken.
+     */
+    public Slot reserveSlot() {
+        if (!slots.tryAcquire()) {
+            meterRegistry.counter("export.rejected").increment();
+            throw new TooManyRequestsException("Too many exports are running; try again shortly");
+        }
+        return new Slot();
+    }
+
+    /**
+     * Fails fast on filters that do not apply; call before the response starts streaming.
+     */
+    public void validate(Dataset dataset, Filter filter) {
+        if (!dataset.userFilters && (filter.role() != null || filter.status() != null)) {
+            throw new BadRequestException("Role and status filters do not apply to " + dataset.fileName);
+        }
+        if (dataset == Dataset.TRADERS && filter.role() != null) {
+            throw new BadRequestException("Role filter does not apply to traders");
+        }
+        if (filter.from() != null && filter.to() != null && filter.from().isAfter(filter.to())) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+    }
+
+    public void export(Dataset dataset, Filter filter, Format format, OutputStream out) {
+        StringBuilder sql = new StringBuilder(dataset.select);
+        List<Object> params = new ArrayList<>();
+        if (filter.role() != null) {
+            sql.append(" AND u.role = ?");
+            params.add(filter.role().name());
+        }
+        if (filter.status() != null) {
+            sql.append(" AND u.status = ?");
+            params.add(filter.status().name());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND ").append(dataset.createdColumn).append(" >= ?");
+            params.add(Timestamp.valueOf(filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND ").append(dataset.createdColumn).append(" < ?");
+            params.add(Timestamp.valueOf(filter.to().plusDays(1).atStartOfDay()));
+        }
+        sql.append(" ORDER BY ").append(dataset.createdColumn).append(", ").append(dataset.idColumn);
+
+        long started = System.nanoTime();
+        long rows = readOnlyTransaction.execute(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                ExportWriter writer = format == Format.CSV
+                        ? ExportWriter.csv(out)
+                        : ExportWriter.ndjson(out, objectMapper);
+                writer.begin(rs.getMetaData());
+                long count = 0;
+                while (rs.next()) {
+                    writer.writeRow(rs);
+                    count++;
+                }
+                writer.finish();
+                return count;
+            } catch (IOException e) {
+                // Client went away; abandon the cursor and end the transaction
+                throw new UncheckedIOException(e);
+            }
+        }));
+
+        meterRegistry.counter("export.rows", "dataset", dataset.fileName).increment(rows);
+        log.info("Exported {} {} rows as {} in {} ms",
+                rows, dataset.fileName, format, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public class Slot implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+}
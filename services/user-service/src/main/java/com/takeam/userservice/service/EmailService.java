@@ -1,7 +1,8 @@
 package com.takeam.userservice.service;
 
-import jakarta.mail.MessagingException;
+import jakarta.activation.DataHandler;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.ByteArrayDataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -14,11 +15,13 @@ import org.springframework.stereotype.Service;
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final MailDispatcher mailDispatcher;
 
     private static final String FROM_EMAIL = "noreply@takeam.ng";
     private static final String FROM_NAME = "TakeAm";
     private static final String BRAND_COLOR = "#2E7D32";
     private static final String BRAND_LIGHT = "#E8F5E9";
+    private static final String HTML_CONTENT_TYPE = "text/html; charset=UTF-8";
 
     // ─────────────────────────────────────────────
     // OTP EMAILS
@@ -26,20 +29,20 @@ public class EmailService {
 
     public void sendOTPEmail(String toEmail, String otp, String recipientName) {
         String subject = "TakeAm - Your Verification Code";
-        String html = buildOtpHtml(recipientName, otp, "verify your email address");
-        sendHtmlEmail(toEmail, subject, html);
+        byte[] html = buildOtpHtml(recipientName, otp, "verify your email address");
+        sendHtmlEmail(toEmail, subject, html, true);
     }
 
     public void sendLoginOTPEmail(String toEmail, String otp, String recipientName) {
         String subject = "TakeAm - Login Verification Code";
-        String html = buildOtpHtml(recipientName, otp, "complete your login");
-        sendHtmlEmail(toEmail, subject, html);
+        byte[] html = buildOtpHtml(recipientName, otp, "complete your login");
+        sendHtmlEmail(toEmail, subject, html, true);
     }
 
     public void sendPasswordResetEmail(String toEmail, String otp, String recipientName) {
         String subject = "TakeAm - Password Reset Code";
-        String html = buildOtpHtml(recipientName, otp, "reset your password");
-        sendHtmlEmail(toEmail, subject, html);
+        byte[] html = buildOtpHtml(recipientName, otp, "reset your password");
+        sendHtmlEmail(toEmail, subject, html, true);
     }
 
     // ─────────────────────────────────────────────
@@ -48,8 +51,8 @@ public class EmailService {
 
     public void sendWelcomeEmail(String toEmail, String recipientName, String role) {
         String subject = "Welcome to TakeAm! 🎉";
-        String html = buildWelcomeHtml(recipientName, role);
-        sendHtmlEmail(toEmail, subject, html);
+        byte[] html = buildWelcomeHtml(recipientName, role);
+        sendHtmlEmail(toEmail, subject, html, false);
     }
 
     // ─────────────────────────────────────────────
@@ -58,38 +61,64 @@ public class EmailService {
 
     public void sendAccountApprovedEmail(String toEmail, String recipientName) {
         String subject = "TakeAm - Your Account Has Been Approved!";
-        String html = buildAccountApprovedHtml(recipientName);
-        sendHtmlEmail(toEmail, subject, html);
+        byte[] html = buildAccountApprovedHtml(recipientName);
+        sendHtmlEmail(toEmail, subject, html, false);
+    }
+
+    public void sendApplicationRejectedEmail(String toEmail, String recipientName, String reason) {
+        String subject = "TakeAm - Update on Your Agent Application";
+        byte[] html = APPLICATION_REJECTED_TEMPLATE.render(recipientName, reason);
+        sendHtmlEmail(toEmail, subject, html, false);
     }
 
     public void sendAccountLockedEmail(String toEmail, String recipientName) {
         String subject = "TakeAm - Account Temporarily Locked";
-        String html = buildAccountLockedHtml(recipientName);
-        sendHtmlEmail(toEmail, subject, html);
+        byte[] html = buildAccountLockedHtml(recipientName);
+        sendHtmlEmail(toEmail, subject, html, false);
     }
 
     public void sendPasswordChangedEmail(String toEmail, String recipientName) {
         String subject = "TakeAm - Password Changed Successfully";
-        String html = buildPasswordChangedHtml(recipientName);
-        sendHtmlEmail(toEmail, subject, html);
+        byte[] html = buildPasswordChangedHtml(recipientName);
+        sendHtmlEmail(toEmail, subject, html, false);
+    }
+
+    // ─────────────────────────────────────────────
+    // SMS FAILOVER EMAILS
+    // ─────────────────────────────────────────────
+
+    /**
+     * Runs on the SMS client's thread, so the original lane's urgency and
+     * deadline are passed in rather than read from the current thread.
+     */
+    public void sendSmsFallbackEmail(String toEmail, String recipientName, String smsMessage,
+                                     boolean urgent, long deadline) {
+        String subject = "TakeAm - Notification";
+        byte[] html = SMS_FALLBACK_TEMPLATE.render(recipientName, smsMessage);
+        sendHtmlEmail(toEmail, subject, html, urgent, deadline);
     }
 
     // ─────────────────────────────────────────────
     // CORE SEND METHOD
     // ─────────────────────────────────────────────
 
-    private void sendHtmlEmail(String toEmail, String subject, String htmlContent) {
+    private void sendHtmlEmail(String toEmail, String subject, byte[] htmlContent, boolean urgent) {
+        sendHtmlEmail(toEmail, subject, htmlContent, urgent, NotificationLanes.currentDeadline());
+    }
+
+    private void sendHtmlEmail(String toEmail, String subject, byte[] htmlContent, boolean urgent, long deadline) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
 
             helper.setFrom(FROM_EMAIL, FROM_NAME);
             helper.setTo(toEmail);
             helper.setSubject(subject);
-            helper.setText(htmlContent, true);
 
-            mailSender.send(message);
-            log.info("Email sent to: {} | Subject: {}", toEmail, subject);
+            // Single text/html part: no multipart tree to build, body bytes are used as-is
+            message.setDataHandler(new DataHandler(new ByteArrayDataSource(htmlContent, HTML_CONTENT_TYPE)));
+
+            mailDispatcher.submit(message, toEmail, subject, urgent, deadline);
 
         } catch (Exception e) {
             log.error("Failed to send email to: {} | Subject: {} | Error: {}", toEmail, subject, e.getMessage());
@@ -101,34 +130,28 @@ public class EmailService {
     // HTML TEMPLATES
     // ─────────────────────────────────────────────
 
-    private String buildOtpHtml(String name, String otp, String purpose) {
-        return baseTemplate(String.format("""
+    private static final EmailTemplate OTP_TEMPLATE = EmailTemplate.compile(page("""
             <h2 style="color:#2E7D32;margin:0 0 16px;">Verification Code</h2>
-            <p style="color:#555;font-size:15px;">Hi <strong>%s</strong>,</p>
-            <p style="color:#555;font-size:15px;">Use the code below to %s:</p>
+            <p style="color:#555;font-size:15px;">Hi <strong>{{name}}</strong>,</p>
+            <p style="color:#555;font-size:15px;">Use the code below to {{purpose}}:</p>
             
             <div style="background:#E8F5E9;border-radius:12px;padding:24px;text-align:center;margin:24px 0;">
-                <span style="font-size:42px;font-weight:bold;letter-spacing:8px;color:#2E7D32;">%s</span>
+                <span style="font-size:42px;font-weight:bold;letter-spacing:8px;color:#2E7D32;">{{otp}}</span>
             </div>
             
             <p style="color:#888;font-size:13px;">⏱ This code expires in <strong>5 minutes</strong>.</p>
             <p style="color:#888;font-size:13px;">🔒 Never share this code with anyone.</p>
             <p style="color:#888;font-size:13px;">If you didn't request this, you can safely ignore this email.</p>
-            """, name, purpose, otp));
-    }
+            """), "name", "purpose", "otp");
 
-    private String buildWelcomeHtml(String name, String role) {
-        String roleMessage = switch (role.toUpperCase()) {
-            case "TRADER" -> "You can now receive payments, manage your stall, and grow your business digitally.";
-            case "AGENT" -> "You can now register traders and help grow the TakeAm marketplace in your area.";
-            case "BUYER" -> "You can now browse fresh produce, place orders, and enjoy fast delivery.";
-            default -> "You now have access to the TakeAm marketplace.";
-        };
+    private byte[] buildOtpHtml(String name, String otp, String purpose) {
+        return OTP_TEMPLATE.render(name, purpose, otp);
+    }
 
-        return baseTemplate(String.format("""
+    private static final EmailTemplate WELCOME_TEMPLATE = EmailTemplate.compile(page("""
             <h2 style="color:#2E7D32;margin:0 0 16px;">Welcome to TakeAm! 🎉</h2>
-            <p style="color:#555;font-size:15px;">Hi <strong>%s</strong>,</p>
-            <p style="color:#555;font-size:15px;">Your account has been successfully verified. %s</p>
+            <p style="color:#555;font-size:15px;">Hi <strong>{{name}}</strong>,</p>
+            <p style="color:#555;font-size:15px;">Your account has been successfully verified. {{roleMessage}}</p>
             
             <div style="background:#E8F5E9;border-radius:12px;padding:20px;margin:24px 0;border-left:4px solid #2E7D32;">
                 <p style="margin:0;color:#2E7D32;font-weight:bold;">🌿 Fresh produce. Fair prices. Fast delivery.</p>
@@ -136,13 +159,22 @@ public class EmailService {
             </div>
             
             <p style="color:#555;font-size:15px;">If you have any questions, reply to this email or contact our support team.</p>
-            """, name, roleMessage));
+            """), "name", "roleMessage");
+
+    private byte[] buildWelcomeHtml(String name, String role) {
+        String roleMessage = switch (role.toUpperCase()) {
+            case "TRADER" -> "You can now receive payments, manage your stall, and grow your business digitally.";
+            case "AGENT" -> "You can now register traders and help grow the TakeAm marketplace in your area.";
+            case "BUYER" -> "You can now browse fresh produce, place orders, and enjoy fast delivery.";
+            default -> "You now have access to the TakeAm marketplace.";
+        };
+
+        return WELCOME_TEMPLATE.render(name, roleMessage);
     }
 
-    private String buildAccountApprovedHtml(String name) {
-        return baseTemplate(String.format("""
+    private static final EmailTemplate ACCOUNT_APPROVED_TEMPLATE = EmailTemplate.compile(page("""
             <h2 style="color:#2E7D32;margin:0 0 16px;">Account Approved! ✅</h2>
-            <p style="color:#555;font-size:15px;">Hi <strong>%s</strong>,</p>
+            <p style="color:#555;font-size:15px;">Hi <strong>{{name}}</strong>,</p>
             <p style="color:#555;font-size:15px;">Great news! Your TakeAm agent account has been reviewed and <strong>approved</strong>.</p>
             
             <div style="background:#E8F5E9;border-radius:12px;padding:20px;margin:24px 0;border-left:4px solid #2E7D32;">
@@ -156,13 +188,28 @@ public class EmailService {
             </div>
             
             <p style="color:#555;font-size:15px;">Log in now to get started. Welcome to the team! 🚀</p>
-            """, name));
+            """), "name");
+
+    private byte[] buildAccountApprovedHtml(String name) {
+        return ACCOUNT_APPROVED_TEMPLATE.render(name);
     }
 
-    private String buildAccountLockedHtml(String name) {
-        return baseTemplate(String.format("""
+    private static final EmailTemplate APPLICATION_REJECTED_TEMPLATE = EmailTemplate.compile(page("""
+            <h2 style="color:#c0392b;margin:0 0 16px;">Application Not Approved</h2>
+            <p style="color:#555;font-size:15px;">Hi <strong>{{name}}</strong>,</p>
+            <p style="color:#555;font-size:15px;">Thank you for applying to become a TakeAm agent. After review, your application has <strong>not been approved</strong>.</p>
+            
+            <div style="background:#FFEBEE;border-radius:12px;padding:20px;margin:24px 0;border-left:4px solid #c0392b;">
+                <p style="margin:0;color:#c0392b;font-weight:bold;">Reason</p>
+                <p style="margin:8px 0 0;color:#555;font-size:14px;white-space:pre-line;">{{reason}}</p>
+            </div>
+            
+            <p style="color:#555;font-size:15px;">You can address the points above and apply again. For help, contact our support team.</p>
+            """), "name", "reason");
+
+    private static final EmailTemplate ACCOUNT_LOCKED_TEMPLATE = EmailTemplate.compile(page("""
             <h2 style="color:#c0392b;margin:0 0 16px;">Account Temporarily Locked 🔒</h2>
-            <p style="color:#555;font-size:15px;">Hi <strong>%s</strong>,</p>
+            <p style="color:#555;font-size:15px;">Hi <strong>{{name}}</strong>,</p>
             <p style="color:#555;font-size:15px;">Your TakeAm account has been temporarily locked due to multiple failed login attempts.</p>
             
             <div style="background:#FFEBEE;border-radius:12px;padding:20px;margin:24px 0;border-left:4px solid #c0392b;">
@@ -171,13 +218,15 @@ public class EmailService {
             </div>
             
             <p style="color:#555;font-size:15px;">For help, reply to this email or contact our support team.</p>
-            """, name));
+            """), "name");
+
+    private byte[] buildAccountLockedHtml(String name) {
+        return ACCOUNT_LOCKED_TEMPLATE.render(name);
     }
 
-    private String buildPasswordChangedHtml(String name) {
-        return baseTemplate(String.format("""
+    private static final EmailTemplate PASSWORD_CHANGED_TEMPLATE = EmailTemplate.compile(page("""
             <h2 style="color:#2E7D32;margin:0 0 16px;">Password Changed ✅</h2>
-            <p style="color:#555;font-size:15px;">Hi <strong>%s</strong>,</p>
+            <p style="color:#555;font-size:15px;">Hi <strong>{{name}}</strong>,</p>
             <p style="color:#555;font-size:15px;">Your TakeAm account password has been successfully changed.</p>
             
             <div style="background:#FFF3E0;border-radius:12px;padding:20px;margin:24px 0;border-left:4px solid #FF9800;">
@@ -186,20 +235,32 @@ public class EmailService {
             </div>
             
             <p style="color:#555;font-size:15px;">Your account security is our priority. Stay safe!</p>
-            """, name));
+            """), "name");
+
+    private byte[] buildPasswordChangedHtml(String name) {
+        return PASSWORD_CHANGED_TEMPLATE.render(name);
     }
 
+    private static final EmailTemplate SMS_FALLBACK_TEMPLATE = EmailTemplate.compile(page("""
+            <h2 style="color:#2E7D32;margin:0 0 16px;">Message from TakeAm</h2>
+            <p style="color:#555;font-size:15px;">Hi <strong>{{name}}</strong>,</p>
+            <p style="color:#555;font-size:15px;">We couldn't reach your phone by SMS, so here is the message by email:</p>
+            
+            <div style="background:#E8F5E9;border-radius:12px;padding:20px;margin:24px 0;border-left:4px solid #2E7D32;">
+                <p style="margin:0;color:#555;font-size:15px;white-space:pre-line;">{{message}}</p>
+            </div>
+            """), "name", "message");
+
     // ─────────────────────────────────────────────
     // BASE TEMPLATE
     // ─────────────────────────────────────────────
 
-    private String baseTemplate(String content) {
-        return String.format("""
+    private static final String BASE_LAYOUT = """
             <!DOCTYPE html>
             <html>
             <head><meta charset="UTF-8"><meta name="viewport" content="width=device-width,initial-scale=1.0"></head>
             <body style="margin:0;padding:0;background:#f5f5f5;font-family:'Segoe UI',Arial,sans-serif;">
-                <table width="100%%" cellpadding="0" cellspacing="0" style="background:#f5f5f5;padding:40px 0;">
+                <table width="100%" cellpadding="0" cellspacing="0" style="background:#f5f5f5;padding:40px 0;">
                     <tr><td align="center">
                         <table width="580" cellpadding="0" cellspacing="0" style="background:#ffffff;border-radius:16px;overflow:hidden;box-shadow:0 2px 8px rgba(0,0,0,0.08);">
                             
@@ -214,7 +275,7 @@ public class EmailService {
                             <!-- CONTENT -->
                             <tr>
                                 <td style="padding:40px;">
-                                    %s
+                                    {{content}}
                                 </td>
                             </tr>
                             
@@ -231,6 +292,12 @@ public class EmailService {
                 </table>
             </body>
             </html>
-            """, content);
+            """;
+
+    /**
+     * Wrap email content in the shared layout once, when the template is compiled.
+     */
+    private static String page(String content) {
+        return BASE_LAYOUT.replace("{{content}}", content);
     }
 }
\ No newline at end of file
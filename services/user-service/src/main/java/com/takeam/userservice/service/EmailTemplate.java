@@ -0,0 +1,139 @@
+package com.takeam.userservice.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An HTML template compiled once into static UTF-8 byte segments and value slots.
+ * Slots are written as {@code {{name}}} in the source and filled positionally,
+ * in the order the slot names are declared, with HTML-escaped values.
+ */
+public final class EmailTemplate {
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(INITIAL_BUFFER_SIZE));
+
+    private final byte[][] segments;
+    private final int[] slots;
+    private final int slotCount;
+
+    private EmailTemplate(byte[][] segments, int[] slots, int slotCount) {
+        this.segments = segments;
+        this.slots = slots;
+        this.slotCount = slotCount;
+    }
+
+    public static EmailTemplate compile(String source, String... slotNames) {
+        List<String> names = Arrays.asList(slotNames);
+        List<byte[]> segments = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed slot at index " + open);
+            }
+            String name = source.substring(open + 2, close).trim();
+            int slot = names.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Undeclared template slot: " + name);
+            }
+            segments.add(source.substring(position, open).getBytes(StandardCharsets.UTF_8));
+            slots.add(slot);
+            position = close + 2;
+        }
+        segments.add(source.substring(position).getBytes(StandardCharsets.UTF_8));
+
+        return new EmailTemplate(
+                segments.toArray(new byte[0][]),
+                slots.stream().mapToInt(Integer::intValue).toArray(),
+                slotNames.length
+        );
+    }
+
+    /**
+     * Render the template into a per-thread buffer and return a copy of the bytes.
+     */
+    public byte[] render(String... values) {
+        if (values.length != slotCount) {
+            throw new IllegalArgumentException(
+                    "Expected " + slotCount + " template values but got " + values.length);
+        }
+
+        ByteArrayOutputStream buffer = BUFFER.get();
+        buffer.reset();
+
+        for (int i = 0; i < slots.length; i++) {
+            buffer.writeBytes(segments[i]);
+            writeEscaped(buffer, values[slots[i]]);
+        }
+        buffer.writeBytes(segments[segments.length - 1]);
+
+        return buffer.toByteArray();
+    }
+
+    public String renderToString(String... values) {
+        return new String(render(values), StandardCharsets.UTF_8);
+    }
+
+    static void writeEscaped(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            return;
+        }
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String entity = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                writeUtf8(out, value, start, i);
+                writeAscii(out, entity);
+                start = i + 1;
+            }
+        }
+        writeUtf8(out, value, start, length);
+    }
+
+    private static void writeUtf8(ByteArrayOutputStream out, String value, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        boolean ascii = true;
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            for (int i = from; i < to; i++) {
+                out.write(value.charAt(i));
+            }
+        } else {
+            out.writeBytes(value.substring(from, to).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void writeAscii(ByteArrayOutputStream out, String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            out.write(ascii.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.event.BulkModerationEvent;
+import com.takeam.userservice.model.Agent;
+import com.takeam.userservice.model.Buyer;
+import com.takeam.userservice.model.Trader;
+import com.takeam.userservice.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The second-level cache is in-process, so a change committed on one instance
+ * would otherwise stay invisible to the others until the region TTL. Every
+ * committed update or delete of a cached entity (password, lock state, status,
+ * contact details, payout details) is broadcast over Redis and every instance
+ * evicts it. A changed or deleted natural id (a user's phone number) also
+ * clears the natural-id region everywhere, so no instance resolves the old
+ * number to the wrong user.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntityCacheInvalidator implements MessageListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String CHANNEL = "cache:evict";
+    private static final String NATURAL_IDS = "naturalId:";
+
+    private static final Map<String, Class<?>> EVICTABLE = Map.of(
+            User.class.getSimpleName(), User.class,
+            Agent.class.getSimpleName(), Agent.class,
+            Trader.class.getSimpleName(), Trader.class,
+            Buyer.class.getSimpleName(), Buyer.class
+    );
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        // Post-commit, so other instances never reload the row before the change is visible
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return EVICTABLE.containsValue(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        broadcast(event.getPersister(), event.getId());
+        if (naturalIdChanged(event)) {
+            evictNaturalIds(event.getPersister().getMappedClass());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Rolled back: the cached state is still the committed one
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        broadcast(event.getPersister(), event.getId());
+        if (event.getPersister().hasNaturalIdentifier()) {
+            evictNaturalIds(event.getPersister().getMappedClass());
+        }
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Rolled back: the cached state is still the committed one
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkModeration(BulkModerationEvent event) {
+        evictUsers(event.userIds());
+        evict(Agent.class, event.agentIds());
+    }
+
+    /**
+     * Evict users locally and on every other instance. Must be called for any
+     * write that bypasses the entity (JDBC or bulk updates).
+     */
+    public void evictUsers(Collection<UUID> userIds) {
+        evict(User.class, userIds);
+    }
+
+    private void broadcast(EntityPersister persister, Object id) {
+        if (id instanceof UUID uuid && requiresPostCommitHandling(persister)) {
+            evict(persister.getMappedClass(), List.of(uuid));
+        }
+    }
+
+    private static boolean naturalIdChanged(PostUpdateEvent event) {
+        int[] naturalIds = event.getPersister().getNaturalIdentifierProperties();
+        if (naturalIds == null) {
+            return false;
+        }
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // Detached update without a snapshot; assume it changed
+            return true;
+        }
+        for (int property : naturalIds) {
+            if (!Objects.equals(oldState[property], event.getState()[property])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evictNaturalIds(Class<?> entityType) {
+        evictNaturalIdsLocally(entityType);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, NATURAL_IDS + entityType.getSimpleName() + "|");
+        } catch (RuntimeException e) {
+            log.error("Failed to broadcast {} natural-id eviction: {}", entityType.getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void evict(Class<?> entityType, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        evictLocally(entityType, ids);
+        try {
+            String payload = entityType.getSimpleName() + "|"
+                    + ids.stream().map(UUID::toString).collect(Collectors.joining(","));
+            redisTemplate.convertAndSend(CHANNEL, payload);
+        } catch (RuntimeException e) {
+            log.error("Failed to broadcast {} cache eviction: {}", entityType.getSimpleName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        boolean naturalIds = payload.startsWith(NATURAL_IDS);
+        int start = naturalIds ? NATURAL_IDS.length() : 0;
+        int separator = payload.indexOf('|');
+        Class<?> entityType = separator > start ? EVICTABLE.get(payload.substring(start, separator)) : null;
+        if (entityType == null) {
+            log.warn("Ignoring malformed cache eviction message: {}", payload);
+            return;
+        }
+        if (naturalIds) {
+            evictNaturalIdsLocally(entityType);
+            return;
+        }
+        try {
+            evictLocally(entityType, Arrays.stream(payload.substring(separator + 1).split(","))
+                    .map(UUID::fromString)
+                    .toList());
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed cache eviction message: {}", payload);
+        }
+    }
+
+    private void evictLocally(Class<?> entityType, Collection<UUID> ids) {
+        Cache cache = entityManagerFactory.getCache();
+        for (UUID id : ids) {
+            cache.evict(entityType, id);
+        }
+    }
+
+    private void evictNaturalIdsLocally(Class<?> entityType) {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictNaturalIdData(entityType);
+    }
+}
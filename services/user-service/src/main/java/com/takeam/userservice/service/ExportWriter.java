@@ -0,0 +1,170 @@
+package com.takeam.userservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Writes result set rows straight to an output stream, one line per row,
+ * reading columns by index so no entity or DTO is built along the way.
+ */
+abstract class ExportWriter {
+
+    // Characters that make a spreadsheet treat a cell as a formula (OWASP CSV injection)
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    // Columns written as-is when the value is a plain phone number, so '+234...' stays readable
+    private static final Set<String> PHONE_COLUMNS = Set.of("phone_number");
+    private static final Pattern PHONE = Pattern.compile("\\+?[0-9]{7,15}");
+
+    protected String[] columns;
+
+    static ExportWriter csv(OutputStream out) {
+        return new Csv(out);
+    }
+
+    static ExportWriter ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return new Ndjson(out, objectMapper);
+    }
+
+    void begin(ResultSetMetaData metaData) throws SQLException, IOException {
+        columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+        writeHeader();
+    }
+
+    abstract void writeHeader() throws IOException;
+
+    abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+    abstract void finish() throws IOException;
+
+    /**
+     * Timestamps are written as ISO local date-times; everything else as the
+     * driver's string form.
+     */
+    static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value;
+    }
+
+    static String csvField(String value) {
+        return csvField(value, false);
+    }
+
+    /**
+     * Quote a CSV field when needed. A leading '=', '+', '-', '@', tab or CR
+     * is prefixed with a quote so spreadsheets do not evaluate user-supplied
+     * values as formulas; in a phone column, a value that is only an optional
+     * '+' and digits is left alone.
+     */
+    static String csvField(String value, boolean phoneColumn) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        boolean plainPhone = phoneColumn && PHONE.matcher(value).matches();
+        if (!plainPhone && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    private static class Csv extends ExportWriter {
+
+        private final Writer writer;
+        private boolean[] phoneColumns;
+
+        Csv(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        void writeHeader() throws IOException {
+            phoneColumns = new boolean[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                phoneColumns[i] = PHONE_COLUMNS.contains(columns[i]);
+            }
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i + 1);
+                writer.write(csvField(value != null ? value.toString() : null, phoneColumns[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static class Ndjson extends ExportWriter {
+
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            // Separate root values with newlines instead of the default space
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeHeader() {
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                Object value = value(rs, i + 1);
+                generator.writeFieldName(columns[i]);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.takeam.userservice.service;
+
+/**
+ * An immutable market boundary: a circle (haversine distance) or a simple
+ * polygon (even-odd ray casting on lat/lng, accurate at market scale).
+ * The bounding box is used for grid indexing and as a cheap pre-check.
+ */
+public final class Geofence {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000;
+    private static final double METERS_PER_DEGREE_LAT = 111_320;
+
+    private final String marketId;
+    private final double centerLat;
+    private final double centerLng;
+    private final double radiusMeters;
+    // Polygon vertices, or null for a circle
+    private final double[] lats;
+    private final double[] lngs;
+
+    private final double minLat;
+    private final double maxLat;
+    private final double minLng;
+    private final double maxLng;
+
+    private Geofence(String marketId, double centerLat, double centerLng, double radiusMeters,
+                     double[] lats, double[] lngs,
+                     double minLat, double maxLat, double minLng, double maxLng) {
+        this.marketId = marketId;
+        this.centerLat = centerLat;
+        this.centerLng = centerLng;
+        this.radiusMeters = radiusMeters;
+        this.lats = lats;
+        this.lngs = lngs;
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLng = minLng;
+        this.maxLng = maxLng;
+    }
+
+    public static Geofence circle(String marketId, double lat, double lng, double radiusMeters) {
+        if (radiusMeters <= 0) {
+            throw new IllegalArgumentException("Radius must be positive for market " + marketId);
+        }
+        double dLat = radiusMeters / METERS_PER_DEGREE_LAT;
+        double dLng = radiusMeters / (METERS_PER_DEGREE_LAT * Math.max(Math.cos(Math.toRadians(lat)), 1e-6));
+        return new Geofence(marketId, lat, lng, radiusMeters, null, null,
+                lat - dLat, lat + dLat, lng - dLng, lng + dLng);
+    }
+
+    public static Geofence polygon(String marketId, double[] lats, double[] lngs) {
+        if (lats.length != lngs.length || lats.length < 3) {
+            throw new IllegalArgumentException("Polygon needs at least three vertices for market " + marketId);
+        }
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLng = Double.MAX_VALUE, maxLng = -Double.MAX_VALUE;
+        double sumLat = 0, sumLng = 0;
+        for (int i = 0; i < lats.length; i++) {
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+            minLng = Math.min(minLng, lngs[i]);
+            maxLng = Math.max(maxLng, lngs[i]);
+            sumLat += lats[i];
+            sumLng += lngs[i];
+        }
+        return new Geofence(marketId, sumLat / lats.length, sumLng / lngs.length, 0,
+                lats.clone(), lngs.clone(), minLat, maxLat, minLng, maxLng);
+    }
+
+    /**
+     * Parse vertices written as {@code "lat,lng;lat,lng;..."}.
+     */
+    public static Geofence parsePolygon(String marketId, String vertices) {
+        String[] points = vertices.trim().split(";");
+        double[] lats = new double[points.length];
+        double[] lngs = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            String[] pair = points[i].split(",");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid polygon vertex '" + points[i] + "' for market " + marketId);
+            }
+            lats[i] = Double.parseDouble(pair[0].trim());
+            lngs[i] = Double.parseDouble(pair[1].trim());
+        }
+        return polygon(marketId, lats, lngs);
+    }
+
+    public boolean contains(double lat, double lng) {
+        if (lat < minLat || lat > maxLat || lng < minLng || lng > maxLng) {
+            return false;
+        }
+        if (lats == null) {
+            return distanceMeters(centerLat, centerLng, lat, lng) <= radiusMeters;
+        }
+        boolean inside = false;
+        for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+            if ((lats[i] > lat) != (lats[j] > lat)
+                    && lng < (lngs[j] - lngs[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lngs[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lngDistance = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lngDistance / 2) * Math.sin(lngDistance / 2);
+        return EARTH_RADIUS_METERS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    public String getMarketId() {
+        return marketId;
+    }
+
+    public boolean isCircle() {
+        return lats == null;
+    }
+
+    double getMinLat() {
+        return minLat;
+    }
+
+    double getMaxLat() {
+        return maxLat;
+    }
+
+    double getMinLng() {
+        return minLng;
+    }
+
+    double getMaxLng() {
+        return maxLng;
+    }
+}
@@ -0,0 +1,92 @@
+package com.takeam.userservice.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable uniform lat/lng grid over market bounding boxes. A lookup hashes
+ * the point to its cell and runs the exact containment test only on the few
+ * markets whose boxes overlap that cell. A geofence that would cover more
+ * than {@link #MAX_CELLS_PER_GEOFENCE} cells is not gridded but tested on
+ * every lookup, so one oversized row cannot exhaust memory.
+ */
+final class GeofenceIndex {
+
+    static final long MAX_CELLS_PER_GEOFENCE = 10_000;
+
+    private static final Geofence[] NONE = new Geofence[0];
+
+    private final double cellDegrees;
+    private final Map<Long, Geofence[]> cells;
+    private final Geofence[] oversized;
+    private final Map<String, Geofence> byMarket;
+
+    private GeofenceIndex(double cellDegrees, Map<Long, Geofence[]> cells, Geofence[] oversized,
+                          Map<String, Geofence> byMarket) {
+        this.cellDegrees = cellDegrees;
+        this.cells = cells;
+        this.oversized = oversized;
+        this.byMarket = byMarket;
+    }
+
+    static GeofenceIndex build(Collection<Geofence> geofences, double cellDegrees) {
+        Map<Long, List<Geofence>> grid = new HashMap<>();
+        List<Geofence> oversized = new ArrayList<>();
+        Map<String, Geofence> byMarket = new HashMap<>();
+        for (Geofence geofence : geofences) {
+            byMarket.put(geofence.getMarketId(), geofence);
+            int fromLat = cell(geofence.getMinLat(), cellDegrees);
+            int toLat = cell(geofence.getMaxLat(), cellDegrees);
+            int fromLng = cell(geofence.getMinLng(), cellDegrees);
+            int toLng = cell(geofence.getMaxLng(), cellDegrees);
+            if ((toLat - fromLat + 1L) * (toLng - fromLng + 1L) > MAX_CELLS_PER_GEOFENCE) {
+                oversized.add(geofence);
+                continue;
+            }
+            for (int latCell = fromLat; latCell <= toLat; latCell++) {
+                for (int lngCell = fromLng; lngCell <= toLng; lngCell++) {
+                    grid.computeIfAbsent(key(latCell, lngCell), k -> new ArrayList<>(2)).add(geofence);
+                }
+            }
+        }
+
+        Map<Long, Geofence[]> cells = new HashMap<>(grid.size() * 2);
+        grid.forEach((key, members) -> cells.put(key, members.toArray(NONE)));
+        return new GeofenceIndex(cellDegrees, cells, oversized.toArray(NONE), byMarket);
+    }
+
+    Geofence get(String marketId) {
+        return byMarket.get(marketId);
+    }
+
+    int size() {
+        return byMarket.size();
+    }
+
+    List<Geofence> containing(double lat, double lng) {
+        Geofence[] candidates = cells.getOrDefault(key(cell(lat, cellDegrees), cell(lng, cellDegrees)), NONE);
+        List<Geofence> matches = new ArrayList<>(1);
+        for (Geofence candidate : candidates) {
+            if (candidate.contains(lat, lng)) {
+                matches.add(candidate);
+            }
+        }
+        for (Geofence candidate : oversized) {
+            if (candidate.contains(lat, lng)) {
+                matches.add(candidate);
+            }
+        }
+        return matches;
+    }
+
+    private static int cell(double degrees, double cellDegrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(int latCell, int lngCell) {
+        return ((long) latCell << 32) | (lngCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,251 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.request.MarketGeofenceRequestDto;
+import com.takeam.userservice.dto.response.MarketGeofenceDto;
+import com.takeam.userservice.exception.BadRequestException;
+import com.takeam.userservice.model.MarketGeofence;
+import com.takeam.userservice.repository.MarketGeofenceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Market geofences, loaded from the database into a grid index. Every instance
+ * polls the latest {@code updated_at} and rebuilds the index when geometry
+ * changes, so edits apply without a restart. Markets without geometry fall
+ * back to the default circle.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeofenceService {
+
+    private final MarketGeofenceRepository geofenceRepository;
+
+    @Value("${geofence.cell-degrees:0.01}")
+    private double cellDegrees;
+
+    // Largest market a geofence may describe; keeps the grid index small
+    @Value("${geofence.max-radius-meters:20000}")
+    private double maxRadiusMeters;
+
+    @Value("${geofence.max-span-degrees:0.5}")
+    private double maxSpanDegrees;
+
+    @Value("${geofence.default.latitude:6.4550}")
+    private double defaultLatitude;
+
+    @Value("${geofence.default.longitude:3.3941}")
+    private double defaultLongitude;
+
+    @Value("${geofence.default.radius-meters:2000}")
+    private double defaultRadiusMeters;
+
+    @Value("${geofence.default.time-zone:Africa/Lagos}")
+    private String defaultTimeZone;
+
+    @Value("${geofence.default.closes-at:18:00}")
+    private String defaultClosesAt;
+
+    private volatile GeofenceIndex index = GeofenceIndex.build(List.of(), 0.01);
+    private volatile Map<String, MarketHours> hours = Map.of();
+    private volatile LocalDateTime loadedVersion;
+    private Geofence defaultGeofence;
+    private MarketHours defaultHours;
+
+    /**
+     * A market's local time zone and the time its working day ends.
+     */
+    public record MarketHours(ZoneId zone, LocalTime closesAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        defaultGeofence = Geofence.circle("default", defaultLatitude, defaultLongitude, defaultRadiusMeters);
+        defaultHours = new MarketHours(ZoneId.of(defaultTimeZone), LocalTime.parse(defaultClosesAt));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${geofence.refresh-interval-ms:30000}",
+            initialDelayString = "${geofence.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        if (!Objects.equals(geofenceRepository.findLatestUpdate(), loadedVersion)) {
+            reload();
+        }
+    }
+
+    public synchronized void reload() {
+        long started = System.nanoTime();
+        LocalDateTime version = geofenceRepository.findLatestUpdate();
+        List<Geofence> geofences = new ArrayList<>();
+        Map<String, MarketHours> loadedHours = new HashMap<>();
+        for (MarketGeofence market : geofenceRepository.findByActiveTrue()) {
+            try {
+                geofences.add(toGeofence(market));
+                loadedHours.put(market.getMarketId(), toHours(market));
+            } catch (RuntimeException e) {
+                // One bad row must not take every other market's geofence down
+                log.error("Skipping invalid geofence for market {}: {}", market.getMarketId(), e.getMessage());
+            }
+        }
+        index = GeofenceIndex.build(geofences, cellDegrees);
+        hours = loadedHours;
+        loadedVersion = version;
+        log.info("Loaded {} market geofences in {} ms", geofences.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Whether a point lies inside the given market's geofence.
+     */
+    public boolean isWithinMarket(String marketId, double latitude, double longitude) {
+        Geofence geofence = index.get(marketId);
+        if (geofence == null) {
+            log.debug("No geofence configured for market {}; using the default zone", marketId);
+            geofence = defaultGeofence;
+        }
+        return geofence.contains(latitude, longitude);
+    }
+
+    public MarketHours hoursOf(String marketId) {
+        return hours.getOrDefault(marketId, defaultHours);
+    }
+
+    public MarketHours getDefaultHours() {
+        return defaultHours;
+    }
+
+    public List<String> findMarketsAt(double latitude, double longitude) {
+        return index.containing(latitude, longitude).stream()
+                .map(Geofence::getMarketId)
+                .toList();
+    }
+
+    public List<MarketGeofenceDto> getGeofences() {
+        return geofenceRepository.findAll().stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    @Transactional
+    public MarketGeofenceDto saveGeofence(String marketId, MarketGeofenceRequestDto dto) {
+        MarketGeofence market = geofenceRepository.findById(marketId).orElseGet(MarketGeofence::new);
+        market.setMarketId(marketId);
+        market.setName(dto.getName());
+        market.setShape(dto.getShape());
+        market.setActive(dto.isActive());
+        market.setCenterLatitude(dto.getCenterLatitude());
+        market.setCenterLongitude(dto.getCenterLongitude());
+        market.setRadiusMeters(dto.getRadiusMeters());
+        market.setPolygon(dto.getVertices() != null ? encodeVertices(dto.getVertices()) : null);
+        market.setTimeZone(dto.getTimeZone());
+        market.setClosesAt(dto.getClosesAt());
+
+        try {
+            validateBounds(toGeofence(market), market);
+            toHours(market);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid geofence: " + e.getMessage());
+        }
+
+        MarketGeofence saved = geofenceRepository.saveAndFlush(market);
+        log.info("Saved {} geofence for market {}", saved.getShape(), marketId);
+        reload();
+        return toDto(saved);
+    }
+
+    // ============ HELPER METHODS ============
+
+    private Geofence toGeofence(MarketGeofence market) {
+        return switch (market.getShape()) {
+            case CIRCLE -> {
+                if (market.getCenterLatitude() == null || market.getCenterLongitude() == null
+                        || market.getRadiusMeters() == null) {
+                    throw new IllegalArgumentException("circle needs a center and radius");
+                }
+                yield Geofence.circle(market.getMarketId(),
+                        market.getCenterLatitude(), market.getCenterLongitude(), market.getRadiusMeters());
+            }
+            case POLYGON -> {
+                if (market.getPolygon() == null || market.getPolygon().isBlank()) {
+                    throw new IllegalArgumentException("polygon needs vertices");
+                }
+                yield Geofence.parsePolygon(market.getMarketId(), market.getPolygon());
+            }
+        };
+    }
+
+    private void validateBounds(Geofence geofence, MarketGeofence market) {
+        if (!(geofence.getMinLat() >= -90 && geofence.getMaxLat() <= 90
+                && geofence.getMinLng() >= -180 && geofence.getMaxLng() <= 180)) {
+            throw new IllegalArgumentException("coordinates must be valid latitudes and longitudes");
+        }
+        if (market.getShape() == MarketGeofence.Shape.CIRCLE
+                && !(market.getRadiusMeters() > 0 && market.getRadiusMeters() <= maxRadiusMeters)) {
+            throw new IllegalArgumentException("radius must be between 0 and " + maxRadiusMeters + " meters");
+        }
+        if (geofence.getMaxLat() - geofence.getMinLat() > maxSpanDegrees
+                || geofence.getMaxLng() - geofence.getMinLng() > maxSpanDegrees) {
+            throw new IllegalArgumentException("area must span at most " + maxSpanDegrees + " degrees");
+        }
+    }
+
+    private MarketHours toHours(MarketGeofence market) {
+        return new MarketHours(
+                market.getTimeZone() != null ? ZoneId.of(market.getTimeZone()) : defaultHours.zone(),
+                market.getClosesAt() != null ? market.getClosesAt() : defaultHours.closesAt());
+    }
+
+    private String encodeVertices(List<List<Double>> vertices) {
+        return vertices.stream()
+                .map(vertex -> {
+                    if (vertex == null || vertex.size() != 2 || vertex.contains(null)) {
+                        throw new BadRequestException("Each vertex must be [latitude, longitude]");
+                    }
+                    return vertex.get(0) + "," + vertex.get(1);
+                })
+                .collect(Collectors.joining(";"));
+    }
+
+    private MarketGeofenceDto toDto(MarketGeofence market) {
+        List<List<Double>> vertices = null;
+        if (market.getPolygon() != null && !market.getPolygon().isBlank()) {
+            vertices = Arrays.stream(market.getPolygon().split(";"))
+                    .map(point -> Arrays.stream(point.split(",")).map(Double::valueOf).toList())
+                    .toList();
+        }
+        return MarketGeofenceDto.builder()
+                .marketId(market.getMarketId())
+                .name(market.getName())
+                .shape(market.getShape().name())
+                .centerLatitude(market.getCenterLatitude())
+                .centerLongitude(market.getCenterLongitude())
+                .radiusMeters(market.getRadiusMeters())
+                .vertices(vertices)
+                .timeZone(market.getTimeZone())
+                .closesAt(market.getClosesAt())
+                .active(market.isActive())
+                .updatedAt(market.getUpdatedAt())
+                .build();
+    }
+}
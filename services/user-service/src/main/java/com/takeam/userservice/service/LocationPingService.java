@@ -0,0 +1,303 @@
+package com.takeam.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.takeam.userservice.dto.request.LocationPingDto;
+import com.takeam.userservice.dto.response.LocationPingResultDto;
+import com.takeam.userservice.event.AttendanceEvent;
+import com.takeam.userservice.exception.BadRequestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingests batched location pings from agents' devices. Each batch is sorted,
+ * de-duplicated and downsampled against the last ping kept for the agent,
+ * then the kept pings go into a bounded ring buffer. A flush on its own thread,
+ * so slow scheduled jobs elsewhere never hold it up, appends them to the agent's track for the day as one encoded chunk per
+ * agent and moves the agents in the presence registry. Memory is bounded by
+ * the buffer plus one last-kept ping per on-duty agent.
+ */
+@Service
+@Slf4j
+public class LocationPingService {
+
+    private static final String APPEND_SQL = """
+            INSERT INTO agent_location_tracks AS t
+                (id, agent_id, track_date, point_count, first_ping_at, last_ping_at, data)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (agent_id, track_date) DO UPDATE SET
+                data = t.data || EXCLUDED.data,
+                point_count = t.point_count + EXCLUDED.point_count,
+                first_ping_at = LEAST(t.first_ping_at, EXCLUDED.first_ping_at),
+                last_ping_at = GREATEST(t.last_ping_at, EXCLUDED.last_ping_at)
+            """;
+
+    private static final int OUTCOME_ACCEPTED = 0;
+    private static final int OUTCOME_DUPLICATE = 1;
+    private static final int OUTCOME_DOWNSAMPLED = 2;
+    private static final int OUTCOME_REJECTED = 3;
+    private static final int OUTCOME_DROPPED = 4;
+
+    private static final String TRACK_SQL =
+            "SELECT data FROM agent_location_tracks WHERE agent_id = ? AND track_date = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AgentPresenceRegistry presenceRegistry;
+    private final ObjectMapper objectMapper;
+    private final RingBuffer<Ping> buffer;
+    private final int batchSize;
+    private final long minIntervalMs;
+    private final double minDistanceMeters;
+    private final long maxFutureSkewMs;
+    private final long flushIntervalMs;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "location-ping-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Last ping kept per agent; the reference point for dedup and downsampling
+    private final ConcurrentHashMap<UUID, Ping> lastKept = new ConcurrentHashMap<>();
+
+    private final Counter accepted;
+    private final Counter duplicates;
+    private final Counter downsampled;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+
+    public LocationPingService(
+            JdbcTemplate jdbcTemplate,
+            AgentPresenceRegistry presenceRegistry,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${location.pings.buffer-capacity:65536}") int bufferCapacity,
+            @Value("${location.pings.batch-size:5000}") int batchSize,
+            @Value("${location.pings.min-interval-ms:5000}") long minIntervalMs,
+            @Value("${location.pings.min-distance-meters:10}") double minDistanceMeters,
+            @Value("${location.pings.max-future-skew-ms:60000}") long maxFutureSkewMs,
+            @Value("${location.pings.flush-interval-ms:2000}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.presenceRegistry = presenceRegistry;
+        this.objectMapper = objectMapper;
+        this.buffer = new RingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.minIntervalMs = minIntervalMs;
+        this.minDistanceMeters = minDistanceMeters;
+        this.maxFutureSkewMs = maxFutureSkewMs;
+        this.flushIntervalMs = flushIntervalMs;
+        this.accepted = meterRegistry.counter("location.pings", "outcome", "accepted");
+        this.duplicates = meterRegistry.counter("location.pings", "outcome", "duplicate");
+        this.downsampled = meterRegistry.counter("location.pings", "outcome", "downsampled");
+        this.rejected = meterRegistry.counter("location.pings", "outcome", "rejected");
+        this.dropped = meterRegistry.counter("location.pings", "outcome", "dropped");
+        this.written = meterRegistry.counter("location.pings.written");
+        this.failed = meterRegistry.counter("location.pings.failed");
+        Gauge.builder("location.pings.buffer.size", buffer, RingBuffer::size).register(meterRegistry);
+    }
+
+    public LocationPingResultDto ingest(UUID agentId, List<LocationPingDto> pings) {
+        if (!presenceRegistry.isOnDuty(agentId)) {
+            throw new BadRequestException("You must be clocked in to report your location");
+        }
+
+        List<LocationPingDto> ordered = new ArrayList<>(pings);
+        ordered.sort(Comparator.comparing(LocationPingDto::getRecordedAt));
+
+        long now = System.currentTimeMillis();
+        long dayStart = LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        int[] counts = new int[5];
+
+        // Kept pings are enqueued under the agent's entry so they reach the buffer in time order
+        lastKept.compute(agentId, (id, last) -> {
+            for (LocationPingDto ping : ordered) {
+                long time = ping.getRecordedAt().toEpochMilli();
+                if (!isValid(ping, time, dayStart, now)) {
+                    counts[OUTCOME_REJECTED]++;
+                } else if (last != null && time <= last.timeMillis()) {
+                    counts[OUTCOME_DUPLICATE]++;
+                } else if (last != null && time - last.timeMillis() < minIntervalMs
+                        && Geofence.distanceMeters(last.latitude(), last.longitude(),
+                        ping.getLatitude(), ping.getLongitude()) < minDistanceMeters) {
+                    counts[OUTCOME_DOWNSAMPLED]++;
+                } else {
+                    Ping kept = new Ping(id, time, ping.getLatitude(), ping.getLongitude());
+                    if (buffer.offer(kept)) {
+                        counts[OUTCOME_ACCEPTED]++;
+                        last = kept;
+                    } else {
+                        counts[OUTCOME_DROPPED]++;
+                    }
+                }
+            }
+            return last;
+        });
+
+        accepted.increment(counts[OUTCOME_ACCEPTED]);
+        duplicates.increment(counts[OUTCOME_DUPLICATE]);
+        downsampled.increment(counts[OUTCOME_DOWNSAMPLED]);
+        rejected.increment(counts[OUTCOME_REJECTED]);
+        if (counts[OUTCOME_DROPPED] > 0) {
+            dropped.increment(counts[OUTCOME_DROPPED]);
+            log.warn("Location buffer full, dropped {} pings from agent {}", counts[OUTCOME_DROPPED], agentId);
+        }
+
+        return LocationPingResultDto.builder()
+                .received(pings.size())
+                .accepted(counts[OUTCOME_ACCEPTED])
+                .duplicates(counts[OUTCOME_DUPLICATE])
+                .downsampled(counts[OUTCOME_DOWNSAMPLED])
+                .rejected(counts[OUTCOME_REJECTED])
+                .dropped(counts[OUTCOME_DROPPED])
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // Keep the schedule alive; an uncaught exception would cancel it
+                log.error("Location ping flush failed: {}", e.getMessage());
+            }
+        }, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void flush() {
+        List<Ping> batch = new ArrayList<>(Math.min(batchSize, buffer.size() + 1));
+        Ping ping;
+        while ((ping = buffer.poll()) != null) {
+            batch.add(ping);
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttendance(AttendanceEvent event) {
+        if (event.type() == AttendanceEvent.Type.CLOCK_OUT) {
+            lastKept.remove(event.agentId());
+        }
+    }
+
+    /**
+     * Decode an agent's track for a day straight from the stored chunks and
+     * write it as NDJSON, one ping per line.
+     */
+    public void replayTrack(UUID agentId, LocalDate date, OutputStream out) {
+        jdbcTemplate.query(TRACK_SQL, (RowCallbackHandler) rs -> {
+            try (InputStream data = rs.getBinaryStream("data")) {
+                LocationTrackCodec.decode(data, point -> writeLine(out, point));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, agentId, date);
+    }
+
+    // ============ HELPER METHODS ============
+
+    /**
+     * Only today's pings are accepted: tracks and presence are per day, and a
+     * ping from far in the future is a broken device clock.
+     */
+    private boolean isValid(LocationPingDto ping, long time, long dayStart, long now) {
+        return Math.abs(ping.getLatitude()) <= 90 && Math.abs(ping.getLongitude()) <= 180
+                && time >= dayStart && time <= now + maxFutureSkewMs;
+    }
+
+    private void write(List<Ping> batch) {
+        Map<TrackKey, List<LocationTrackCodec.TrackPoint>> tracks = new LinkedHashMap<>();
+        Map<UUID, Ping> latest = new HashMap<>();
+        ZoneId zone = ZoneId.systemDefault();
+        for (Ping ping : batch) {
+            LocalDate date = Instant.ofEpochMilli(ping.timeMillis()).atZone(zone).toLocalDate();
+            tracks.computeIfAbsent(new TrackKey(ping.agentId(), date), key -> new ArrayList<>())
+                    .add(new LocationTrackCodec.TrackPoint(ping.timeMillis(), ping.latitude(), ping.longitude()));
+            latest.put(ping.agentId(), ping);
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(APPEND_SQL, new ArrayList<>(tracks.entrySet()), tracks.size(), (ps, track) -> {
+                List<LocationTrackCodec.TrackPoint> points = track.getValue();
+                ps.setObject(1, UUID.randomUUID());
+                ps.setObject(2, track.getKey().agentId());
+                ps.setObject(3, track.getKey().date());
+                ps.setInt(4, points.size());
+                ps.setTimestamp(5, new Timestamp(points.get(0).timeMillis()));
+                ps.setTimestamp(6, new Timestamp(points.get(points.size() - 1).timeMillis()));
+                ps.setBytes(7, LocationTrackCodec.encodeChunk(points));
+            });
+            written.increment(batch.size());
+        } catch (DataAccessException e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} location pings for {} tracks: {}",
+                    batch.size(), tracks.size(), e.getMessage());
+        }
+
+        presenceRegistry.updatePositions(latest.values().stream()
+                .map(p -> new AgentPresenceRegistry.PositionUpdate(
+                        p.agentId(), p.latitude(), p.longitude(), p.timeMillis()))
+                .toList());
+    }
+
+    private void writeLine(OutputStream out, LocationTrackCodec.TrackPoint point) {
+        try {
+            LocationPingDto line = new LocationPingDto(
+                    point.latitude(), point.longitude(), Instant.ofEpochMilli(point.timeMillis()));
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Ping(UUID agentId, long timeMillis, double latitude, double longitude) {
+    }
+
+    private record TrackKey(UUID agentId, LocalDate date) {
+    }
+}
@@ -0,0 +1,109 @@
+package com.takeam.userservice.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Binary encoding of an agent's location track. A track is a sequence of
+ * self-contained chunks, so new pings are stored by appending a chunk without
+ * reading what is already there. Each chunk is the point count followed by
+ * the first point in full and every later point as a delta from the one
+ * before it, all as zig-zag varints. Coordinates are kept at 1e-5 degrees
+ * (about a metre), so a moving agent costs 4-6 bytes per ping.
+ */
+final class LocationTrackCodec {
+
+    private static final double SCALE = 100_000d;
+
+    private LocationTrackCodec() {
+    }
+
+    record TrackPoint(long timeMillis, double latitude, double longitude) {
+    }
+
+    /**
+     * Encode points, in the order they were recorded, as one chunk.
+     */
+    static byte[] encodeChunk(List<TrackPoint> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + points.size() * 6);
+        writeVarint(out, points.size());
+
+        long previousTime = 0;
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        for (TrackPoint point : points) {
+            long latitude = Math.round(point.latitude() * SCALE);
+            long longitude = Math.round(point.longitude() * SCALE);
+            writeVarint(out, zigZag(point.timeMillis() - previousTime));
+            writeVarint(out, zigZag(latitude - previousLatitude));
+            writeVarint(out, zigZag(longitude - previousLongitude));
+            previousTime = point.timeMillis();
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode a whole track, chunk after chunk, handing each point to the
+     * consumer as soon as it is read.
+     */
+    static void decode(InputStream in, Consumer<TrackPoint> consumer) throws IOException {
+        long count;
+        while ((count = readVarint(in, true)) >= 0) {
+            long time = 0;
+            long latitude = 0;
+            long longitude = 0;
+            for (long i = 0; i < count; i++) {
+                time += unZigZag(readVarint(in, false));
+                latitude += unZigZag(readVarint(in, false));
+                longitude += unZigZag(readVarint(in, false));
+                consumer.accept(new TrackPoint(time, latitude / SCALE, longitude / SCALE));
+            }
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Returns -1 when the stream ends cleanly before the first byte and
+     * {@code endAllowed} is set; ending anywhere else means a truncated track.
+     */
+    private static long readVarint(InputStream in, boolean endAllowed) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (endAllowed && shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("Truncated location track");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in location track");
+    }
+}
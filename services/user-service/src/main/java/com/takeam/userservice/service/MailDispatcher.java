@@ -0,0 +1,201 @@
+package com.takeam.userservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues outgoing emails and sends them in batches over pooled SMTP connections.
+ * One worker per pooled connection drains up to {@code batch-size} messages and
+ * sends them all on a single connection. Urgent messages (OTPs) sit in their
+ * own queue and are always drained first. Mail queued from a notification lane
+ * keeps the lane's deadline and is dropped, not sent, once that has passed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MailDispatcher {
+
+    private final SmtpConnectionPool connectionPool;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mail.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${mail.dispatch.batch-size:20}")
+    private int batchSize;
+
+    private BlockingQueue<OutgoingMail> urgentQueue;
+    private BlockingQueue<OutgoingMail> queue;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    private Counter sentCounter;
+    private Counter failedCounter;
+    private Counter rejectedCounter;
+    private Counter expiredCounter;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void start() {
+        urgentQueue = new ArrayBlockingQueue<>(queueCapacity);
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        sentCounter = meterRegistry.counter("mail.messages.sent");
+        failedCounter = meterRegistry.counter("mail.messages.failed");
+        rejectedCounter = meterRegistry.counter("mail.messages.rejected");
+        expiredCounter = meterRegistry.counter("mail.messages.expired");
+        batchTimer = meterRegistry.timer("mail.batch.send");
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size).tag("lane", "normal").register(meterRegistry);
+        Gauge.builder("mail.queue.size", urgentQueue, BlockingQueue::size).tag("lane", "urgent").register(meterRegistry);
+
+        running = true;
+        int workerCount = connectionPool.getPoolSize();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::drainLoop);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a message for delivery. Returns false when the queue is full.
+     */
+    public boolean submit(MimeMessage message, String toEmail, String subject, boolean urgent) {
+        return submit(message, toEmail, subject, urgent, NotificationLanes.currentDeadline());
+    }
+
+    /**
+     * As above, for callers off the notification lane thread that carry the
+     * lane's deadline themselves.
+     */
+    public boolean submit(MimeMessage message, String toEmail, String subject, boolean urgent, long deadline) {
+        OutgoingMail mail = new OutgoingMail(message, toEmail, subject, deadline);
+        boolean accepted = urgent ? urgentQueue.offer(mail) : queue.offer(mail);
+        if (!accepted) {
+            rejectedCounter.increment();
+            log.error("Mail queue full, dropping email to: {} | Subject: {}", toEmail, subject);
+            log.info("=== EMAIL FALLBACK === To: {} | Subject: {}", toEmail, subject);
+        }
+        return accepted;
+    }
+
+    // ==================== WORKER ====================
+
+    private void drainLoop() {
+        List<OutgoingMail> batch = new ArrayList<>(batchSize);
+        while (running || !urgentQueue.isEmpty() || !queue.isEmpty()) {
+            try {
+                OutgoingMail first = urgentQueue.poll();
+                if (first == null) {
+                    // Short wait so an urgent message arriving meanwhile is picked up quickly
+                    first = queue.poll(50, TimeUnit.MILLISECONDS);
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                urgentQueue.drainTo(batch, batchSize - batch.size());
+                queue.drainTo(batch, batchSize - batch.size());
+                batch.removeIf(this::dropIfExpired);
+                if (!batch.isEmpty()) {
+                    batchTimer.record(() -> sendBatch(batch));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Mail dispatcher error: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<OutgoingMail> batch) {
+        int next = 0;
+        while (next < batch.size()) {
+            SmtpConnectionPool.PooledTransport transport;
+            try {
+                transport = connectionPool.borrow();
+            } catch (MessagingException e) {
+                batch.subList(next, batch.size()).forEach(mail -> recordFailure(mail, e));
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.subList(next, batch.size()).forEach(mail -> recordFailure(mail, e));
+                return;
+            }
+
+            boolean healthy = true;
+            try {
+                while (next < batch.size()) {
+                    OutgoingMail mail = batch.get(next++);
+                    if (dropIfExpired(mail)) {
+                        // Waited too long for a connection
+                        continue;
+                    }
+                    try {
+                        transport.send(mail.message());
+                        sentCounter.increment();
+                        log.info("Email sent to: {} | Subject: {}", mail.toEmail(), mail.subject());
+                    } catch (MessagingException e) {
+                        recordFailure(mail, e);
+                        if (!transport.isConnected()) {
+                            // Connection dropped; retry the rest of the batch on a fresh one
+                            healthy = false;
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                connectionPool.release(transport, healthy);
+            }
+        }
+    }
+
+    private boolean dropIfExpired(OutgoingMail mail) {
+        if (!NotificationLanes.isExpired(mail.deadline())) {
+            return false;
+        }
+        expiredCounter.increment();
+        log.warn("Dropping expired email to: {} | Subject: {}", mail.toEmail(), mail.subject());
+        return true;
+    }
+
+    private void recordFailure(OutgoingMail mail, Exception e) {
+        failedCounter.increment();
+        log.error("Failed to send email to: {} | Subject: {} | Error: {}", mail.toEmail(), mail.subject(), e.getMessage());
+        log.info("=== EMAIL FALLBACK === To: {} | Subject: {}", mail.toEmail(), mail.subject());
+    }
+
+    // deadline is a System.nanoTime() value, or NotificationLanes.NO_DEADLINE
+    private record OutgoingMail(MimeMessage message, String toEmail, String subject, long deadline) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.model.NotificationPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs notification work on one executor per {@link NotificationPriority}.
+ * Tasks that waited past their lane's deadline are dropped instead of sent.
+ * The deadline stays visible to the task through {@link #currentDeadline()},
+ * so the mail and SMS queues it hands off to can drop the message as well.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationLanes {
+
+    public static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    // System.nanoTime() deadline of the lane task running on this thread
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<NotificationPriority, Lane> lanes = new EnumMap<>(NotificationPriority.class);
+
+    @PostConstruct
+    void init() {
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            lanes.put(priority, new Lane(priority));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (Lane lane : lanes.values()) {
+            lane.executor.shutdown();
+        }
+        for (Lane lane : lanes.values()) {
+            lane.executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * The {@link System#nanoTime()} by which the notification task running on
+     * this thread must be delivered, or {@link #NO_DEADLINE}.
+     */
+    public static long currentDeadline() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? deadline : NO_DEADLINE;
+    }
+
+    public static boolean isExpired(long deadline) {
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline > 0;
+    }
+
+    public void submit(NotificationPriority priority, String description, Runnable task) {
+        Lane lane = lanes.get(priority);
+        long enqueuedAt = System.nanoTime();
+
+        try {
+            lane.executor.execute(() -> run(lane, description, task, enqueuedAt));
+        } catch (RejectedExecutionException e) {
+            lane.rejected.increment();
+            log.error("{} notification lane full, dropping: {}", priority, description);
+        }
+    }
+
+    private void run(Lane lane, String description, Runnable task, long enqueuedAt) {
+        NotificationPriority priority = lane.priority;
+        long deadline = priority.getDeadline() != null ? enqueuedAt + priority.getDeadline().toNanos() : NO_DEADLINE;
+
+        if (isExpired(deadline)) {
+            lane.expired.increment();
+            log.warn("Dropping expired {} notification after {} ms: {}",
+                    priority, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedAt), description);
+            return;
+        }
+
+        DEADLINE.set(deadline);
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("{} notification failed: {} - Error: {}", priority, description, e.getMessage());
+        } finally {
+            DEADLINE.remove();
+            lane.latency.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private class Lane {
+
+        private final NotificationPriority priority;
+        private final ThreadPoolExecutor executor;
+        private final Timer latency;
+        private final Counter expired;
+        private final Counter rejected;
+
+        Lane(NotificationPriority priority) {
+            this.priority = priority;
+            String lane = priority.name().toLowerCase();
+            AtomicInteger threadCount = new AtomicInteger();
+
+            this.executor = new ThreadPoolExecutor(
+                    priority.getThreads(),
+                    priority.getThreads(),
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(priority.getQueueCapacity()),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "notify-" + lane + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    // OTPs must not be dropped for capacity reasons: run them on the caller instead
+                    priority == NotificationPriority.CRITICAL
+                            ? new ThreadPoolExecutor.CallerRunsPolicy()
+                            : new ThreadPoolExecutor.AbortPolicy()
+            );
+
+            this.latency = Timer.builder("notification.lane.latency")
+                    .tag("lane", lane)
+                    .serviceLevelObjectives(priority.getLatencySlo())
+                    .register(meterRegistry);
+            this.expired = meterRegistry.counter("notification.lane.expired", "lane", lane);
+            this.rejected = meterRegistry.counter("notification.lane.rejected", "lane", lane);
+            Gauge.builder("notification.lane.queued", executor, e -> e.getQueue().size())
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+        }
+    }
+}
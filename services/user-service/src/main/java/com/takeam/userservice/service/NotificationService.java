@@ -1,10 +1,14 @@
 package com.takeam.userservice.service;
 
+import com.takeam.userservice.model.NotificationPriority;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -12,81 +16,143 @@ public class NotificationService {
 
     private final EmailService emailService;
     private final SmsService smsService;
+    private final NotificationLanes lanes;
 
     // ─────────────────────────────────────────────
     // OTP NOTIFICATIONS
     // ─────────────────────────────────────────────
 
-    @Async
     public void sendEmailOtp(String email, String otp, String name) {
         log.info("Sending email OTP to: {}", email);
-        emailService.sendOTPEmail(email, otp, name);
+        lanes.submit(NotificationPriority.CRITICAL, "email OTP to " + email,
+                () -> emailService.sendOTPEmail(email, otp, name));
     }
 
-    @Async
     public void sendSmsOtp(String phoneNumber, String otp) {
         log.info("Sending SMS OTP to: {}", phoneNumber);
-        smsService.sendOtpSms(phoneNumber, otp);
+        lanes.submit(NotificationPriority.CRITICAL, "SMS OTP to " + phoneNumber,
+                () -> smsService.sendOtpSms(phoneNumber, otp));
+    }
+
+    /**
+     * Queue a whole batch of SMS OTPs as one lane task; the sends themselves
+     * are non-blocking, so the batch is handed to the gateway back to back.
+     */
+    public void sendSmsOtps(Map<String, String> otpsByPhone) {
+        if (otpsByPhone.isEmpty()) {
+            return;
+        }
+        log.info("Sending {} SMS OTPs", otpsByPhone.size());
+        Map<String, String> batch = Map.copyOf(otpsByPhone);
+        lanes.submit(NotificationPriority.CRITICAL, batch.size() + " SMS OTPs",
+                () -> batch.forEach(smsService::sendOtpSms));
     }
 
-    @Async
     public void sendLoginEmailOtp(String email, String otp, String name) {
         log.info("Sending login email OTP to: {}", email);
-        emailService.sendLoginOTPEmail(email, otp, name);
+        lanes.submit(NotificationPriority.CRITICAL, "login email OTP to " + email,
+                () -> emailService.sendLoginOTPEmail(email, otp, name));
     }
 
-    @Async
     public void sendPasswordResetOtp(String email, String otp, String name) {
         log.info("Sending password reset OTP to: {}", email);
-        emailService.sendPasswordResetEmail(email, otp, name);
+        lanes.submit(NotificationPriority.CRITICAL, "password reset OTP to " + email,
+                () -> emailService.sendPasswordResetEmail(email, otp, name));
     }
 
     // ─────────────────────────────────────────────
     // WELCOME NOTIFICATIONS
     // ─────────────────────────────────────────────
 
-    @Async
     public void sendWelcome(String email, String phoneNumber, String name, String role) {
         log.info("Sending welcome notification to: {} / {}", email, phoneNumber);
-        if (email != null) {
-            emailService.sendWelcomeEmail(email, name, role);
-        }
-        if (phoneNumber != null) {
-            smsService.sendWelcomeSms(phoneNumber, name);
-        }
+        lanes.submit(NotificationPriority.LOW, "welcome to " + phoneNumber, () -> {
+            if (email != null) {
+                emailService.sendWelcomeEmail(email, name, role);
+            }
+            if (phoneNumber != null) {
+                smsService.sendWelcomeSms(phoneNumber, name);
+            }
+        });
     }
 
     // ─────────────────────────────────────────────
     // ACCOUNT STATUS NOTIFICATIONS
     // ─────────────────────────────────────────────
 
-    @Async
     public void sendAccountApproved(String email, String phoneNumber, String name) {
         log.info("Sending account approved notification to: {}", email);
-        if (email != null) {
-            emailService.sendAccountApprovedEmail(email, name);
+        lanes.submit(NotificationPriority.HIGH, "account approved to " + email, () -> {
+            if (email != null) {
+                emailService.sendAccountApprovedEmail(email, name);
+            }
+            if (phoneNumber != null) {
+                smsService.sendAccountApprovedSms(phoneNumber, name);
+            }
+        });
+    }
+
+    /**
+     * Queue approval notices for a bulk approval as one lane task. Emails are
+     * personalised; the SMS is one shared text sent in bulk requests.
+     */
+    public void sendAccountsApproved(List<Recipient> recipients) {
+        if (recipients.isEmpty()) {
+            return;
         }
-        if (phoneNumber != null) {
-            smsService.sendAccountApprovedSms(phoneNumber, name);
+        log.info("Sending {} account approved notifications", recipients.size());
+        List<Recipient> batch = List.copyOf(recipients);
+        lanes.submit(NotificationPriority.HIGH, batch.size() + " account approved notifications",
+                () -> {
+                    batch.forEach(recipient -> {
+                        if (recipient.email() != null) {
+                            emailService.sendAccountApprovedEmail(recipient.email(), recipient.name());
+                        }
+                    });
+                    smsService.sendAccountsApprovedSms(batch.stream()
+                            .map(Recipient::phoneNumber)
+                            .filter(Objects::nonNull)
+                            .toList());
+                });
+    }
+
+    /**
+     * Queue rejection notices for a bulk rejection as one lane task.
+     */
+    public void sendApplicationsRejected(List<Recipient> recipients, String reason) {
+        if (recipients.isEmpty()) {
+            return;
         }
+        log.info("Sending {} application rejected notifications", recipients.size());
+        List<Recipient> batch = List.copyOf(recipients);
+        lanes.submit(NotificationPriority.HIGH, batch.size() + " application rejected notifications",
+                () -> batch.forEach(recipient -> {
+                    if (recipient.email() != null) {
+                        emailService.sendApplicationRejectedEmail(recipient.email(), recipient.name(), reason);
+                    }
+                }));
     }
 
-    @Async
     public void sendAccountLocked(String email, String phoneNumber, String name) {
         log.info("Sending account locked notification to: {}", email);
-        if (email != null) {
-            emailService.sendAccountLockedEmail(email, name);
-        }
-        if (phoneNumber != null) {
-            smsService.sendAccountLockedSms(phoneNumber);
-        }
+        lanes.submit(NotificationPriority.HIGH, "account locked to " + email, () -> {
+            if (email != null) {
+                emailService.sendAccountLockedEmail(email, name);
+            }
+            if (phoneNumber != null) {
+                smsService.sendAccountLockedSms(phoneNumber);
+            }
+        });
     }
 
-    @Async
     public void sendPasswordChanged(String email, String name) {
         log.info("Sending password changed notification to: {}", email);
         if (email != null) {
-            emailService.sendPasswordChangedEmail(email, name);
+            lanes.submit(NotificationPriority.HIGH, "password changed to " + email,
+                    () -> emailService.sendPasswordChangedEmail(email, name));
         }
     }
-}
\ No newline at end of file
+
+    public record Recipient(String email, String phoneNumber, String name) {
+    }
+}
@@ -2,11 +2,15 @@ package com.takeam.userservice.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
 import java.time.Duration;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +35,25 @@ public class OTPService {
         log.info("OTP stored for: {} (expires in 5 minutes)", identifier);
     }
 
+    /**
+     * Store many OTPs in one pipelined round trip to Redis.
+     */
+    public void storeOTPs(Map<String, String> otpsByIdentifier) {
+        if (otpsByIdentifier.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                ValueOperations<String, String> values = (ValueOperations<String, String>) operations.opsForValue();
+                otpsByIdentifier.forEach((identifier, otp) -> values.set(OTP_PREFIX + identifier, otp, OTP_VALIDITY));
+                return null;
+            }
+        });
+        log.info("Stored {} OTPs (expire in 5 minutes)", otpsByIdentifier.size());
+    }
+
     public boolean verifyOTP(String identifier, String otp) {
         String key = OTP_PREFIX + identifier;
         String storedOTP = redisTemplate.opsForValue().get(key);
@@ -65,6 +88,10 @@ public class OTPService {
         notificationService.sendSmsOtp(phoneNumber, otp);
     }
 
+    public void sendOTPsToPhones(Map<String, String> otpsByPhone) {
+        notificationService.sendSmsOtps(otpsByPhone);
+    }
+
     public void sendOTPToEmail(String email, String otp, String name) {
         notificationService.sendEmailOtp(email, otp, name);
     }
@@ -0,0 +1,64 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Phone numbers arrive from other services as typed by people: with spaces or
+ * dashes, in local {@code 0803...} form, with {@code 00} or {@code +}. They are
+ * normalized to E.164 ({@code +2348031234567}), defaulting to Nigeria, so one
+ * number has one cache key. Stored numbers predate normalization, so lookups
+ * match every form a number may have been registered in.
+ */
+final class PhoneNumbers {
+
+    private static final String DEFAULT_COUNTRY_CODE = "234";
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\-().]");
+    private static final Pattern E164 = Pattern.compile("^\\+[1-9]\\d{7,14}$");
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * The E.164 form of {@code raw}; throws for anything that cannot be a
+     * phone number.
+     */
+    static String normalize(String raw) {
+        String digits = raw == null ? "" : SEPARATORS.matcher(raw.trim()).replaceAll("");
+        String normalized;
+        if (digits.startsWith("+")) {
+            normalized = digits;
+        } else if (digits.startsWith("00")) {
+            normalized = "+" + digits.substring(2);
+        } else if (digits.startsWith("0")) {
+            normalized = "+" + DEFAULT_COUNTRY_CODE + digits.substring(1);
+        } else if (digits.length() == 10) {
+            // National number without its trunk 0
+            normalized = "+" + DEFAULT_COUNTRY_CODE + digits;
+        } else {
+            normalized = "+" + digits;
+        }
+        if (!E164.matcher(normalized).matches()) {
+            throw new BadRequestException("Invalid phone number: " + raw);
+        }
+        return normalized;
+    }
+
+    /**
+     * The forms a normalized number may be stored in, most likely first.
+     */
+    static List<String> storedForms(String normalized) {
+        Set<String> forms = new LinkedHashSet<>();
+        forms.add(normalized);
+        forms.add(normalized.substring(1));
+        if (normalized.startsWith("+" + DEFAULT_COUNTRY_CODE)) {
+            forms.add(normalized.substring(1 + DEFAULT_COUNTRY_CODE.length()));
+        }
+        return new ArrayList<>(forms);
+    }
+}
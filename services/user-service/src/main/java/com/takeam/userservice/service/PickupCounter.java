@@ -0,0 +1,250 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.event.PickupsCompletedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Adds completed pickups to today's attendance rows. Increments arriving
+ * within {@code linger-ms} of each other are summed per agent and written
+ * as one JDBC batch of {@code completed_pickups = completed_pickups + ?}
+ * updates, so concurrent pickups never read-modify-write the row. Each
+ * caller's future completes once its increment is in the database, with
+ * false when the agent has no attendance row today. Callers that wait do so
+ * for at most {@code wait-timeout-ms}; an increment still unwritten by then
+ * is reported as {@link Outcome#PENDING}, as its batch may yet commit.
+ */
+@Component
+@Slf4j
+public class PickupCounter {
+
+    private static final String INCREMENT_SQL = """
+            UPDATE agent_attendance
+            SET completed_pickups = completed_pickups + ?, updated_at = ?
+            WHERE agent_id = ? AND date = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DistributionSummary batchSizes;
+    private final int maxAgents;
+    private final long lingerMs;
+    private final long waitTimeoutMs;
+
+    private Map<Key, Pending> pending = new HashMap<>();
+    private ScheduledFuture<?> flushTask;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "pickup-counter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PickupCounter(
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${pickups.batch.max-agents:500}") int maxAgents,
+            @Value("${pickups.batch.linger-ms:20}") long lingerMs,
+            @Value("${pickups.batch.wait-timeout-ms:5000}") long waitTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSizes = meterRegistry.summary("pickups.batch.size");
+        this.maxAgents = maxAgents;
+        this.lingerMs = lingerMs;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    /**
+     * What a waiting caller learns about its increment.
+     */
+    public enum Outcome {
+        APPLIED,
+        // The agent has no attendance row today; nothing was counted
+        NOT_CLOCKED_IN,
+        // Not written within the wait timeout; may still be counted, so must not be resent
+        PENDING
+    }
+
+    /**
+     * One agent's summed increment for a day, as written to the database.
+     */
+    record Increment(UUID agentId, LocalDate date, int count) {
+    }
+
+    public CompletableFuture<Boolean> increment(UUID agentId, int count) {
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        Map<Key, Pending> full = null;
+
+        synchronized (this) {
+            pending.computeIfAbsent(new Key(agentId, LocalDate.now()), key -> new Pending()).add(count, future);
+            if (pending.size() >= maxAgents) {
+                full = takePending();
+            } else if (flushTask == null) {
+                flushTask = scheduler.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (full != null) {
+            write(full);
+        }
+        return future;
+    }
+
+    /**
+     * Apply one agent's increment and wait for it.
+     */
+    public Outcome incrementAndWait(UUID agentId, int count) {
+        return await(increment(agentId, count), System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs));
+    }
+
+    /**
+     * Apply many agents' increments and wait for them, sharing one deadline.
+     */
+    public Map<UUID, Outcome> incrementAll(Map<UUID, Integer> counts) {
+        Map<UUID, CompletableFuture<Boolean>> futures = new HashMap<>();
+        counts.forEach((agentId, count) -> futures.put(agentId, increment(agentId, count)));
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        Map<UUID, Outcome> outcomes = new HashMap<>();
+        futures.forEach((agentId, future) -> outcomes.put(agentId, await(future, deadline)));
+        return outcomes;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+        scheduler.shutdown();
+    }
+
+    // ============ HELPER METHODS ============
+
+    // Timing out leaves the increment queued; only the caller stops waiting for it
+    private Outcome await(CompletableFuture<Boolean> future, long deadline) {
+        try {
+            boolean applied = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return applied ? Outcome.APPLIED : Outcome.NOT_CLOCKED_IN;
+        } catch (TimeoutException e) {
+            return Outcome.PENDING;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Outcome.PENDING;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void flush() {
+        Map<Key, Pending> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    // Caller holds the lock
+    private Map<Key, Pending> takePending() {
+        Map<Key, Pending> batch = pending;
+        pending = new HashMap<>();
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        return batch;
+    }
+
+    private void write(Map<Key, Pending> batch) {
+        // Same row order in every batch, so overlapping batches cannot deadlock
+        List<Map.Entry<Key, Pending>> entries = new ArrayList<>(batch.entrySet());
+        entries.sort(Map.Entry.comparingByKey(Comparator.comparing(Key::agentId).thenComparing(Key::date)));
+        List<Increment> increments = entries.stream()
+                .map(entry -> new Increment(entry.getKey().agentId(), entry.getKey().date(), entry.getValue().count))
+                .toList();
+        batchSizes.record(increments.size());
+
+        int[][] results;
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            results = jdbcTemplate.batchUpdate(INCREMENT_SQL, increments, increments.size(), (ps, increment) -> {
+                ps.setInt(1, increment.count());
+                ps.setTimestamp(2, now);
+                ps.setObject(3, increment.agentId());
+                ps.setObject(4, increment.date());
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to add pickups for {} agents: {}", increments.size(), e.getMessage());
+            entries.forEach(entry -> entry.getValue().complete(e, false));
+            return;
+        }
+
+        // Release every waiter before running listeners, which may be slow or throw
+        List<Increment> applied = new ArrayList<>(increments.size());
+        int index = 0;
+        for (int[] chunk : results) {
+            for (int rows : chunk) {
+                entries.get(index).getValue().complete(null, rows != 0);
+                if (rows != 0) {
+                    applied.add(increments.get(index));
+                }
+                index++;
+            }
+        }
+
+        for (Increment increment : applied) {
+            try {
+                eventPublisher.publishEvent(
+                        new PickupsCompletedEvent(increment.agentId(), increment.date(), increment.count()));
+            } catch (RuntimeException e) {
+                log.error("Pickups completed listener failed for agent {}: {}", increment.agentId(), e.getMessage());
+            }
+        }
+    }
+
+    private record Key(UUID agentId, LocalDate date) {
+    }
+
+    private static class Pending {
+
+        private int count;
+        private final List<CompletableFuture<Boolean>> waiters = new ArrayList<>(1);
+
+        void add(int increment, CompletableFuture<Boolean> future) {
+            count += increment;
+            waiters.add(future);
+        }
+
+        void complete(Throwable error, boolean applied) {
+            waiters.forEach(future -> {
+                if (error == null) {
+                    future.complete(applied);
+                } else {
+                    future.completeExceptionally(error);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.takeam.userservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Picks one replica to run a scheduled job: whoever sets the lock key first
+ * holds it until it releases it or the TTL runs out. Each holder gets its
+ * own token, so a holder whose lease expired cannot release someone else's.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisLeaderLock {
+
+    private static final String KEY_PREFIX = "lock:";
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * Returns the lease token, or null when another replica holds the lock
+     * or Redis cannot be reached.
+     */
+    public String tryAcquire(String name, Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, token, ttl);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            log.warn("Could not acquire lock {}: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    public void release(String name, String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + name), token);
+        } catch (RuntimeException e) {
+            // The lease expires on its own
+            log.warn("Could not release lock {}: {}", name, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.exception.SmsDeliveryException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Routes SMS through the providers listed in {@code sms.providers}, in that
+ * order, failing over to the next one on error and skipping any whose
+ * circuit breaker is open. A message sent from a notification lane is not
+ * tried on the next provider once the lane's deadline has passed.
+ */
+@Component
+@Slf4j
+public class SmsGateway {
+
+    private final List<SmsProvider> providers;
+    private final Map<String, CircuitBreaker> breakers = new LinkedHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SmsGateway(
+            List<SmsProvider> availableProviders,
+            MeterRegistry meterRegistry,
+            @Value("${sms.providers:termii}") List<String> providerNames,
+            @Value("${sms.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${sms.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this.providers = select(availableProviders, providerNames);
+        this.meterRegistry = meterRegistry;
+        providers.forEach(provider ->
+                breakers.put(provider.getName(), new CircuitBreaker(failureThreshold, openDurationMs)));
+        log.info("SMS providers in failover order: {}", providers.stream().map(SmsProvider::getName).toList());
+    }
+
+    public CompletableFuture<Void> send(String phoneNumber, String message) {
+        return attempt(0, phoneNumber, NotificationLanes.currentDeadline(),
+                provider -> provider.send(phoneNumber, message));
+    }
+
+    public CompletableFuture<Void> sendBulk(List<String> phoneNumbers, String message) {
+        String recipients = phoneNumbers.size() + " recipients";
+        return attempt(0, recipients, NotificationLanes.currentDeadline(),
+                provider -> provider.sendBulk(phoneNumbers, message));
+    }
+
+    public CircuitBreaker.State getState(String providerName) {
+        CircuitBreaker breaker = breakers.get(providerName);
+        return breaker != null ? breaker.getState() : null;
+    }
+
+    private static List<SmsProvider> select(List<SmsProvider> availableProviders, List<String> providerNames) {
+        Map<String, SmsProvider> byName = new LinkedHashMap<>();
+        availableProviders.forEach(provider -> byName.put(provider.getName(), provider));
+
+        List<SmsProvider> selected = new ArrayList<>();
+        for (String name : providerNames) {
+            SmsProvider provider = byName.get(name.trim());
+            if (provider == null) {
+                throw new IllegalStateException("Unknown SMS provider '" + name + "', available: " + byName.keySet());
+            }
+            if (!selected.contains(provider)) {
+                selected.add(provider);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalStateException("sms.providers must list at least one provider");
+        }
+        return List.copyOf(selected);
+    }
+
+    private CompletableFuture<Void> attempt(
+            int index,
+            String recipient,
+            long deadline,
+            Function<SmsProvider, CompletableFuture<Void>> call) {
+        if (NotificationLanes.isExpired(deadline)) {
+            meterRegistry.counter("sms.expired").increment();
+            return CompletableFuture.failedFuture(
+                    new SmsDeliveryException("Delivery deadline passed for: " + recipient));
+        }
+        if (index >= providers.size()) {
+            return CompletableFuture.failedFuture(
+                    new SmsDeliveryException("No SMS provider available for: " + recipient));
+        }
+
+        SmsProvider provider = providers.get(index);
+        CircuitBreaker breaker = breakers.get(provider.getName());
+
+        if (!breaker.allowRequest()) {
+            meterRegistry.counter("sms.skipped", "provider", provider.getName()).increment();
+            return attempt(index + 1, recipient, deadline, call);
+        }
+
+        return call.apply(provider)
+                .handle((ignored, error) -> {
+                    if (error == null) {
+                        breaker.recordSuccess();
+                        meterRegistry.counter("sms.sent", "provider", provider.getName()).increment();
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    breaker.recordFailure();
+                    meterRegistry.counter("sms.failed", "provider", provider.getName()).increment();
+                    log.warn("SMS provider {} failed for: {} - {}", provider.getName(), recipient, error.getMessage());
+                    return attempt(index + 1, recipient, deadline, call);
+                })
+                .thenCompose(Function.identity());
+    }
+}
@@ -0,0 +1,25 @@
+package com.takeam.userservice.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An SMS delivery channel. Implementations must never block the caller;
+ * the returned future completes exceptionally when delivery fails.
+ */
+public interface SmsProvider {
+
+    String getName();
+
+    CompletableFuture<Void> send(String phoneNumber, String message);
+
+    /**
+     * Send the same message to several recipients. Providers without a bulk
+     * endpoint fall back to one request per recipient.
+     */
+    default CompletableFuture<Void> sendBulk(List<String> phoneNumbers, String message) {
+        return CompletableFuture.allOf(phoneNumbers.stream()
+                .map(phoneNumber -> send(phoneNumber, message))
+                .toArray(CompletableFuture[]::new));
+    }
+}
@@ -1,66 +1,59 @@
 package com.takeam.userservice.service;
 
+import com.takeam.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SmsService {
 
-    @Value("${termii.api-key")
-    private String apiKey;
-
-//    @Value("${termii.sender-id:talert}")
-//    private String senderId;
-
-    @Value("${termii.api-url")
-    private String apiUrl;
-
-    private final RestTemplate restTemplate;
+    private final SmsGateway smsGateway;
+    private final BatchingSmsSender batchingSmsSender;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
 
+    /**
+     * Send immediately, bypassing batching. Used for OTPs and anything latency-sensitive.
+     */
     public void sendSms(String phoneNumber, String message) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("to", phoneNumber);
-            body.put("sms", message);
-            body.put("type", "plain");
-            body.put("channel", "generic"); // ✅ use generic
-            body.put("api_key", apiKey);
+        sendSms(phoneNumber, message, false);
+    }
 
-//            body.put("to", phoneNumber);
-//            body.put("from", senderId);
-//            body.put("sms", message);
-//            body.put("type", "plain");
-//            body.put("channel", "dnd");
-//            body.put("api_key", apiKey);
+    private void sendSms(String phoneNumber, String message, boolean urgent) {
+        // Captured here: the result is handled on the SMS client's thread, outside the lane
+        long deadline = NotificationLanes.currentDeadline();
+        handleResult(smsGateway.send(phoneNumber, message), phoneNumber, message, urgent, deadline);
+    }
 
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-            log.info("Calling Termii URL: {}", apiUrl);
-            log.info("API Key starts with: {}", apiKey.isEmpty() ? "EMPTY!" : apiKey.substring(0, 10) + "...");
-            ResponseEntity<String> response = restTemplate.postForEntity(apiUrl, request, String.class);
+    /**
+     * Queue for a bulk request together with other recipients of the same text.
+     * Only for texts sent unchanged to many people at once: personalised or
+     * one-off texts never share a batch and would only wait out the linger time.
+     */
+    public void sendBatchedSms(String phoneNumber, String message) {
+        long deadline = NotificationLanes.currentDeadline();
+        handleResult(batchingSmsSender.send(phoneNumber, message), phoneNumber, message, false, deadline);
+    }
 
-            if (response.getStatusCode().is2xxSuccessful()) {
+    private void handleResult(CompletableFuture<Void> result, String phoneNumber, String message,
+                              boolean urgent, long deadline) {
+        result.whenComplete((ignored, error) -> {
+            if (error == null) {
                 log.info("SMS sent successfully to: {}", phoneNumber);
+            } else if (NotificationLanes.isExpired(deadline)) {
+                // Too late to be useful by email either, e.g. an expired OTP
+                log.warn("SMS to: {} not delivered before its deadline - Error: {}", phoneNumber, error.getMessage());
             } else {
-                log.error("SMS sending failed for: {} - Status: {}", phoneNumber, response.getStatusCode());
-                logSmsToConsole(phoneNumber, message);
+                log.error("Failed to send SMS to: {} - Error: {}", phoneNumber, error.getMessage());
+                failoverToEmail(phoneNumber, message, urgent, deadline);
             }
-
-        } catch (Exception e) {
-            log.error("Failed to send SMS to: {} - Error: {}", phoneNumber, e.getMessage());
-            logSmsToConsole(phoneNumber, message);
-        }
+        });
     }
 
     public void sendOtpSms(String phoneNumber, String otp) {
@@ -68,7 +61,7 @@ public class SmsService {
                 "Your TakeAm verification code is: %s\nValid for 5 minutes. Do not share this code.",
                 otp
         );
-        sendSms(phoneNumber, message);
+        sendSms(phoneNumber, message, true);
     }
 
     public void sendWelcomeSms(String phoneNumber, String name) {
@@ -76,6 +69,7 @@ public class SmsService {
                 "Welcome to TakeAm, %s! Your account is now active. Start buying and selling fresh produce today!",
                 name
         );
+        // Personalised, so it would never share a bulk request
         sendSms(phoneNumber, message);
     }
 
@@ -87,11 +81,36 @@ public class SmsService {
         sendSms(phoneNumber, message);
     }
 
+    /**
+     * The same notice for every agent in a bulk approval, so it goes out in
+     * bulk provider requests.
+     */
+    public void sendAccountsApprovedSms(List<String> phoneNumbers) {
+        String message = "Congratulations! Your TakeAm agent account has been approved. You can now log in and start registering traders.";
+        phoneNumbers.forEach(phoneNumber -> sendBatchedSms(phoneNumber, message));
+    }
+
     public void sendAccountLockedSms(String phoneNumber) {
         String message = "Your TakeAm account has been temporarily locked due to multiple failed login attempts. Try again in 30 minutes.";
+        // A per-user alert that rarely arrives in a burst; batching would only delay it
         sendSms(phoneNumber, message);
     }
 
+    private void failoverToEmail(String phoneNumber, String message, boolean urgent, long deadline) {
+        try {
+            userRepository.findByPhoneNumber(phoneNumber)
+                    .filter(user -> user.getEmail() != null)
+                    .ifPresentOrElse(
+                            user -> emailService.sendSmsFallbackEmail(
+                                    user.getEmail(), user.getFullName(), message, urgent, deadline),
+                            () -> logSmsToConsole(phoneNumber, message)
+                    );
+        } catch (Exception e) {
+            log.error("Email failover lookup failed for: {} - Error: {}", phoneNumber, e.getMessage());
+            logSmsToConsole(phoneNumber, message);
+        }
+    }
+
     private void logSmsToConsole(String phoneNumber, String message) {
         log.info("=".repeat(50));
         log.info("SMS TO: {}", phoneNumber);
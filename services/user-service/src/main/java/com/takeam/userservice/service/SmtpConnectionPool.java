@@ -0,0 +1,191 @@
+package com.takeam.userservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Keeps a small set of authenticated SMTP connections open so that sending an
+ * email does not pay for TCP connect + STARTTLS + AUTH every time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SmtpConnectionPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mail.pool.size:3}")
+    private int poolSize;
+
+    @Value("${mail.pool.max-idle-ms:60000}")
+    private long maxIdleMs;
+
+    @Value("${mail.pool.validate-after-ms:5000}")
+    private long validateAfterMs;
+
+    @Value("${mail.pool.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    private final BlockingQueue<PooledTransport> idle = new LinkedBlockingQueue<>();
+    private Semaphore permits;
+    private Counter connectionsOpened;
+    private Counter connectionsRecycled;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(poolSize);
+        connectionsOpened = meterRegistry.counter("mail.pool.connections.opened");
+        connectionsRecycled = meterRegistry.counter("mail.pool.connections.recycled");
+        Gauge.builder("mail.pool.connections.idle", idle, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Borrow a connected transport, blocking while all connections are in use.
+     */
+    public PooledTransport borrow() throws MessagingException, InterruptedException {
+        permits.acquire();
+        try {
+            PooledTransport transport;
+            while ((transport = idle.poll()) != null) {
+                if (isReusable(transport)) {
+                    return transport;
+                }
+                close(transport);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Return a transport to the pool. Broken or worn-out connections are closed.
+     */
+    public void release(PooledTransport transport, boolean healthy) {
+        try {
+            if (healthy && transport.getSentCount() < maxMessagesPerConnection) {
+                transport.touch();
+                idle.offer(transport);
+            } else {
+                close(transport);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.pool.health-check-interval-ms:30000}")
+    public void evictIdleConnections() {
+        List<PooledTransport> candidates = new ArrayList<>();
+        idle.drainTo(candidates);
+
+        for (PooledTransport transport : candidates) {
+            if (transport.idleMillis() > maxIdleMs || !transport.isConnected()) {
+                close(transport);
+            } else {
+                idle.offer(transport);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        List<PooledTransport> remaining = new ArrayList<>();
+        idle.drainTo(remaining);
+        remaining.forEach(this::close);
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private boolean isReusable(PooledTransport transport) {
+        if (transport.idleMillis() > maxIdleMs) {
+            return false;
+        }
+        // NOOP round-trip only when the connection has been quiet for a while
+        return transport.idleMillis() < validateAfterMs || transport.isConnected();
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+        transport.connect(
+                mailSender.getHost(),
+                mailSender.getPort(),
+                mailSender.getUsername(),
+                mailSender.getPassword()
+        );
+        connectionsOpened.increment();
+        log.info("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport transport) {
+        connectionsRecycled.increment();
+        try {
+            transport.getTransport().close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    public static class PooledTransport {
+
+        private final Transport transport;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private int sentCount;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public void send(MimeMessage message) throws MessagingException {
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            sentCount++;
+            lastUsed = System.currentTimeMillis();
+        }
+
+        public boolean isConnected() {
+            return transport.isConnected();
+        }
+
+        Transport getTransport() {
+            return transport;
+        }
+
+        int getSentCount() {
+            return sentCount;
+        }
+
+        long idleMillis() {
+            return System.currentTimeMillis() - lastUsed;
+        }
+
+        void touch() {
+            lastUsed = System.currentTimeMillis();
+        }
+    }
+}
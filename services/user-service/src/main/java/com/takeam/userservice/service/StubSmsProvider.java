@@ -0,0 +1,68 @@
+package com.takeam.userservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local provider for load tests and development: never leaves the process,
+ * simulates provider latency and counts what it was asked to send. Used only
+ * when listed in {@code sms.providers}.
+ */
+@Component
+@Slf4j
+public class StubSmsProvider implements SmsProvider {
+
+    private final Executor delayedExecutor;
+    private final AtomicLong sentCount = new AtomicLong();
+    private final Map<Integer, LongAdder> batchSizeCounts = new ConcurrentHashMap<>();
+
+    public StubSmsProvider(@Value("${sms.stub.latency-ms:50}") long latencyMs) {
+        this.delayedExecutor = CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String getName() {
+        return "stub";
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String phoneNumber, String message) {
+        return CompletableFuture.runAsync(() -> {
+            sentCount.incrementAndGet();
+            log.debug("Stub SMS to: {} | {}", phoneNumber, message);
+        }, delayedExecutor);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendBulk(List<String> phoneNumbers, String message) {
+        return CompletableFuture.runAsync(() -> {
+            sentCount.addAndGet(phoneNumbers.size());
+            batchSizeCounts.computeIfAbsent(phoneNumbers.size(), size -> new LongAdder()).increment();
+            log.debug("Stub bulk SMS to {} recipients | {}", phoneNumbers.size(), message);
+        }, delayedExecutor);
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    /**
+     * Number of bulk requests seen, keyed by batch size.
+     */
+    public Map<Integer, Long> getBatchSizeCounts() {
+        Map<Integer, Long> snapshot = new TreeMap<>();
+        batchSizeCounts.forEach((size, count) -> snapshot.put(size, count.sum()));
+        return snapshot;
+    }
+}
@@ -0,0 +1,106 @@
+package com.takeam.userservice.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.takeam.userservice.exception.SmsDeliveryException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@Slf4j
+public class TermiiSmsProvider implements SmsProvider {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String apiKey;
+    private final String senderId;
+    private final URI apiUri;
+    private final URI bulkApiUri;
+    private final Duration requestTimeout;
+
+    public TermiiSmsProvider(
+            HttpClient smsHttpClient,
+            ObjectMapper objectMapper,
+            @Value("${termii.api-key:}") String apiKey,
+            @Value("${termii.sender-id:talert}") String senderId,
+            @Value("${termii.api-url:https://v3.api.termii.com/api/sms/send}") String apiUrl,
+            @Value("${termii.bulk-api-url:https://v3.api.termii.com/api/sms/send/bulk}") String bulkApiUrl,
+            @Value("${sms.http.request-timeout-ms:5000}") long requestTimeoutMs) {
+        this.httpClient = smsHttpClient;
+        this.objectMapper = objectMapper;
+        this.apiKey = apiKey;
+        this.senderId = senderId;
+        this.apiUri = URI.create(apiUrl);
+        this.bulkApiUri = URI.create(bulkApiUrl);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+
+        if (apiKey.isBlank()) {
+            log.warn("Termii API key is not configured, SMS delivery will fail");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "termii";
+    }
+
+    @Override
+    public CompletableFuture<Void> send(String phoneNumber, String message) {
+        return post(apiUri, new TermiiSendRequest(phoneNumber, message, "plain", "generic", apiKey));
+    }
+
+    @Override
+    public CompletableFuture<Void> sendBulk(List<String> phoneNumbers, String message) {
+        return post(bulkApiUri,
+                new TermiiBulkSendRequest(phoneNumbers, senderId, message, "plain", "generic", apiKey));
+    }
+
+    private CompletableFuture<Void> post(URI uri, Object payload) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new SmsDeliveryException("Termii responded with status " + response.statusCode());
+                    }
+                });
+    }
+
+    record TermiiSendRequest(
+            String to,
+            String sms,
+            String type,
+            String channel,
+            @JsonProperty("api_key") String apiKey) {
+    }
+
+    record TermiiBulkSendRequest(
+            List<String> to,
+            String from,
+            String sms,
+            String type,
+            String channel,
+            @JsonProperty("api_key") String apiKey) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.request.TraderRegistrationRequestDto;
+import com.takeam.userservice.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses bulk trader uploads. The first line is a header naming the columns
+ * (phoneNumber, fullName, bankAccountNumber, bankName, accountName,
+ * stallNumber) in any order; quoted fields may contain commas and "" escapes.
+ */
+final class TraderCsvParser {
+
+    private TraderCsvParser() {
+    }
+
+    static List<TraderRegistrationRequestDto> parse(Reader source, int maxRows) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new BadRequestException("CSV upload is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = splitLine(stripBom(headerLine));
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("phonenumber") || !columns.containsKey("fullname")) {
+            throw new BadRequestException("CSV header must include phoneNumber and fullName columns");
+        }
+
+        List<TraderRegistrationRequestDto> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (rows.size() == maxRows) {
+                throw new BadRequestException("CSV upload exceeds the limit of " + maxRows + " rows");
+            }
+            List<String> fields = splitLine(line);
+            TraderRegistrationRequestDto dto = new TraderRegistrationRequestDto();
+            dto.setPhoneNumber(field(fields, columns, "phonenumber"));
+            dto.setFullName(field(fields, columns, "fullname"));
+            dto.setBankAccountNumber(field(fields, columns, "bankaccountnumber"));
+            dto.setBankName(field(fields, columns, "bankname"));
+            dto.setAccountName(field(fields, columns, "accountname"));
+            dto.setStallNumber(field(fields, columns, "stallnumber"));
+            rows.add(dto);
+        }
+        return rows;
+    }
+
+    static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+}
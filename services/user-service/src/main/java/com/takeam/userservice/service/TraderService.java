@@ -6,6 +6,8 @@ import com.takeam.userservice.dto.response.AuthResponseDto;
 import com.takeam.userservice.dto.response.TokenResponseDto;
 import com.takeam.userservice.dto.response.TraderDetailResponseDto;
 import com.takeam.userservice.dto.response.UserResponseDto;
+import com.takeam.userservice.event.UserLifecycleEvent;
+import com.takeam.userservice.event.UserProfileChangedEvent;
 import com.takeam.userservice.exception.BadRequestException;
 import com.takeam.userservice.exception.ResourceNotFoundException;
 import com.takeam.userservice.mapper.TraderMapper;
@@ -17,9 +19,11 @@ import com.takeam.userservice.repository.TraderRepository;
 import com.takeam.userservice.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -33,6 +37,8 @@ public class TraderService {
     private final TraderMapper traderMapper;
     private final UserMapper userMapper;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserLookupCache lookupCache;
 
     //register
     @Transactional
@@ -62,6 +68,7 @@ public class TraderService {
     private User createAndSaveUser(TraderRegistrationRequestDto dto) {
         User user = traderMapper.toUser(dto);
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.registered(savedUser));
         log.info("User created with ID: {}", savedUser.getId());
         return savedUser;
     }
@@ -131,8 +138,10 @@ public class TraderService {
     }
 
     private void activateUser(User user) {
+        UserStatus previousStatus = user.getStatus();
         user.setStatus(UserStatus.ACTIVE);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.statusChanged(user, previousStatus));
         log.info("Trader account activated: {}", user.getId());
     }
 
@@ -178,22 +187,21 @@ public class TraderService {
     public TraderDetailResponseDto getTraderDetails(UUID userId) {
         log.info("Fetching trader details for user: {}", userId);
 
-        Trader trader = traderRepository.findByUserId(userId)
+        return findTraderDetails(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Trader not found"));
-
-        return traderMapper.toDetailResponse(trader);
     }
 
 
     public TraderDetailResponseDto getTraderDetailsByUserId(UUID userId) {
-        log.info("Fetching trader details by user ID: {}", userId);
-
+        log.debug("Fetching trader details by user ID: {}", userId);
 
-        Trader trader = traderRepository.findByUserId(userId)
+        return findTraderDetails(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Trader not found for user ID: " + userId));
+    }
 
-
-        return traderMapper.toDetailResponse(trader);
+    private Optional<TraderDetailResponseDto> findTraderDetails(UUID userId) {
+        return lookupCache.getTraderDetails(userId, () -> traderRepository.findDetailViewByUserId(userId)
+                .map(traderMapper::toDetailResponse));
     }
 
     @Transactional
@@ -208,6 +216,7 @@ public class TraderService {
 
         updateUserInfo(user, dto);
         updateTraderInfo(trader, dto);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(userId, null, user.getPhoneNumber()));
 
         return traderMapper.toDetailResponse(trader);
     }
@@ -251,8 +260,11 @@ public class TraderService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        String previousPhoneNumber = user.getPhoneNumber();
         user.setPhoneNumber(dto.getNewPhoneNumber());
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(
+                new UserProfileChangedEvent(userId, previousPhoneNumber, updatedUser.getPhoneNumber()));
 
         log.info("Phone number changed successfully for user: {}", userId);
         return userMapper.toUserResponseDto(updatedUser);
@@ -267,8 +279,10 @@ public class TraderService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        UserStatus previousStatus = user.getStatus();
         user.setStatus(UserStatus.SUSPENDED);
         userRepository.save(user);
+        eventPublisher.publishEvent(UserLifecycleEvent.statusChanged(user, previousStatus));
 
         log.info("Account deactivated: {}", userId);
     }
@@ -0,0 +1,207 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.response.TraderDetailResponseDto;
+import com.takeam.userservice.dto.response.UserLookupResponseDto;
+import com.takeam.userservice.event.BulkModerationEvent;
+import com.takeam.userservice.event.UserLifecycleEvent;
+import com.takeam.userservice.event.UserProfileChangedEvent;
+import com.takeam.userservice.exception.BadRequestException;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-process cache of the responses other services fetch on every request:
+ * user lookups by normalized phone number and trader details by user id.
+ * Misses are cached too, briefly. Regions are bounded in {@code ehcache.xml}.
+ * Entries are evicted when a user's status or profile changes, on this
+ * instance and, over Redis, on every other one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserLookupCache implements MessageListener {
+
+    private static final String CHANNEL = "lookup:evict";
+    private static final String EHCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    private static final String PHONE = "phone";
+    private static final String TRADER = "trader";
+
+    private final UserRepository userRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    // Bumped by every eviction; a load that overlapped one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private Cache<Object, Object> byPhone;
+    private Cache<Object, Object> traderDetails;
+    private Cache<Object, Object> misses;
+
+    @PostConstruct
+    void init() {
+        CacheManager cacheManager;
+        try {
+            // Same configuration file as the second-level cache
+            cacheManager = Caching.getCachingProvider(EHCACHE_PROVIDER)
+                    .getCacheManager(new ClassPathResource("ehcache.xml").getURI(), getClass().getClassLoader());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byPhone = cacheManager.getCache("user-lookup-by-phone");
+        traderDetails = cacheManager.getCache("trader-details");
+        misses = cacheManager.getCache("user-lookup-misses");
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public Optional<UserLookupResponseDto> getByPhone(String normalizedPhone,
+                                                      Supplier<Optional<UserLookupResponseDto>> loader) {
+        return get(PHONE, byPhone, normalizedPhone, loader);
+    }
+
+    public Optional<TraderDetailResponseDto> getTraderDetails(UUID userId,
+                                                              Supplier<Optional<TraderDetailResponseDto>> loader) {
+        return get(TRADER, traderDetails, userId.toString(), loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserLifecycle(UserLifecycleEvent event) {
+        // Registrations only need to clear a cached miss
+        evictUsers(List.of(event.userId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkModeration(BulkModerationEvent event) {
+        evictUsers(event.userIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        Set<String> phones = new LinkedHashSet<>();
+        phones.add(event.phoneNumber());
+        if (event.previousPhoneNumber() != null) {
+            phones.add(event.previousPhoneNumber());
+        }
+        evict(phones, List.of(event.userId()));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 2) {
+            log.warn("Ignoring malformed lookup eviction message: {}", payload);
+            return;
+        }
+        try {
+            evictLocally(split(parts[0]), split(parts[1]).stream().map(UUID::fromString).toList());
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed lookup eviction message: {}", payload);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> get(String name, Cache<Object, Object> cache, String key, Supplier<Optional<T>> loader) {
+        Object cached = cache.get(key);
+        if (cached != null) {
+            count(name, "hit");
+            return Optional.of((T) cached);
+        }
+        String missKey = name + ":" + key;
+        if (misses.containsKey(missKey)) {
+            count(name, "negative_hit");
+            return Optional.empty();
+        }
+
+        long seen = generation.get();
+        Optional<T> loaded = loader.get();
+        if (generation.get() == seen) {
+            if (loaded.isPresent()) {
+                cache.put(key, loaded.get());
+            } else {
+                misses.put(missKey, Boolean.TRUE);
+            }
+        }
+        count(name, loaded.isPresent() ? "miss" : "not_found");
+        return loaded;
+    }
+
+    private void evictUsers(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<String> phones = userRepository.findAllById(userIds).stream().map(User::getPhoneNumber).toList();
+        evict(phones, userIds);
+    }
+
+    private void evict(Collection<String> phones, Collection<UUID> userIds) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String phone : phones) {
+            try {
+                keys.add(PhoneNumbers.normalize(phone));
+            } catch (BadRequestException e) {
+                // Never cached under a key, nothing to evict
+            }
+        }
+        evictLocally(keys, userIds);
+        try {
+            String payload = String.join(",", keys) + "|"
+                    + userIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+            redisTemplate.convertAndSend(CHANNEL, payload);
+        } catch (RuntimeException e) {
+            log.error("Failed to broadcast lookup cache eviction: {}", e.getMessage());
+        }
+    }
+
+    private void evictLocally(Collection<String> phoneKeys, Collection<UUID> userIds) {
+        generation.incrementAndGet();
+        for (String key : phoneKeys) {
+            byPhone.remove(key);
+            misses.remove(PHONE + ":" + key);
+        }
+        for (UUID userId : userIds) {
+            traderDetails.remove(userId.toString());
+            misses.remove(TRADER + ":" + userId);
+        }
+    }
+
+    private void count(String cache, String result) {
+        meterRegistry.counter("user.lookup.requests", "cache", cache, "result", result).increment();
+    }
+
+    private static List<String> split(String values) {
+        return values.isEmpty() ? List.of() : Arrays.asList(values.split(","));
+    }
+}
@@ -3,12 +3,14 @@ package com.takeam.userservice.service;
 import com.takeam.userservice.dto.response.UserLookupResponseDto;
 import com.takeam.userservice.exception.ResourceNotFoundException;
 import com.takeam.userservice.mapper.UserLookupMapper;
-import com.takeam.userservice.model.User;
 import com.takeam.userservice.repository.UserRepository;
+import com.takeam.userservice.repository.projection.UserLookupView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 
 @Slf4j
@@ -17,24 +19,26 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
     private final UserRepository userRepository;
     private final UserLookupMapper userLookupMapper;
+    private final UserLookupCache lookupCache;
 
 
-    @Transactional(readOnly = true)
+    // Not transactional: hot lookups are served from the cache without a connection
     public UserLookupResponseDto getUserByPhoneNumber(String phoneNumber) {
+        String normalized = PhoneNumbers.normalize(phoneNumber);
+        log.debug("Looking up user by phone number: {}", normalized);
 
-        log.info("Looking up user by phone number: {}", phoneNumber);
-
-
-        User user = userRepository.findByPhoneNumber(phoneNumber)
-                .orElseThrow(() -> {
-                    log.error("User not found with phone number: {}", phoneNumber);
-                    return new ResourceNotFoundException(
-                            "User not found with phone number: " + phoneNumber
-                    );
-                });
-
-        log.info("User found: {} ({})", user.getFullName(), user.getRole());
+        return lookupCache.getByPhone(normalized, () -> loadByPhoneNumber(normalized))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "User not found with phone number: " + phoneNumber
+                ));
+    }
 
-        return userLookupMapper.toUserLookupResponse(user);
+    private Optional<UserLookupResponseDto> loadByPhoneNumber(String normalized) {
+        List<String> forms = PhoneNumbers.storedForms(normalized);
+        List<UserLookupView> users = userRepository.findLookupViewsByPhoneNumberIn(forms);
+        return forms.stream()
+                .flatMap(form -> users.stream().filter(user -> form.equals(user.phoneNumber())))
+                .findFirst()
+                .map(userLookupMapper::toUserLookupResponse);
     }
 }
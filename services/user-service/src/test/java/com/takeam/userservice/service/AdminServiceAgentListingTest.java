@@ -0,0 +1,112 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.response.AgentDetailDto;
+import com.takeam.userservice.mapper.AgentMapper;
+import com.takeam.userservice.model.Agent;
+import com.takeam.userservice.model.ApprovalStatus;
+import com.takeam.userservice.model.User;
+import com.takeam.userservice.repository.AgentRepository;
+import com.takeam.userservice.repository.TraderRepository;
+import com.takeam.userservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminServiceAgentListingTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AgentRepository agentRepository;
+
+    @Mock
+    private TraderRepository traderRepository;
+
+    @Mock
+    private AgentMapper agentMapper;
+
+    @InjectMocks
+    private AdminService adminService;
+
+    @Test
+    void pendingAgentPageIsEnrichedWithConstantQueryCount() {
+        User approver = user("approver@takeam.ng");
+        List<Agent> agents = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            agents.add(agent(user("agent" + i + "@takeam.ng"), i % 2 == 0 ? approver.getId() : null));
+        }
+        UUID busyAgentUserId = agents.get(0).getUser().getId();
+
+        Pageable pageable = PageRequest.of(0, 20);
+        when(agentRepository.findByApprovalStatus(ApprovalStatus.PENDING, pageable))
+                .thenReturn(new PageImpl<>(agents, pageable, 20));
+        when(traderRepository.countByRegisteredByAgentIds(anyCollection()))
+                .thenReturn(List.of(count(busyAgentUserId, 7)));
+        when(userRepository.findAllById(any())).thenReturn(List.of(approver));
+        when(agentMapper.toDetailResponse(any(Agent.class))).thenAnswer(invocation -> new AgentDetailDto());
+
+        Page<AgentDetailDto> page = adminService.getPendingAgents(pageable);
+
+        assertEquals(20, page.getContent().size());
+        assertEquals(7, page.getContent().get(0).getTradersRegistered());
+        assertEquals("approver@takeam.ng", page.getContent().get(0).getApprovedByAdminEmail());
+        assertEquals(0, page.getContent().get(1).getTradersRegistered());
+        assertNull(page.getContent().get(1).getApprovedByAdminEmail());
+
+        // One page query, one grouped count, one approver lookup; nothing per agent
+        verify(agentRepository, times(1)).findByApprovalStatus(ApprovalStatus.PENDING, pageable);
+        verify(traderRepository, times(1)).countByRegisteredByAgentIds(anyCollection());
+        verify(userRepository, times(1)).findAllById(any());
+        verifyNoMoreInteractions(agentRepository, traderRepository, userRepository);
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail(email);
+        return user;
+    }
+
+    private static Agent agent(User user, UUID approvedBy) {
+        Agent agent = new Agent();
+        agent.setId(UUID.randomUUID());
+        agent.setUser(user);
+        agent.setApprovedBy(approvedBy);
+        return agent;
+    }
+
+    private static TraderRepository.RegisteredTraderCount count(UUID agentUserId, long traderCount) {
+        return new TraderRepository.RegisteredTraderCount() {
+            @Override
+            public UUID getAgentUserId() {
+                return agentUserId;
+            }
+
+            @Override
+            public long getTraderCount() {
+                return traderCount;
+            }
+        };
+    }
+}
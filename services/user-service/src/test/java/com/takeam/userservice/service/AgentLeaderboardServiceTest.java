@@ -0,0 +1,156 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AgentLeaderboardServiceTest {
+
+    private static final UUID AGENT_ID = UUID.randomUUID();
+    private static final String MARKET = "mile-12";
+    // A Wednesday; the week starts on Monday the 10th
+    private static final LocalDate DATE = LocalDate.of(2025, 3, 12);
+
+    private RedisTemplate<String, String> redisTemplate;
+    private RedisOperations<String, String> pipeline;
+    private ZSetOperations<String, String> zSet;
+    private JdbcTemplate jdbcTemplate;
+    private RedisLeaderLock leaderLock;
+    private AgentLeaderboardService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        pipeline = mock(RedisOperations.class);
+        zSet = mock(ZSetOperations.class);
+        when(pipeline.opsForZSet()).thenReturn(zSet);
+        // Run pipelined callbacks straight against the recording mock
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(pipeline);
+            return List.of();
+        });
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        leaderLock = mock(RedisLeaderLock.class);
+        service = new AgentLeaderboardService(redisTemplate, jdbcTemplate, mock(AgentAttendanceService.class),
+                mock(UserRepository.class), leaderLock);
+        ReflectionTestUtils.setField(service, "retentionDays", 1);
+        ReflectionTestUtils.setField(service, "lockTtlMs", 300_000L);
+    }
+
+    @Test
+    void hoursAreSetToTheWindowTotalsNotAdded() {
+        when(jdbcTemplate.queryForMap(anyString(), any(Object[].class)))
+                .thenReturn(Map.of("hours_today", 5.0, "hours_week", 12.5, "hours_month", 40.0));
+
+        // Applying the same clock-out twice leaves the same scores
+        service.setHours(AGENT_ID, MARKET, DATE);
+        service.setHours(AGENT_ID, MARKET, DATE);
+
+        verify(zSet, times(2))
+                .add("leaderboard:hours:today:2025-03-12:mile-12", AGENT_ID.toString(), 5.0);
+        verify(zSet, times(2))
+                .add("leaderboard:hours:week:2025-03-10:mile-12", AGENT_ID.toString(), 12.5);
+        verify(zSet, times(2))
+                .add("leaderboard:hours:month:2025-03-01:mile-12", AGENT_ID.toString(), 40.0);
+        verify(zSet, never()).incrementScore(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    void windowTotalsAreQueriedOverEachWindowsBounds() {
+        when(jdbcTemplate.queryForMap(anyString(), any(Object[].class)))
+                .thenReturn(Map.of("hours_today", 0, "hours_week", 0, "hours_month", 0));
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+
+        service.setHours(AGENT_ID, MARKET, DATE);
+
+        verify(jdbcTemplate).queryForMap(anyString(), args.capture());
+        assertEquals(List.of(
+                DATE, DATE,
+                LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 16),
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31),
+                AGENT_ID, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)), List.of(args.getValue()));
+        // Nothing worked in the window: the agent is taken off the board, not ranked with zero
+        verify(zSet).remove("leaderboard:hours:week:2025-03-10:mile-12", AGENT_ID.toString());
+    }
+
+    @Test
+    void boardsExpireAfterTheirWindowPlusRetention() {
+        when(jdbcTemplate.queryForMap(anyString(), any(Object[].class)))
+                .thenReturn(Map.of("hours_today", 5.0, "hours_week", 5.0, "hours_month", 5.0));
+
+        service.setHours(AGENT_ID, MARKET, DATE);
+
+        verify(pipeline).expireAt("leaderboard:hours:today:2025-03-12:mile-12", startOf(LocalDate.of(2025, 3, 14)));
+        verify(pipeline).expireAt("leaderboard:hours:week:2025-03-10:mile-12", startOf(LocalDate.of(2025, 3, 18)));
+        verify(pipeline).expireAt("leaderboard:hours:month:2025-03-01:mile-12", startOf(LocalDate.of(2025, 4, 2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reconcileDeletesCurrentBoardsItDidNotRebuild() {
+        when(leaderLock.tryAcquire(anyString(), any(Duration.class))).thenReturn("token");
+        String today = LocalDate.now().toString();
+        String abandoned = "leaderboard:pickups:today:" + today + ":old-market";
+        String building = "leaderboard:pickups:today:" + today + ":mile-12:rebuild:" + UUID.randomUUID();
+        when(redisTemplate.scan(any(ScanOptions.class))).thenAnswer(invocation ->
+                cursor(invocation.<ScanOptions>getArgument(0).getPattern().contains(":today:")
+                        ? List.of(abandoned, building)
+                        : List.of()));
+
+        // No attendance in any window, so nothing is rebuilt
+        assertEquals(0, service.reconcileIfLeader());
+
+        ArgumentCaptor<Collection<String>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(redisTemplate).delete(deleted.capture());
+        assertEquals(List.of(abandoned), new ArrayList<>(deleted.getValue()));
+        verify(leaderLock).release(anyString(), eq("token"));
+    }
+
+    // ============ HELPER METHODS ============
+
+    private static Date startOf(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<String> cursor(List<String> keys) {
+        Iterator<String> iterator = keys.iterator();
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+}
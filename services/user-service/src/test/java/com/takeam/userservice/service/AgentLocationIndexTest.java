@@ -0,0 +1,99 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.service.AgentPresenceRegistry.Presence;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AgentLocationIndexTest {
+
+    @Test
+    void matchesBruteForceNearestNeighbours() {
+        Random random = new Random(42);
+        AgentLocationIndex index = new AgentLocationIndex(0.01, 50_000);
+        Map<UUID, Presence> positions = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            UUID agentId = UUID.randomUUID();
+            Presence presence = presence(i % 2 == 0 ? "a" : "b",
+                    6.4 + random.nextDouble() * 0.3, 3.3 + random.nextDouble() * 0.3);
+            positions.put(agentId, presence);
+            index.add(agentId, presence.latitude(), presence.longitude());
+        }
+
+        for (int q = 0; q < 50; q++) {
+            double lat = 6.4 + random.nextDouble() * 0.3;
+            double lng = 3.3 + random.nextDouble() * 0.3;
+
+            List<UUID> expected = positions.entrySet().stream()
+                    .filter(e -> e.getValue().marketId().equals("a"))
+                    .sorted(Comparator.comparingDouble(e -> Geofence.distanceMeters(
+                            lat, lng, e.getValue().latitude(), e.getValue().longitude())))
+                    .limit(5)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            List<UUID> actual = index.nearest(lat, lng, 5, positions, p -> p.marketId().equals("a"))
+                    .stream()
+                    .map(AgentLocationIndex.Neighbour::agentId)
+                    .toList();
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    void movedAndRemovedAgentsAreFoundAtTheirNewPlace() {
+        AgentLocationIndex index = new AgentLocationIndex(0.01, 50_000);
+        Map<UUID, Presence> positions = new HashMap<>();
+        UUID agentId = UUID.randomUUID();
+        positions.put(agentId, presence("a", 6.45, 3.39));
+        index.add(agentId, 6.45, 3.39);
+
+        positions.put(agentId, presence("a", 6.60, 3.40));
+        index.move(agentId, 6.45, 3.39, 6.60, 3.40);
+        List<AgentLocationIndex.Neighbour> near = index.nearest(6.601, 3.401, 1, positions, p -> true);
+        assertEquals(agentId, near.get(0).agentId());
+        assertTrue(near.get(0).distanceMeters() < 200);
+
+        index.remove(agentId, 6.60, 3.40);
+        assertTrue(index.nearest(6.601, 3.401, 1, positions, p -> true).isEmpty());
+    }
+
+    @Test
+    void agentMidMoveIsReturnedOnce() {
+        AgentLocationIndex index = new AgentLocationIndex(0.01, 50_000);
+        Map<UUID, Presence> positions = new HashMap<>();
+        UUID agentId = UUID.randomUUID();
+        positions.put(agentId, presence("a", 6.455, 3.395));
+        // What a query sees between move() adding the new cell and removing the old one
+        index.add(agentId, 6.445, 3.395);
+        index.add(agentId, 6.455, 3.395);
+
+        List<AgentLocationIndex.Neighbour> near = index.nearest(6.45, 3.395, 3, positions, p -> true);
+
+        assertEquals(1, near.size());
+        assertEquals(agentId, near.get(0).agentId());
+    }
+
+    @Test
+    void ignoresAgentsBeyondTheSearchRadius() {
+        AgentLocationIndex index = new AgentLocationIndex(0.01, 1_000);
+        Map<UUID, Presence> positions = new HashMap<>();
+        UUID agentId = UUID.randomUUID();
+        positions.put(agentId, presence("a", 6.50, 3.39));
+        index.add(agentId, 6.50, 3.39);
+
+        assertTrue(index.nearest(6.45, 3.39, 3, positions, p -> true).isEmpty());
+    }
+
+    private static Presence presence(String marketId, double lat, double lng) {
+        return new Presence(marketId, 0, 0, lat, lng, 0);
+    }
+}
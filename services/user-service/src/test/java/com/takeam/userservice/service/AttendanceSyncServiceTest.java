@@ -0,0 +1,230 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.request.AttendanceSyncEventDto;
+import com.takeam.userservice.dto.response.AttendanceResponse;
+import com.takeam.userservice.dto.response.AttendanceSyncEventResultDto;
+import com.takeam.userservice.dto.response.AttendanceSyncResultDto;
+import com.takeam.userservice.event.AttendanceEvent;
+import com.takeam.userservice.model.Agent;
+import com.takeam.userservice.model.AgentAttendance;
+import com.takeam.userservice.model.AttendanceSyncReceipt;
+import com.takeam.userservice.model.AttendanceSyncReceipt.Outcome;
+import com.takeam.userservice.repository.AgentAttendanceRepository;
+import com.takeam.userservice.repository.AttendanceSyncReceiptRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AttendanceSyncServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Africa/Lagos");
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 12);
+    private static final UUID AGENT_ID = UUID.randomUUID();
+
+    private final Map<LocalDate, AgentAttendance> attendance = new HashMap<>();
+    private final List<AttendanceSyncReceipt> receipts = new ArrayList<>();
+
+    private AgentAttendanceRepository attendanceRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private AttendanceSyncService syncService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Repositories backed by in-memory rows so repeated syncs see earlier writes
+        attendanceRepository = mock(AgentAttendanceRepository.class);
+        when(attendanceRepository.findByAgentIdAndDate(eq(AGENT_ID), any()))
+                .thenAnswer(invocation -> Optional.ofNullable(attendance.get(invocation.<LocalDate>getArgument(1))));
+        when(attendanceRepository.save(any())).thenAnswer(invocation -> {
+            AgentAttendance row = invocation.getArgument(0);
+            attendance.put(row.getDate(), row);
+            return row;
+        });
+
+        AttendanceSyncReceiptRepository receiptRepository = mock(AttendanceSyncReceiptRepository.class);
+        when(receiptRepository.findByAgentIdAndIdempotencyKeyIn(eq(AGENT_ID), any())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(1);
+            return receipts.stream().filter(receipt -> keys.contains(receipt.getIdempotencyKey())).toList();
+        });
+        when(receiptRepository.saveAll(any())).thenAnswer(invocation -> {
+            ((Iterable<AttendanceSyncReceipt>) invocation.getArgument(0)).forEach(receipts::add);
+            return invocation.getArgument(0);
+        });
+
+        Agent agent = new Agent();
+        agent.setAssignedMarketId("mile-12");
+        AgentAttendanceService attendanceService = mock(AgentAttendanceService.class);
+        when(attendanceService.validateClockIn(eq(AGENT_ID), anyDouble(), anyDouble(), any())).thenReturn(agent);
+        when(attendanceService.resolveMarketId(AGENT_ID)).thenReturn("mile-12");
+        when(attendanceService.getClockInStatus(AGENT_ID)).thenReturn(new AttendanceResponse());
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        syncService = new AttendanceSyncService(attendanceRepository, receiptRepository, attendanceService,
+                eventPublisher, mock(JdbcTemplate.class), new SimpleMeterRegistry());
+        syncService.clock = Clock.fixed(at(17, 0), ZONE);
+        ReflectionTestUtils.setField(syncService, "receiptRetentionDays", 7);
+    }
+
+    @Test
+    void replayedBatchGetsSameAnswersWithoutReapplying() {
+        List<AttendanceSyncEventDto> batch = List.of(
+                event("in-1", AttendanceEvent.Type.CLOCK_IN, 10, 5),
+                event("out-1", AttendanceEvent.Type.CLOCK_OUT, 16, 35));
+
+        AttendanceSyncResultDto first = syncService.sync(AGENT_ID, batch);
+        AttendanceSyncResultDto second = syncService.sync(AGENT_ID, batch);
+
+        assertEquals(List.of(Outcome.APPLIED, Outcome.APPLIED), outcomes(first));
+        assertEquals(outcomes(first), outcomes(second));
+        assertEquals(messages(first), messages(second));
+        assertTrue(first.getResults().stream().noneMatch(AttendanceSyncEventResultDto::isReplayed));
+        assertTrue(second.getResults().stream().allMatch(AttendanceSyncEventResultDto::isReplayed));
+
+        verify(attendanceRepository, times(2)).save(any());
+        verify(eventPublisher, times(2)).publishEvent(any(AttendanceEvent.class));
+        assertEquals(6.5, attendance.get(TODAY).getTotalHoursWorked());
+        assertEquals(2, receipts.size());
+    }
+
+    @Test
+    void eventsAreAppliedInDeviceTimeOrder() {
+        AttendanceSyncResultDto result = syncService.sync(AGENT_ID, List.of(
+                event("out-1", AttendanceEvent.Type.CLOCK_OUT, 15, 0),
+                event("in-1", AttendanceEvent.Type.CLOCK_IN, 11, 0)));
+
+        assertEquals(List.of(Outcome.APPLIED, Outcome.APPLIED), outcomes(result));
+        AgentAttendance row = attendance.get(TODAY);
+        assertEquals(AgentAttendance.AttendanceStatus.CLOCKED_OUT, row.getStatus());
+        assertEquals(LocalDateTime.of(TODAY, LocalTime.of(11, 0)), row.getClockInTime());
+        assertEquals(4.0, row.getTotalHoursWorked());
+    }
+
+    @Test
+    void partialRetryOnlyAppliesEventsNotSeenBefore() {
+        syncService.sync(AGENT_ID, List.of(event("in-1", AttendanceEvent.Type.CLOCK_IN, 10, 0)));
+
+        AttendanceSyncResultDto retry = syncService.sync(AGENT_ID, List.of(
+                event("in-1", AttendanceEvent.Type.CLOCK_IN, 10, 0),
+                event("out-1", AttendanceEvent.Type.CLOCK_OUT, 12, 0),
+                event("out-1", AttendanceEvent.Type.CLOCK_OUT, 12, 0)));
+
+        assertTrue(retry.getResults().get(0).isReplayed());
+        assertFalse(retry.getResults().get(1).isReplayed());
+        assertTrue(retry.getResults().get(2).isReplayed());
+        assertEquals(List.of(Outcome.APPLIED, Outcome.APPLIED, Outcome.APPLIED), outcomes(retry));
+        verify(attendanceRepository, times(2)).save(any());
+        assertEquals(2, receipts.size());
+    }
+
+    @Test
+    void conflictingEventsAreRejectedOrIgnoredAndStayThatWayOnReplay() {
+        List<AttendanceSyncEventDto> batch = List.of(
+                event("out-early", AttendanceEvent.Type.CLOCK_OUT, 9, 0),
+                event("in-1", AttendanceEvent.Type.CLOCK_IN, 10, 0),
+                event("in-2", AttendanceEvent.Type.CLOCK_IN, 10, 30),
+                event("future", AttendanceEvent.Type.CLOCK_OUT, 18, 0));
+
+        AttendanceSyncResultDto first = syncService.sync(AGENT_ID, batch);
+        // A clock-out arriving online in between must not change the replayed answers
+        AgentAttendanceService.closeSession(attendance.get(TODAY), LocalDateTime.of(TODAY, LocalTime.of(16, 0)),
+                6.6, 3.4, null);
+        AttendanceSyncResultDto second = syncService.sync(AGENT_ID, batch);
+
+        assertEquals(List.of(Outcome.REJECTED, Outcome.APPLIED, Outcome.UNCHANGED, Outcome.REJECTED), outcomes(first));
+        assertEquals(outcomes(first), outcomes(second));
+        assertEquals(1, attendance.size());
+    }
+
+    @Test
+    void earlierOfflineClockOutCorrectsAutoClockOut() {
+        syncService.sync(AGENT_ID, List.of(event("in-1", AttendanceEvent.Type.CLOCK_IN, 10, 0)));
+        AgentAttendance row = attendance.get(TODAY);
+        AgentAttendanceService.closeSession(row, LocalDateTime.of(TODAY, LocalTime.of(16, 0)), null, null, null);
+        row.setAutoClockedOut(true);
+
+        AttendanceSyncResultDto result = syncService.sync(AGENT_ID, List.of(
+                event("out-1", AttendanceEvent.Type.CLOCK_OUT, 14, 30)));
+
+        assertEquals(List.of(Outcome.APPLIED), outcomes(result));
+        assertFalse(row.getAutoClockedOut());
+        assertEquals(4.5, row.getTotalHoursWorked());
+    }
+
+    @Test
+    void nextMorningSyncCorrectsYesterdaysAutoClockOut() {
+        syncService.sync(AGENT_ID, List.of(event("in-1", AttendanceEvent.Type.CLOCK_IN, 10, 0)));
+        AgentAttendance row = attendance.get(TODAY);
+        AgentAttendanceService.closeSession(row, LocalDateTime.of(TODAY, LocalTime.of(18, 0)), null, null, null);
+        row.setAutoClockedOut(true);
+
+        syncService.clock = Clock.fixed(TODAY.plusDays(1).atTime(8, 0).atZone(ZONE).toInstant(), ZONE);
+        AttendanceSyncResultDto result = syncService.sync(AGENT_ID, List.of(
+                event("out-1", AttendanceEvent.Type.CLOCK_OUT, 15, 0),
+                event("in-2", AttendanceEvent.Type.CLOCK_IN, 16, 0)));
+
+        assertEquals(List.of(Outcome.APPLIED, Outcome.REJECTED), outcomes(result));
+        assertFalse(row.getAutoClockedOut());
+        assertEquals(5.0, row.getTotalHoursWorked());
+    }
+
+    @Test
+    void clockOutsOlderThanTheReceiptRetentionAreRejected() {
+        syncService.sync(AGENT_ID, List.of(event("in-1", AttendanceEvent.Type.CLOCK_IN, 10, 0)));
+        AgentAttendance row = attendance.get(TODAY);
+        AgentAttendanceService.closeSession(row, LocalDateTime.of(TODAY, LocalTime.of(18, 0)), null, null, null);
+        row.setAutoClockedOut(true);
+
+        syncService.clock = Clock.fixed(TODAY.plusDays(8).atTime(8, 0).atZone(ZONE).toInstant(), ZONE);
+        AttendanceSyncResultDto result = syncService.sync(AGENT_ID, List.of(
+                event("out-1", AttendanceEvent.Type.CLOCK_OUT, 15, 0)));
+
+        assertEquals(List.of(Outcome.REJECTED), outcomes(result));
+        assertTrue(row.getAutoClockedOut());
+    }
+
+    // ============ HELPER METHODS ============
+
+    private static Instant at(int hour, int minute) {
+        return TODAY.atTime(hour, minute).atZone(ZONE).toInstant();
+    }
+
+    private static AttendanceSyncEventDto event(String key, AttendanceEvent.Type type, int hour, int minute) {
+        return new AttendanceSyncEventDto(key, type, at(hour, minute), 6.6, 3.4, null);
+    }
+
+    private static List<Outcome> outcomes(AttendanceSyncResultDto result) {
+        return result.getResults().stream().map(AttendanceSyncEventResultDto::getOutcome).toList();
+    }
+
+    private static List<String> messages(AttendanceSyncResultDto result) {
+        return result.getResults().stream().map(AttendanceSyncEventResultDto::getMessage).toList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.exception.SmsDeliveryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchingSmsSenderTest {
+
+    private StubSmsProvider provider;
+    private BatchingSmsSender sender;
+
+    @BeforeEach
+    void setUp() {
+        provider = new StubSmsProvider(0);
+        SmsGateway gateway = new SmsGateway(List.of(provider), new SimpleMeterRegistry(), List.of("stub"), 5, 30_000);
+        sender = new BatchingSmsSender(gateway, new SimpleMeterRegistry(), 10, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.shutdown();
+    }
+
+    @Test
+    void identicalTextIsSentInBulkRequestsOfAtMostMaxRecipients() throws Exception {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            futures.add(sender.send(phone(i), "Your TakeAm account has been temporarily locked."));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Two full batches, the remainder flushed after the linger time
+        assertEquals(Map.of(5, 1L, 10, 2L), provider.getBatchSizeCounts());
+        assertEquals(25, provider.getSentCount());
+    }
+
+    @Test
+    void distinctTextsNeverShareABulkRequest() throws Exception {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(sender.send(phone(i), "Welcome to TakeAm, agent " + i + "!"));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Map.of(), provider.getBatchSizeCounts());
+        assertEquals(5, provider.getSentCount());
+    }
+
+    @Test
+    void failedBulkRequestIsRetriedPerRecipient() throws Exception {
+        String badNumber = phone(2);
+        SmsProvider flaky = new SmsProvider() {
+            @Override
+            public String getName() {
+                return "flaky";
+            }
+
+            @Override
+            public CompletableFuture<Void> send(String phoneNumber, String message) {
+                return phoneNumber.equals(badNumber)
+                        ? CompletableFuture.failedFuture(new SmsDeliveryException("Invalid number"))
+                        : CompletableFuture.completedFuture(null);
+            }
+
+            @Override
+            public CompletableFuture<Void> sendBulk(List<String> phoneNumbers, String message) {
+                return CompletableFuture.failedFuture(new SmsDeliveryException("Bulk request rejected"));
+            }
+        };
+        SmsGateway gateway = new SmsGateway(List.of(flaky), new SimpleMeterRegistry(), List.of("flaky"), 100, 30_000);
+        BatchingSmsSender flakySender = new BatchingSmsSender(gateway, new SimpleMeterRegistry(), 10, 50);
+
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(flakySender.send(phone(i), "Your TakeAm agent account has been approved."));
+            }
+
+            for (int i = 0; i < 4; i++) {
+                CompletableFuture<Void> future = futures.get(i);
+                if (i == 2) {
+                    assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+                } else {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            flakySender.shutdown();
+        }
+    }
+
+    private static String phone(int i) {
+        return "+23480%08d".formatted(i);
+    }
+}
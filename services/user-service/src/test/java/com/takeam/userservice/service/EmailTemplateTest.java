@@ -0,0 +1,38 @@
+package com.takeam.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmailTemplateTest {
+
+    @Test
+    void rendersSlotsInDeclaredOrder() {
+        EmailTemplate template = EmailTemplate.compile("<p>{{b}} then {{a}}</p>", "a", "b");
+
+        assertEquals("<p>second then first</p>", template.renderToString("first", "second"));
+    }
+
+    @Test
+    void escapesHtmlInValues() {
+        EmailTemplate template = EmailTemplate.compile("<strong>{{name}}</strong>", "name");
+
+        assertEquals(
+                "<strong>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;co&quot;</strong>",
+                template.renderToString("<script>alert('x')</script> & \"co\"")
+        );
+    }
+
+    @Test
+    void keepsNonAsciiCharactersIntact() {
+        EmailTemplate template = EmailTemplate.compile("🌿 Hi {{name}}", "name");
+
+        assertEquals("🌿 Hi Adébáyọ̀ <3".replace("<", "&lt;"), template.renderToString("Adébáyọ̀ <3"));
+    }
+
+    @Test
+    void rejectsUndeclaredSlots() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("{{missing}}", "name"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.takeam.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExportWriterTest {
+
+    @Test
+    void leavesPlainFieldsUnquoted() {
+        assertEquals("Ada Okafor", ExportWriter.csvField("Ada Okafor"));
+        assertEquals("", ExportWriter.csvField(null));
+    }
+
+    @Test
+    void quotesSeparatorsQuotesAndNewlines() {
+        assertEquals("\"Okafor, Ada\"", ExportWriter.csvField("Okafor, Ada"));
+        assertEquals("\"GT \"\"Bank\"\"\"", ExportWriter.csvField("GT \"Bank\""));
+        assertEquals("\"line\nbreak\"", ExportWriter.csvField("line\nbreak"));
+    }
+
+    @Test
+    void neutralisesFormulaPrefixes() {
+        assertEquals("'=1+2", ExportWriter.csvField("=1+2"));
+        assertEquals("'@SUM(A1)", ExportWriter.csvField("@SUM(A1)"));
+        assertEquals("'+1+cmd|' /C calc'!A0", ExportWriter.csvField("+1+cmd|' /C calc'!A0"));
+        assertEquals("'-2+3", ExportWriter.csvField("-2+3"));
+        assertEquals("'\t=1", ExportWriter.csvField("\t=1"));
+        assertEquals("\"'\r=1\"", ExportWriter.csvField("\r=1"));
+    }
+
+    @Test
+    void phoneColumnsKeepPlainNumbersReadable() {
+        assertEquals("+2348012345678", ExportWriter.csvField("+2348012345678", true));
+        assertEquals("'+2348012345678", ExportWriter.csvField("+2348012345678"));
+        assertEquals("'+1+cmd|' /C calc'!A0", ExportWriter.csvField("+1+cmd|' /C calc'!A0", true));
+    }
+}
@@ -0,0 +1,63 @@
+package com.takeam.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeofenceIndexTest {
+
+    // A 2 km circle around Balogun and an L-shaped market with a notch cut out
+    private static final Geofence CIRCLE = Geofence.circle("balogun", 6.4550, 3.3941, 2000);
+    private static final Geofence L_SHAPE = Geofence.parsePolygon("mile12",
+            "6.60,3.40;6.60,3.42;6.61,3.42;6.61,3.41;6.62,3.41;6.62,3.40");
+
+    @Test
+    void circleUsesGreatCircleDistance() {
+        assertTrue(CIRCLE.contains(6.4550, 3.3941));
+        assertTrue(CIRCLE.contains(6.4700, 3.3941));   // ~1.7 km north
+        assertFalse(CIRCLE.contains(6.4750, 3.3941));  // ~2.2 km north
+    }
+
+    @Test
+    void polygonExcludesPointsInTheNotch() {
+        assertTrue(L_SHAPE.contains(6.605, 3.415));
+        assertTrue(L_SHAPE.contains(6.615, 3.405));
+        assertFalse(L_SHAPE.contains(6.615, 3.415));
+        assertFalse(L_SHAPE.contains(6.59, 3.41));
+    }
+
+    @Test
+    void indexReturnsOnlyMarketsContainingThePoint() {
+        GeofenceIndex index = GeofenceIndex.build(List.of(CIRCLE, L_SHAPE), 0.01);
+
+        assertEquals(List.of("balogun"), index.containing(6.4560, 3.3950).stream().map(Geofence::getMarketId).toList());
+        assertEquals(List.of("mile12"), index.containing(6.605, 3.415).stream().map(Geofence::getMarketId).toList());
+        assertTrue(index.containing(6.615, 3.415).isEmpty());
+        assertTrue(index.containing(9.0, 7.5).isEmpty());
+    }
+
+    @Test
+    void indexHandlesNegativeCoordinates() {
+        Geofence south = Geofence.circle("south", -1.2921, -36.8219, 500);
+        GeofenceIndex index = GeofenceIndex.build(List.of(south), 0.01);
+
+        assertEquals(1, index.containing(-1.2921, -36.8219).size());
+        assertTrue(index.containing(1.2921, 36.8219).isEmpty());
+    }
+
+    @Test
+    void oversizedGeofenceIsMatchedWithoutGridding() {
+        // ~18 degrees across: millions of cells if it were gridded
+        Geofence huge = Geofence.circle("huge", 6.4550, 3.3941, 1_000_000);
+        GeofenceIndex index = GeofenceIndex.build(List.of(huge, CIRCLE), 0.01);
+
+        assertEquals(List.of("balogun", "huge"),
+                index.containing(6.4560, 3.3950).stream().map(Geofence::getMarketId).toList());
+        assertEquals(List.of("huge"), index.containing(9.0, 7.5).stream().map(Geofence::getMarketId).toList());
+        assertTrue(index.containing(30.0, 3.3941).isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.service.LocationTrackCodec.TrackPoint;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocationTrackCodecTest {
+
+    private static final long START = 1_760_000_000_000L;
+
+    @Test
+    void appendedChunksDecodeAsOneTrack() throws Exception {
+        List<TrackPoint> first = walk(START, 100);
+        List<TrackPoint> second = walk(START + 600_000, 50);
+
+        ByteArrayOutputStream track = new ByteArrayOutputStream();
+        track.write(LocationTrackCodec.encodeChunk(first));
+        track.write(LocationTrackCodec.encodeChunk(second));
+
+        List<TrackPoint> decoded = new ArrayList<>();
+        LocationTrackCodec.decode(new ByteArrayInputStream(track.toByteArray()), decoded::add);
+
+        List<TrackPoint> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected.size(), decoded.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).timeMillis(), decoded.get(i).timeMillis());
+            assertEquals(expected.get(i).latitude(), decoded.get(i).latitude(), 1e-5);
+            assertEquals(expected.get(i).longitude(), decoded.get(i).longitude(), 1e-5);
+        }
+    }
+
+    @Test
+    void walkingPingsTakeAFewBytesEach() {
+        byte[] chunk = LocationTrackCodec.encodeChunk(walk(START, 1_000));
+
+        assertTrue(chunk.length < 1_000 * 6, "encoded size " + chunk.length);
+    }
+
+    @Test
+    void negativeCoordinatesRoundTrip() throws Exception {
+        List<TrackPoint> points = List.of(
+                new TrackPoint(START, -33.92487, 18.42406),
+                new TrackPoint(START + 5_000, -33.92501, -0.00012));
+
+        List<TrackPoint> decoded = new ArrayList<>();
+        LocationTrackCodec.decode(new ByteArrayInputStream(LocationTrackCodec.encodeChunk(points)), decoded::add);
+
+        assertEquals(points, decoded);
+    }
+
+    @Test
+    void truncatedTrackIsReported() {
+        byte[] chunk = LocationTrackCodec.encodeChunk(walk(START, 10));
+        byte[] truncated = Arrays.copyOf(chunk, chunk.length - 2);
+
+        assertThrows(EOFException.class,
+                () -> LocationTrackCodec.decode(new ByteArrayInputStream(truncated), point -> { }));
+    }
+
+    // A ping every 5 seconds, moving a few metres each time
+    private static List<TrackPoint> walk(long start, int count) {
+        List<TrackPoint> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new TrackPoint(start + i * 5_000L, 6.45500 + i * 0.00003, 3.39410 - i * 0.00002));
+        }
+        return points;
+    }
+}
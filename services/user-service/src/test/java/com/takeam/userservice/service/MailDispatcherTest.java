@@ -0,0 +1,137 @@
+package com.takeam.userservice.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MailDispatcherTest {
+
+    private static final int POOL_SIZE = 2;
+    private static final int BATCH_SIZE = 20;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JavaMailSenderImpl mailSender;
+    private SmtpConnectionPool pool;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        pool = new SmtpConnectionPool(mailSender, meterRegistry);
+        ReflectionTestUtils.setField(pool, "poolSize", POOL_SIZE);
+        ReflectionTestUtils.setField(pool, "maxIdleMs", 60_000L);
+        ReflectionTestUtils.setField(pool, "validateAfterMs", 5_000L);
+        ReflectionTestUtils.setField(pool, "maxMessagesPerConnection", 1_000);
+        pool.init();
+
+        dispatcher = new MailDispatcher(pool, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 1_000);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", BATCH_SIZE);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.stop();
+        pool.shutdown();
+    }
+
+    @Test
+    void queuedMailIsSentInBatchesOverPooledConnections() throws Exception {
+        int count = 50;
+        // Hold every connection so the whole backlog is queued before workers can send
+        List<SmtpConnectionPool.PooledTransport> held = List.of(pool.borrow(), pool.borrow());
+        for (int i = 0; i < count; i++) {
+            assertTrue(dispatcher.submit(message(i), recipient(i), "Message " + i, i % 10 == 0));
+        }
+        held.forEach(transport -> pool.release(transport, true));
+
+        assertTrue(greenMail.waitForIncomingEmail(10_000, count));
+        assertEquals(count, greenMail.getReceivedMessages().length);
+        assertEquals(count, meterRegistry.counter("mail.messages.sent").count());
+        // No connection is opened beyond the two held above
+        assertEquals(POOL_SIZE, meterRegistry.counter("mail.pool.connections.opened").count());
+        // One batch each taken before the release, the rest drained BATCH_SIZE at a time
+        long batches = meterRegistry.timer("mail.batch.send").count();
+        assertTrue(batches <= POOL_SIZE + Math.ceilDiv(count - POOL_SIZE, BATCH_SIZE), "batches: " + batches);
+    }
+
+    @Test
+    void connectionsStayOpenBetweenBursts() throws Exception {
+        for (int burst = 0; burst < 3; burst++) {
+            for (int i = 0; i < 5; i++) {
+                dispatcher.submit(message(i), recipient(i), "Burst " + burst, false);
+            }
+            assertTrue(greenMail.waitForIncomingEmail(10_000, (burst + 1) * 5));
+        }
+
+        assertEquals(15, meterRegistry.counter("mail.messages.sent").count());
+        assertTrue(meterRegistry.counter("mail.pool.connections.opened").count() <= POOL_SIZE);
+        assertEquals(0, meterRegistry.counter("mail.pool.connections.recycled").count());
+    }
+
+    @Test
+    void pooledBatchesOutpaceAConnectionPerMessage() throws Exception {
+        int count = 100;
+        // Warm up the mail classes so the first timed run is not paying for class loading
+        for (int i = 0; i < 10; i++) {
+            mailSender.send(message(i));
+        }
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 10));
+
+        // Before: what the service did without the pool, one connect and handshake per message
+        long started = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            mailSender.send(message(i));
+        }
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 10 + count));
+        long unpooledNanos = System.nanoTime() - started;
+
+        // After: queued and sent in batches over the pooled connections
+        started = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            dispatcher.submit(message(i), recipient(i), "Message " + i, false);
+        }
+        assertTrue(greenMail.waitForIncomingEmail(10_000, 10 + 2 * count));
+        long pooledNanos = System.nanoTime() - started;
+
+        assertTrue(pooledNanos < unpooledNanos,
+                "pooled " + pooledNanos / 1_000_000 + " ms, unpooled " + unpooledNanos / 1_000_000 + " ms");
+    }
+
+    // ============ HELPER METHODS ============
+
+    private MimeMessage message(int i) throws MessagingException {
+        MimeMessage message = new MimeMessage(mailSender.getSession());
+        message.setFrom(new InternetAddress("noreply@takeam.test"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(recipient(i)));
+        message.setSubject("Message " + i);
+        message.setText("Hello " + i);
+        return message;
+    }
+
+    private static String recipient(int i) {
+        return "agent" + i + "@takeam.test";
+    }
+}
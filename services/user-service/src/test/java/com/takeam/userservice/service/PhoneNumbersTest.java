@@ -0,0 +1,35 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PhoneNumbersTest {
+
+    @Test
+    void everyWayOfWritingANumberNormalizesToOneKey() {
+        for (String raw : List.of("+2348031234567", "2348031234567", "08031234567", "8031234567",
+                "002348031234567", "+234 803 123 4567", "0803-123-4567", " (0803) 123.4567 ")) {
+            assertEquals("+2348031234567", PhoneNumbers.normalize(raw), raw);
+        }
+        assertEquals("+447911123456", PhoneNumbers.normalize("+44 7911 123456"));
+    }
+
+    @Test
+    void rejectsWhatCannotBeAPhoneNumber() {
+        for (String raw : List.of("", "abc", "+0123456789", "12345", "+1234567890123456")) {
+            assertThrows(BadRequestException.class, () -> PhoneNumbers.normalize(raw), raw);
+        }
+    }
+
+    @Test
+    void storedFormsCoverNumbersRegisteredWithoutPlusOrCountryCode() {
+        assertEquals(List.of("+2348031234567", "2348031234567", "8031234567"),
+                PhoneNumbers.storedForms("+2348031234567"));
+        assertEquals(List.of("+447911123456", "447911123456"), PhoneNumbers.storedForms("+447911123456"));
+    }
+}
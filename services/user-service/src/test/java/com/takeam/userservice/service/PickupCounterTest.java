@@ -0,0 +1,178 @@
+package com.takeam.userservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PickupCounterTest {
+
+    // Stands in for agent_attendance.completed_pickups, incremented atomically like the SQL update
+    private final Map<UUID, AtomicInteger> table = new ConcurrentHashMap<>();
+    private JdbcTemplate jdbcTemplate;
+    private PickupCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any())).thenAnswer(invocation -> {
+            List<PickupCounter.Increment> increments = invocation.getArgument(1);
+            int[] rows = new int[increments.size()];
+            for (int i = 0; i < rows.length; i++) {
+                AtomicInteger row = table.get(increments.get(i).agentId());
+                if (row != null) {
+                    row.addAndGet(increments.get(i).count());
+                    rows[i] = 1;
+                }
+            }
+            return new int[][]{rows};
+        });
+        counter = new PickupCounter(jdbcTemplate, event -> { }, new SimpleMeterRegistry(), 16, 2, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        counter.shutdown();
+    }
+
+    @Test
+    void concurrentIncrementsAreNeitherLostNorDoubleCounted() throws Exception {
+        List<UUID> agents = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            UUID agentId = UUID.randomUUID();
+            agents.add(agentId);
+            table.put(agentId, new AtomicInteger());
+        }
+        Map<UUID, AtomicInteger> expected = new ConcurrentHashMap<>();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+
+        int threads = 8;
+        int incrementsPerThread = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<List<CompletableFuture<Boolean>>>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(CompletableFuture.supplyAsync(() -> {
+                List<CompletableFuture<Boolean>> submitted = new ArrayList<>(incrementsPerThread);
+                awaitQuietly(start);
+                for (int i = 0; i < incrementsPerThread; i++) {
+                    UUID agentId = agents.get(ThreadLocalRandom.current().nextInt(agents.size()));
+                    int count = 1 + ThreadLocalRandom.current().nextInt(3);
+                    expected.computeIfAbsent(agentId, key -> new AtomicInteger()).addAndGet(count);
+                    submitted.add(counter.increment(agentId, count));
+                }
+                return submitted;
+            }, pool));
+        }
+        start.countDown();
+        for (CompletableFuture<List<CompletableFuture<Boolean>>> worker : workers) {
+            futures.addAll(worker.get(30, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        for (CompletableFuture<Boolean> future : futures) {
+            assertTrue(future.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(threads * incrementsPerThread, futures.size());
+        for (UUID agentId : agents) {
+            int want = expected.getOrDefault(agentId, new AtomicInteger()).get();
+            assertEquals(want, table.get(agentId).get(), "pickups for " + agentId);
+        }
+    }
+
+    @Test
+    void agentWithoutAttendanceTodayIsReported() throws Exception {
+        UUID clockedIn = UUID.randomUUID();
+        UUID absent = UUID.randomUUID();
+        table.put(clockedIn, new AtomicInteger());
+
+        Map<UUID, PickupCounter.Outcome> outcomes = counter.incrementAll(Map.of(clockedIn, 3, absent, 2));
+
+        assertEquals(PickupCounter.Outcome.APPLIED, outcomes.get(clockedIn));
+        assertEquals(PickupCounter.Outcome.NOT_CLOCKED_IN, outcomes.get(absent));
+        assertEquals(3, table.get(clockedIn).get());
+    }
+
+    @Test
+    void slowBatchIsReportedPendingAndStillCountedOnce() throws Exception {
+        UUID agentId = UUID.randomUUID();
+        table.put(agentId, new AtomicInteger());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        JdbcTemplate slow = mock(JdbcTemplate.class);
+        when(slow.batchUpdate(anyString(), anyList(), anyInt(), any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            int[][] rows = jdbcTemplate.batchUpdate(invocation.getArgument(0),
+                    invocation.<List<PickupCounter.Increment>>getArgument(1), invocation.getArgument(2),
+                    invocation.getArgument(3));
+            written.countDown();
+            return rows;
+        });
+        PickupCounter slowCounter = new PickupCounter(slow, event -> { }, new SimpleMeterRegistry(), 16, 2, 50);
+
+        try {
+            assertEquals(PickupCounter.Outcome.PENDING, slowCounter.incrementAll(Map.of(agentId, 3)).get(agentId));
+            assertEquals(0, table.get(agentId).get());
+
+            // The batch commits after the caller stopped waiting
+            release.countDown();
+            assertTrue(written.await(10, TimeUnit.SECONDS));
+            assertEquals(3, table.get(agentId).get());
+        } finally {
+            release.countDown();
+            slowCounter.shutdown();
+        }
+    }
+
+    @Test
+    void failingListenerDoesNotStrandOtherWaiters() {
+        PickupCounter failing = new PickupCounter(jdbcTemplate, event -> {
+            throw new IllegalStateException("listener down");
+        }, new SimpleMeterRegistry(), 16, 2, 5_000);
+        Map<UUID, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 5; i++) {
+            UUID agentId = UUID.randomUUID();
+            table.put(agentId, new AtomicInteger());
+            counts.put(agentId, 1);
+        }
+
+        try {
+            Map<UUID, PickupCounter.Outcome> outcomes = failing.incrementAll(counts);
+            assertTrue(outcomes.values().stream().allMatch(PickupCounter.Outcome.APPLIED::equals));
+        } finally {
+            failing.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.takeam.userservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(1024, new RingBuffer<>(1024).capacity());
+        assertEquals(1024, new RingBuffer<>(1000).capacity());
+        assertEquals(4, new RingBuffer<>(3).capacity());
+    }
+
+    @Test
+    void rejectsOffersWhenFullAndReturnsNullWhenEmpty() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        assertNull(buffer.poll());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+
+        // FIFO, and slots are reusable once drained
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertEquals(round * 4 + i, buffer.poll());
+                assertTrue(buffer.offer((round + 1) * 4 + i));
+            }
+        }
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    void concurrentProducersAndConsumersDeliverEveryItemExactlyOnce() throws Exception {
+        RingBuffer<Integer> buffer = new RingBuffer<>(64);
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 20_000;
+        int total = producers * perProducer;
+
+        BitSet seen = new BitSet(total);
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            tasks.add(CompletableFuture.runAsync(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            }, pool));
+        }
+        for (int c = 0; c < consumers; c++) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                awaitQuietly(start);
+                while (consumed.get() < total) {
+                    Integer item = buffer.poll();
+                    if (item == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    synchronized (seen) {
+                        if (seen.get(item)) {
+                            duplicates.incrementAndGet();
+                        }
+                        seen.set(item);
+                    }
+                    consumed.incrementAndGet();
+                }
+            }, pool));
+        }
+
+        start.countDown();
+        try {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, duplicates.get());
+        assertEquals(total, seen.cardinality());
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
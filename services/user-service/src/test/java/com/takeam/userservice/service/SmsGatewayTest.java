@@ -0,0 +1,64 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.exception.SmsDeliveryException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SmsGatewayTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void failsOverToTheNextConfiguredProvider() throws Exception {
+        StubSmsProvider stub = new StubSmsProvider(0);
+        SmsGateway gateway = new SmsGateway(List.of(stub, failing("termii")), meterRegistry,
+                List.of("termii", "stub"), 5, 30_000);
+
+        gateway.send("+2348000000001", "Your code is 123456").get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, stub.getSentCount());
+        assertEquals(1, meterRegistry.counter("sms.failed", "provider", "termii").count());
+        assertEquals(1, meterRegistry.counter("sms.sent", "provider", "stub").count());
+    }
+
+    @Test
+    void onlyListedProvidersAreUsed() {
+        StubSmsProvider stub = new StubSmsProvider(0);
+        SmsGateway gateway = new SmsGateway(List.of(stub, failing("termii")), meterRegistry,
+                List.of("termii"), 5, 30_000);
+
+        CompletableFuture<Void> result = gateway.send("+2348000000001", "Your code is 123456");
+
+        assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(0, stub.getSentCount());
+    }
+
+    @Test
+    void unknownProviderNameFailsAtStartup() {
+        assertThrows(IllegalStateException.class, () -> new SmsGateway(List.of(new StubSmsProvider(0)),
+                meterRegistry, List.of("twilio"), 5, 30_000));
+    }
+
+    // ============ HELPER METHODS ============
+
+    private static SmsProvider failing(String name) {
+        return new SmsProvider() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public CompletableFuture<Void> send(String phoneNumber, String message) {
+                return CompletableFuture.failedFuture(new SmsDeliveryException(name + " is down"));
+            }
+        };
+    }
+}
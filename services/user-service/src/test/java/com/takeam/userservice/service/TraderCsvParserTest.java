@@ -0,0 +1,45 @@
+package com.takeam.userservice.service;
+
+import com.takeam.userservice.dto.request.TraderRegistrationRequestDto;
+import com.takeam.userservice.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TraderCsvParserTest {
+
+    @Test
+    void mapsColumnsByHeaderInAnyOrder() throws Exception {
+        String csv = "fullName,phoneNumber,bankAccountNumber,bankName\n"
+                + "\"Okafor, Ada\",+2348012345678,0123456789,\"GT \"\"Bank\"\"\"\n"
+                + "\n"
+                + "Musa Bello,+2348098765432,9876543210,\n";
+
+        List<TraderRegistrationRequestDto> rows = TraderCsvParser.parse(new StringReader(csv), 10);
+
+        assertEquals(2, rows.size());
+        assertEquals("Okafor, Ada", rows.get(0).getFullName());
+        assertEquals("+2348012345678", rows.get(0).getPhoneNumber());
+        assertEquals("GT \"Bank\"", rows.get(0).getBankName());
+        assertNull(rows.get(1).getBankName());
+        assertNull(rows.get(1).getAccountName());
+    }
+
+    @Test
+    void rejectsUploadsOverTheRowLimit() {
+        String csv = "phoneNumber,fullName\n+2348000000001,A\n+2348000000002,B\n";
+
+        assertThrows(BadRequestException.class, () -> TraderCsvParser.parse(new StringReader(csv), 1));
+    }
+
+    @Test
+    void requiresPhoneAndNameColumns() {
+        assertThrows(BadRequestException.class,
+                () -> TraderCsvParser.parse(new StringReader("fullName,bankName\nA,B\n"), 10));
+    }
+}